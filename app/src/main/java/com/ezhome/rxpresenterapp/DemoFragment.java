@@ -9,6 +9,7 @@ import android.widget.TextView;
 import butterknife.BindView;
 import butterknife.ButterKnife;
 import butterknife.Unbinder;
+import com.ezhome.rxpresenter.PresenterStore;
 import com.ezhome.rxpresenter.mvp.MvpFragment;
 import com.ezhome.rxpresenter.mvp.Presenter;
 
@@ -23,7 +24,7 @@ public class DemoFragment extends MvpFragment implements DemoView {
   @BindView(R.id.demoDestroyTxt) TextView demoDestroyTxt;
 
   private Unbinder unbinder;
-  private Presenter demoPresenter = new DemoPresenter();
+  private Presenter demoPresenter;
 
   public static DemoFragment newInstance() {
     return new DemoFragment();
@@ -31,6 +32,12 @@ public class DemoFragment extends MvpFragment implements DemoView {
 
   @Override public void onCreate(@Nullable Bundle savedInstanceState) {
     super.onCreate(savedInstanceState);
+    this.demoPresenter = PresenterStore.of(this)
+        .get(DemoPresenter.class.getName(), new PresenterStore.Factory<DemoPresenter>() {
+          @Override public DemoPresenter create() {
+            return new DemoPresenter();
+          }
+        });
     this.demoPresenter.bind(this);
   }
 
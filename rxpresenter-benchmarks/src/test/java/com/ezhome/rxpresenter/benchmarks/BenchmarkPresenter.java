@@ -0,0 +1,39 @@
+package com.ezhome.rxpresenter.benchmarks;
+
+import com.ezhome.rxpresenter.RxPresenter;
+import com.ezhome.rxpresenter.mvp.MvpView;
+import com.trello.rxlifecycle.android.FragmentEvent;
+import rx.Completable;
+import rx.CompletableSubscriber;
+import rx.Observable;
+import rx.Scheduler;
+import rx.Single;
+import rx.SingleSubscriber;
+import rx.Subscriber;
+import rx.Subscription;
+
+/**
+ * Exposes the bind methods of {@link RxPresenter} to the benchmarks
+ */
+class BenchmarkPresenter extends RxPresenter<MvpView> {
+
+  <T> Subscription lifecycle(Observable<T> observable, Scheduler scheduler,
+      Subscriber<T> subscriber) {
+    return this.bindSubscriber(observable, scheduler, subscriber);
+  }
+
+  <T> Subscription lifecycle(Single<T> single, Scheduler scheduler,
+      SingleSubscriber<T> subscriber) {
+    return this.bindLifecycle(single, scheduler, subscriber);
+  }
+
+  Subscription lifecycle(Completable completable, Scheduler scheduler,
+      CompletableSubscriber subscriber) {
+    return this.bindLifecycle(completable, scheduler, subscriber);
+  }
+
+  <T> Subscription untilEvent(Observable<T> observable, FragmentEvent event,
+      Subscriber<T> subscriber) {
+    return this.bindSubscriberUntilEvent(observable, event, subscriber);
+  }
+}
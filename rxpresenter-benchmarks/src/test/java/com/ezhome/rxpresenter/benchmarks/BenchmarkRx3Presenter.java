@@ -0,0 +1,33 @@
+package com.ezhome.rxpresenter.benchmarks;
+
+import com.ezhome.rxpresenter.rx3.RxPresenter;
+import com.ezhome.rxpresenter.rx3.mvp.MvpView;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.functions.Consumer;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Exposes the bind methods of the RxJava 3 {@link RxPresenter} to the benchmarks, the streams run
+ * on the calling thread like the RxJava 1 benchmarks which bind on the immediate scheduler
+ */
+class BenchmarkRx3Presenter extends RxPresenter<MvpView> {
+
+  <T> Disposable lifecycle(Observable<T> observable, Consumer<? super T> onNext) {
+    return this.bindLifecycle(observable, onNext);
+  }
+
+  <T> Disposable lifecycle(Flowable<T> flowable, Consumer<? super T> onNext) {
+    return this.bindLifecycle(flowable, onNext);
+  }
+
+  @Override protected Scheduler scheduler() {
+    return Schedulers.trampoline();
+  }
+
+  @Override protected Scheduler mainThreadScheduler() {
+    return BenchmarkSchedulers.rx3MainThread();
+  }
+}
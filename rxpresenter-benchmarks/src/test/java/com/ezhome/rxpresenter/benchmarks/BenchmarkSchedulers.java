@@ -0,0 +1,41 @@
+package com.ezhome.rxpresenter.benchmarks;
+
+import java.util.concurrent.Executor;
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
+
+/**
+ * Schedulers which replace the Android main thread in the benchmarks
+ */
+final class BenchmarkSchedulers {
+
+  private static final Executor DIRECT = new Executor() {
+    @Override public void execute(Runnable command) {
+      command.run();
+    }
+  };
+
+  private BenchmarkSchedulers() {
+    throw new AssertionError("No instances.");
+  }
+
+  /**
+   * A synchronous stand-in of the main thread. Unlike {@link Schedulers#immediate()}, which
+   * observeOn skips, the items still pass through the observeOn queue and a worker, so the
+   * benchmarks measure the cost of the hop without the latency of a thread switch
+   *
+   * @return {@link Scheduler}
+   */
+  static Scheduler mainThread() {
+    return Schedulers.from(DIRECT);
+  }
+
+  /**
+   * Same as {@link #mainThread()} for the RxJava 3 presenter
+   *
+   * @return {@link io.reactivex.rxjava3.core.Scheduler}
+   */
+  static io.reactivex.rxjava3.core.Scheduler rx3MainThread() {
+    return io.reactivex.rxjava3.schedulers.Schedulers.from(DIRECT);
+  }
+}
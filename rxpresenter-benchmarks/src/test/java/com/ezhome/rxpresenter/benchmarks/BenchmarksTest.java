@@ -0,0 +1,40 @@
+package com.ezhome.rxpresenter.benchmarks;
+
+import java.io.File;
+import org.junit.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Runs the JMH benchmarks of this module when the build is started with -Pbenchmarks, the
+ * results are saved as JSON so they can be compared across releases
+ */
+public class BenchmarksTest {
+
+  private static final String BENCHMARKS_PACKAGE = "com\\.ezhome\\.rxpresenter\\.benchmarks\\.";
+
+  @Test public void runBenchmarks() throws Exception {
+    assumeTrue("Run with -Pbenchmarks", Boolean.getBoolean("rxpresenter.benchmarks"));
+
+    final File output = new File(
+        System.getProperty("rxpresenter.benchmarks.output", "build/reports/jmh/results.json"));
+    if (!output.getParentFile().isDirectory() && !output.getParentFile().mkdirs()) {
+      throw new IllegalStateException("Cannot create " + output.getParent());
+    }
+    final String include = System.getProperty("rxpresenter.benchmarks.include", "");
+
+    final Options options = new OptionsBuilder()
+        .include(BENCHMARKS_PACKAGE + ".*" + include + ".*")
+        //reports the bytes allocated per operation next to the time
+        .addProfiler(GCProfiler.class)
+        .resultFormat(ResultFormatType.JSON)
+        .result(output.getAbsolutePath())
+        .build();
+    new Runner(options).run();
+  }
+}
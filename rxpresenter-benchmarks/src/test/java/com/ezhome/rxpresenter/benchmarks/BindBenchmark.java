@@ -0,0 +1,123 @@
+package com.ezhome.rxpresenter.benchmarks;
+
+import com.ezhome.rxpresenter.RxPresenterPlugins;
+import com.trello.rxlifecycle.android.FragmentEvent;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+/**
+ * Cost of binding a presenter to a component and of binding a stream to a presenter
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BindBenchmark {
+
+  private static final int CHILD_PRESENTERS = 8;
+
+  private final Observable<Object> never = Observable.never();
+
+  private BenchmarkPresenter activityPresenter;
+  private BenchmarkPresenter fragmentPresenter;
+
+  @Setup public void setUp() {
+    RxPresenterPlugins.setMainThreadScheduler(BenchmarkSchedulers.mainThread());
+
+    final FakeNaviActivity activity = new FakeNaviActivity();
+    this.activityPresenter = new BenchmarkPresenter();
+    this.activityPresenter.bind(activity);
+    activity.create();
+    activity.start();
+
+    final FakeNaviFragment fragment = new FakeNaviFragment();
+    this.fragmentPresenter = new BenchmarkPresenter();
+    this.fragmentPresenter.bind(fragment);
+    fragment.createView();
+  }
+
+  @TearDown public void tearDown() {
+    this.activityPresenter.destroy();
+    this.fragmentPresenter.destroy();
+    RxPresenterPlugins.reset();
+  }
+
+  /**
+   * A presenter follows an activity from bind() until it is destroyed
+   */
+  @Benchmark public BenchmarkPresenter bindDestroyActivity() {
+    final FakeNaviActivity activity = new FakeNaviActivity();
+    final BenchmarkPresenter presenter = new BenchmarkPresenter();
+    presenter.bind(activity);
+    activity.create();
+    activity.start();
+    activity.resume();
+    activity.pause();
+    activity.stop();
+    activity.destroy();
+    return presenter;
+  }
+
+  /**
+   * A screen with {@value #CHILD_PRESENTERS} presenters follows an activity from bind() until it
+   * is destroyed, they share the lifecycle of the activity
+   */
+  @Benchmark public void bindDestroyActivityPresenters(Blackhole blackhole) {
+    final FakeNaviActivity activity = new FakeNaviActivity();
+    for (int i = 0; i < CHILD_PRESENTERS; i++) {
+      final BenchmarkPresenter presenter = new BenchmarkPresenter();
+      presenter.bind(activity);
+      blackhole.consume(presenter);
+    }
+    activity.create();
+    activity.start();
+    activity.resume();
+    activity.pause();
+    activity.stop();
+    activity.destroy();
+  }
+
+  /**
+   * A presenter follows a fragment view from bind() until it is destroyed
+   */
+  @Benchmark public BenchmarkPresenter bindDestroyFragment() {
+    final FakeNaviFragment fragment = new FakeNaviFragment();
+    final BenchmarkPresenter presenter = new BenchmarkPresenter();
+    presenter.bind(fragment);
+    fragment.createView();
+    fragment.destroyView();
+    presenter.destroy();
+    return presenter;
+  }
+
+  /**
+   * Composes the scheduler and the lifecycle transformers, subscribes and unsubscribes
+   */
+  @Benchmark public void bindLifecycle(Blackhole blackhole) {
+    this.activityPresenter.lifecycle(this.never, Schedulers.immediate(),
+        new BlackholeSubscriber<>(blackhole)).unsubscribe();
+  }
+
+  /**
+   * Composes the event transformer, subscribes and unsubscribes
+   */
+  @Benchmark public void bindUntilEvent(Blackhole blackhole) {
+    this.fragmentPresenter.untilEvent(this.never, FragmentEvent.STOP,
+        new BlackholeSubscriber<>(blackhole)).unsubscribe();
+  }
+}
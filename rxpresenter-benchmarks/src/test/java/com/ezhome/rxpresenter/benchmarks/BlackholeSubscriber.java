@@ -0,0 +1,28 @@
+package com.ezhome.rxpresenter.benchmarks;
+
+import org.openjdk.jmh.infra.Blackhole;
+import rx.Subscriber;
+
+/**
+ * A {@link Subscriber} which consumes the items in a {@link Blackhole}
+ */
+final class BlackholeSubscriber<T> extends Subscriber<T> {
+
+  private final Blackhole blackhole;
+
+  BlackholeSubscriber(Blackhole blackhole) {
+    this.blackhole = blackhole;
+  }
+
+  @Override public void onCompleted() {
+    this.blackhole.consume(true);
+  }
+
+  @Override public void onError(Throwable e) {
+    this.blackhole.consume(e);
+  }
+
+  @Override public void onNext(T t) {
+    this.blackhole.consume(t);
+  }
+}
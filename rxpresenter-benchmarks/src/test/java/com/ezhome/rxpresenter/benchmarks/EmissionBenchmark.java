@@ -0,0 +1,64 @@
+package com.ezhome.rxpresenter.benchmarks;
+
+import com.ezhome.rxpresenter.RxPresenterPlugins;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rx.schedulers.Schedulers;
+import rx.subjects.PublishSubject;
+
+/**
+ * Per emission overhead of a bound stream, from the upstream through the main thread hop to the
+ * subscriber, compared with a bare observeOn on the same scheduler
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EmissionBenchmark {
+
+  private final PublishSubject<Integer> bare = PublishSubject.create();
+  private final PublishSubject<Integer> bound = PublishSubject.create();
+  private final Integer item = 42;
+
+  private FakeNaviActivity activity;
+
+  @Setup public void setUp(Blackhole blackhole) {
+    RxPresenterPlugins.setMainThreadScheduler(BenchmarkSchedulers.mainThread());
+    this.bare.observeOn(RxPresenterPlugins.mainThreadScheduler())
+        .subscribe(new BlackholeSubscriber<Integer>(blackhole));
+
+    this.activity = new FakeNaviActivity();
+    final BenchmarkPresenter presenter = new BenchmarkPresenter();
+    presenter.bind(this.activity);
+    this.activity.create();
+    this.activity.start();
+    presenter.lifecycle(this.bound, Schedulers.immediate(),
+        new BlackholeSubscriber<Integer>(blackhole));
+  }
+
+  @TearDown public void tearDown() {
+    this.activity.destroy();
+    RxPresenterPlugins.reset();
+  }
+
+  @Benchmark public void observeOn() {
+    this.bare.onNext(this.item);
+  }
+
+  @Benchmark public void bindLifecycle() {
+    this.bound.onNext(this.item);
+  }
+}
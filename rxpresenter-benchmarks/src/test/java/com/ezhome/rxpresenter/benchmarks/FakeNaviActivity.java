@@ -0,0 +1,36 @@
+package com.ezhome.rxpresenter.benchmarks;
+
+import com.ezhome.rxpresenter.mvp.MvpView;
+import com.trello.navi.component.NaviActivity;
+
+/**
+ * A {@link NaviActivity} which is driven by the benchmarks, on the JVM the framework methods are
+ * stubs so only the Navi events are emitted
+ */
+public class FakeNaviActivity extends NaviActivity
+    implements MvpView, com.ezhome.rxpresenter.rx3.mvp.MvpView {
+
+  void create() {
+    this.onCreate(null);
+  }
+
+  void start() {
+    this.onStart();
+  }
+
+  void resume() {
+    this.onResume();
+  }
+
+  void pause() {
+    this.onPause();
+  }
+
+  void stop() {
+    this.onStop();
+  }
+
+  void destroy() {
+    this.onDestroy();
+  }
+}
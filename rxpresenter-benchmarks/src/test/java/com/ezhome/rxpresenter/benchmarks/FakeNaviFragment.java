@@ -0,0 +1,20 @@
+package com.ezhome.rxpresenter.benchmarks;
+
+import com.ezhome.rxpresenter.mvp.MvpView;
+import com.trello.navi.component.support.NaviFragment;
+
+/**
+ * A {@link NaviFragment} which is driven by the benchmarks. Only the view lifecycle is emitted,
+ * the rest of the fragment lifecycle needs a host
+ */
+public class FakeNaviFragment extends NaviFragment implements MvpView {
+
+  void createView() {
+    this.onCreateView(null, null, null);
+    this.onViewCreated(null, null);
+  }
+
+  void destroyView() {
+    this.onDestroyView();
+  }
+}
@@ -0,0 +1,109 @@
+package com.ezhome.rxpresenter.benchmarks;
+
+import com.ezhome.rxpresenter.reactive.PresenterMainDispatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.Subscription;
+import rx.schedulers.Schedulers;
+import rx.subjects.PublishSubject;
+
+/**
+ * Latency of the main thread hop when many streams emit at the same time, from the emission of
+ * one item on every stream until the last one is delivered on the main thread. A single threaded
+ * executor stands for the main thread: per stream posting runs one task per item, like
+ * {@link rx.android.schedulers.AndroidSchedulers#mainThread()} posts one message per item, while
+ * the {@link PresenterMainDispatcher} runs one task per batch. The message counts are checked by
+ * PresenterMainDispatcherTest.
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MainThreadLatencyBenchmark {
+
+  /**
+   * The number of streams which emit at the same time
+   */
+  @Param({"1", "10", "100"}) public int streams;
+
+  /**
+   * {@code perStream} or {@code batched}
+   */
+  @Param({"perStream", "batched"}) public String posting;
+
+  private final List<PublishSubject<Integer>> subjects = new ArrayList<>();
+  private final List<Subscription> subscriptions = new ArrayList<>();
+  private final AtomicInteger remaining = new AtomicInteger();
+  private final Integer item = 42;
+
+  private ScheduledExecutorService mainThread;
+  private volatile Thread waiter;
+
+  @Setup(Level.Trial) public void setUp(final Blackhole blackhole) {
+    this.mainThread = Executors.newSingleThreadScheduledExecutor();
+    final Scheduler scheduler = "batched".equals(this.posting)
+        ? PresenterMainDispatcher.from(this.mainThread)
+        : Schedulers.from(this.mainThread);
+
+    for (int i = 0; i < this.streams; i++) {
+      final PublishSubject<Integer> subject = PublishSubject.create();
+      this.subjects.add(subject);
+      this.subscriptions.add(subject.observeOn(scheduler).subscribe(new Subscriber<Integer>() {
+        @Override public void onCompleted() {
+        }
+
+        @Override public void onError(Throwable e) {
+          blackhole.consume(e);
+        }
+
+        @Override public void onNext(Integer value) {
+          blackhole.consume(value);
+          if (remaining.decrementAndGet() == 0) {
+            LockSupport.unpark(waiter);
+          }
+        }
+      }));
+    }
+  }
+
+  @TearDown(Level.Trial) public void tearDown() {
+    for (Subscription subscription : this.subscriptions) {
+      subscription.unsubscribe();
+    }
+    this.mainThread.shutdownNow();
+  }
+
+  @Benchmark public void emitOnEveryStream() {
+    this.waiter = Thread.currentThread();
+    this.remaining.set(this.streams);
+    for (int i = 0; i < this.streams; i++) {
+      this.subjects.get(i).onNext(this.item);
+    }
+    while (this.remaining.get() > 0) {
+      LockSupport.park(this);
+    }
+  }
+}
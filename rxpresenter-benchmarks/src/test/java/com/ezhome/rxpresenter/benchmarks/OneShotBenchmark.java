@@ -0,0 +1,96 @@
+package com.ezhome.rxpresenter.benchmarks;
+
+import com.ezhome.rxpresenter.RxPresenterPlugins;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rx.Completable;
+import rx.CompletableSubscriber;
+import rx.Single;
+import rx.SingleSubscriber;
+import rx.Subscription;
+import rx.schedulers.Schedulers;
+
+/**
+ * Cost of one request, a {@link Single} or a {@link Completable} which is bound, delivered on the
+ * main thread and released, natively against the same request converted to an Observable. The
+ * bytes allocated per request are reported by the gc profiler as gc.alloc.rate.norm
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OneShotBenchmark {
+
+  private final Single<Object> single = Single.just(new Object());
+  private final Completable completable = Completable.complete();
+
+  private BenchmarkPresenter presenter;
+
+  @Setup public void setUp() {
+    RxPresenterPlugins.setMainThreadScheduler(BenchmarkSchedulers.mainThread());
+
+    final FakeNaviActivity activity = new FakeNaviActivity();
+    this.presenter = new BenchmarkPresenter();
+    this.presenter.bind(activity);
+    activity.create();
+    activity.start();
+  }
+
+  @TearDown public void tearDown() {
+    this.presenter.destroy();
+    RxPresenterPlugins.reset();
+  }
+
+  @Benchmark public Subscription single(final Blackhole blackhole) {
+    return this.presenter.lifecycle(this.single, Schedulers.immediate(),
+        new SingleSubscriber<Object>() {
+          @Override public void onSuccess(Object value) {
+            blackhole.consume(value);
+          }
+
+          @Override public void onError(Throwable error) {
+            blackhole.consume(error);
+          }
+        });
+  }
+
+  @Benchmark public Subscription singleAsObservable(Blackhole blackhole) {
+    return this.presenter.lifecycle(this.single.toObservable(), Schedulers.immediate(),
+        new BlackholeSubscriber<>(blackhole));
+  }
+
+  @Benchmark public Subscription completable(final Blackhole blackhole) {
+    return this.presenter.lifecycle(this.completable, Schedulers.immediate(),
+        new CompletableSubscriber() {
+          @Override public void onCompleted() {
+            blackhole.consume(true);
+          }
+
+          @Override public void onError(Throwable e) {
+            blackhole.consume(e);
+          }
+
+          @Override public void onSubscribe(Subscription d) {
+            blackhole.consume(d);
+          }
+        });
+  }
+
+  @Benchmark public Subscription completableAsObservable(Blackhole blackhole) {
+    return this.presenter.lifecycle(this.completable.toObservable(), Schedulers.immediate(),
+        new BlackholeSubscriber<>(blackhole));
+  }
+}
@@ -0,0 +1,80 @@
+package com.ezhome.rxpresenter.benchmarks;
+
+import com.ezhome.rxpresenter.RxPresenterPlugins;
+import io.reactivex.rxjava3.functions.Consumer;
+import io.reactivex.rxjava3.processors.PublishProcessor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rx.schedulers.Schedulers;
+import rx.subjects.PublishSubject;
+
+/**
+ * Per emission cost of a bound stream with the RxJava 1 presenter and with the RxJava 3 one, both
+ * bound to the lifecycle of the same activity and delivered through the same synchronous main
+ * thread stand-in
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Rx3EmissionBenchmark {
+
+  private final PublishSubject<Integer> rx1 = PublishSubject.create();
+  private final io.reactivex.rxjava3.subjects.PublishSubject<Integer> rx3Observable =
+      io.reactivex.rxjava3.subjects.PublishSubject.create();
+  private final PublishProcessor<Integer> rx3Flowable = PublishProcessor.create();
+  private final Integer item = 42;
+
+  private FakeNaviActivity activity;
+
+  @Setup public void setUp(final Blackhole blackhole) {
+    RxPresenterPlugins.setMainThreadScheduler(BenchmarkSchedulers.mainThread());
+    this.activity = new FakeNaviActivity();
+    final BenchmarkPresenter presenter = new BenchmarkPresenter();
+    final BenchmarkRx3Presenter rx3Presenter = new BenchmarkRx3Presenter();
+    presenter.bind(this.activity);
+    rx3Presenter.bind(this.activity);
+    this.activity.create();
+    this.activity.start();
+
+    final Consumer<Integer> consumer = new Consumer<Integer>() {
+      @Override public void accept(Integer integer) {
+        blackhole.consume(integer);
+      }
+    };
+    presenter.lifecycle(this.rx1, Schedulers.immediate(),
+        new BlackholeSubscriber<Integer>(blackhole));
+    rx3Presenter.lifecycle(this.rx3Observable, consumer);
+    rx3Presenter.lifecycle(this.rx3Flowable, consumer);
+  }
+
+  @TearDown public void tearDown() {
+    this.activity.destroy();
+    RxPresenterPlugins.reset();
+  }
+
+  @Benchmark public void rx1Observable() {
+    this.rx1.onNext(this.item);
+  }
+
+  @Benchmark public void rx3Observable() {
+    this.rx3Observable.onNext(this.item);
+  }
+
+  @Benchmark public void rx3Flowable() {
+    this.rx3Flowable.onNext(this.item);
+  }
+}
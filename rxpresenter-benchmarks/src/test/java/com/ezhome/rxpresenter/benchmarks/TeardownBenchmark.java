@@ -0,0 +1,83 @@
+package com.ezhome.rxpresenter.benchmarks;
+
+import com.ezhome.rxpresenter.RxPresenterPlugins;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+/**
+ * Cost of tearing down a component with N live bound streams
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TeardownBenchmark {
+
+  @Param({ "10", "100", "1000" }) int streams;
+
+  private final Observable<Object> never = Observable.never();
+
+  private FakeNaviActivity activity;
+  private FakeNaviFragment fragment;
+  private BenchmarkPresenter fragmentPresenter;
+
+  @Setup(Level.Trial) public void setUpTrial() {
+    RxPresenterPlugins.setMainThreadScheduler(BenchmarkSchedulers.mainThread());
+  }
+
+  @TearDown(Level.Trial) public void tearDownTrial() {
+    RxPresenterPlugins.reset();
+  }
+
+  @Setup(Level.Invocation) public void setUp(Blackhole blackhole) {
+    this.activity = new FakeNaviActivity();
+    final BenchmarkPresenter activityPresenter = new BenchmarkPresenter();
+    activityPresenter.bind(this.activity);
+    this.activity.create();
+    this.activity.start();
+
+    this.fragment = new FakeNaviFragment();
+    this.fragmentPresenter = new BenchmarkPresenter();
+    this.fragmentPresenter.bind(this.fragment);
+    this.fragment.createView();
+
+    for (int i = 0; i < this.streams; i++) {
+      activityPresenter.lifecycle(this.never, Schedulers.immediate(),
+          new BlackholeSubscriber<>(blackhole));
+      this.fragmentPresenter.lifecycle(this.never, Schedulers.immediate(),
+          new BlackholeSubscriber<>(blackhole));
+    }
+  }
+
+  /**
+   * The activity DESTROY event completes the streams and destroys the presenter
+   */
+  @Benchmark public void destroyActivity() {
+    this.activity.destroy();
+  }
+
+  /**
+   * The fragment DESTROY_VIEW event completes the streams
+   */
+  @Benchmark public void destroyFragmentView() {
+    this.fragment.destroyView();
+    this.fragmentPresenter.destroy();
+  }
+}
@@ -0,0 +1,470 @@
+package com.ezhome.rxpresenter.rx3;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import com.ezhome.rxpresenter.rx3.mvp.MvpView;
+import com.ezhome.rxpresenter.rx3.mvp.Presenter;
+import com.trello.navi.Event;
+import com.trello.navi.Listener;
+import com.trello.navi.NaviComponent;
+import com.trello.navi.component.NaviActivity;
+import com.trello.navi.component.support.NaviAppCompatActivity;
+import com.trello.navi.component.support.NaviDialogFragment;
+import com.trello.navi.component.support.NaviFragment;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.functions.Action;
+import io.reactivex.rxjava3.functions.Consumer;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import timber.log.Timber;
+
+/**
+ * An RxJava 3 presenter based on lifecycle. The bound streams run on {@link #scheduler()}, are
+ * delivered on {@link #mainThreadScheduler()} and are disposed through a
+ * {@link CompositeDisposable} on {@link Event#DESTROY_VIEW} for fragments and on
+ * {@link Event#DESTROY} for activities. A stream which terminates is removed from its
+ * {@link CompositeDisposable} right away.
+ */
+public abstract class RxPresenter<V extends MvpView> implements Presenter<V> {
+
+  /**
+   * Default error handling of the bound streams
+   */
+  private static final Consumer<Throwable> LOG_ERROR = new Consumer<Throwable>() {
+    @Override public void accept(Throwable e) {
+      Timber.e(e, e.getMessage());
+    }
+  };
+
+  private static final Action NO_ACTION = new Action() {
+    @Override public void run() {
+      //no-op
+    }
+  };
+
+  /**
+   * The streams which are disposed at the end of the component lifecycle
+   */
+  private final CompositeDisposable lifecycleDisposables = new CompositeDisposable();
+
+  /**
+   * The streams of {@link #bindUntilEvent(Observable, Event, Consumer, Consumer)} by event
+   */
+  private final Map<Event<?>, CompositeDisposable> eventDisposables = new HashMap<>();
+
+  /**
+   * The {@link Listener}s of this presenter which are added to the {@link NaviComponent}
+   */
+  private final List<Listener<?>> listeners = new ArrayList<>();
+
+  /**
+   * {@link NaviComponent}
+   */
+  private NaviComponent naviComponent;
+
+  /**
+   * {@link MvpView}
+   */
+  private MvpView mvpView;
+
+  /**
+   * The view which is bind with the presenter
+   */
+  protected V view;
+
+  @Override public void bind(NaviFragment fragment) {
+    this.init(fragment, Event.VIEW_CREATED, Event.DESTROY_VIEW);
+  }
+
+  @Override public void bind(NaviDialogFragment fragment) {
+    this.init(fragment, Event.VIEW_CREATED, Event.DESTROY_VIEW);
+  }
+
+  @Override public void bind(NaviAppCompatActivity activity) {
+    this.init(activity, Event.START, Event.DESTROY);
+  }
+
+  @Override public void bind(NaviActivity activity) {
+    this.init(activity, Event.START, Event.DESTROY);
+  }
+
+  @Override public void resume() {
+    //empty method
+  }
+
+  @Override public void pause() {
+    //empty method
+  }
+
+  @Override public void destroy() {
+    this.removeListeners();
+    this.disposeAll();
+    this.view = null;
+  }
+
+  /**
+   * Just binds the view
+   *
+   * @param mpvView {@link MvpView}
+   */
+  public void bindView(@NonNull V mpvView) {
+    this.view = mpvView;
+  }
+
+  /**
+   * Binds a {@link Flowable} to the component lifecycle
+   *
+   * @param flowable {@link Flowable} given flowable for subscribe
+   * @param onNext {@link Consumer} of the items on the main thread
+   * @param <T> any object for {@link Flowable}
+   * @return {@link Disposable}
+   */
+  protected final <T> Disposable bindLifecycle(@NonNull Flowable<T> flowable,
+      @NonNull Consumer<? super T> onNext) {
+    return this.bindLifecycle(flowable, onNext, null);
+  }
+
+  /**
+   * Binds a {@link Flowable} to the component lifecycle
+   *
+   * @param flowable {@link Flowable} given flowable for subscribe
+   * @param onNext {@link Consumer} of the items on the main thread
+   * @param onError [OPTIONAL] {@link Consumer} of the error, it is logged if null
+   * @param <T> any object for {@link Flowable}
+   * @return {@link Disposable}
+   */
+  protected final <T> Disposable bindLifecycle(@NonNull Flowable<T> flowable,
+      @NonNull Consumer<? super T> onNext, @Nullable Consumer<? super Throwable> onError) {
+    return this.subscribe(flowable, onNext, onError, this.lifecycleDisposables);
+  }
+
+  /**
+   * Binds a {@link Flowable} until the given event of the component
+   *
+   * @param flowable {@link Flowable} given flowable for subscribe
+   * @param event {@link Event} which disposes the stream
+   * @param onNext {@link Consumer} of the items on the main thread
+   * @param onError [OPTIONAL] {@link Consumer} of the error, it is logged if null
+   * @param <T> any object for {@link Flowable}
+   * @return {@link Disposable}
+   */
+  protected final <T> Disposable bindUntilEvent(@NonNull Flowable<T> flowable,
+      @NonNull Event<?> event, @NonNull Consumer<? super T> onNext,
+      @Nullable Consumer<? super Throwable> onError) {
+    return this.subscribe(flowable, onNext, onError, this.untilEvent(event));
+  }
+
+  /**
+   * Binds an {@link Observable} to the component lifecycle
+   *
+   * @param observable {@link Observable} given observable for subscribe
+   * @param onNext {@link Consumer} of the items on the main thread
+   * @param <T> any object for {@link Observable}
+   * @return {@link Disposable}
+   */
+  protected final <T> Disposable bindLifecycle(@NonNull Observable<T> observable,
+      @NonNull Consumer<? super T> onNext) {
+    return this.bindLifecycle(observable, onNext, null);
+  }
+
+  /**
+   * Binds an {@link Observable} to the component lifecycle
+   *
+   * @param observable {@link Observable} given observable for subscribe
+   * @param onNext {@link Consumer} of the items on the main thread
+   * @param onError [OPTIONAL] {@link Consumer} of the error, it is logged if null
+   * @param <T> any object for {@link Observable}
+   * @return {@link Disposable}
+   */
+  protected final <T> Disposable bindLifecycle(@NonNull Observable<T> observable,
+      @NonNull Consumer<? super T> onNext, @Nullable Consumer<? super Throwable> onError) {
+    return this.subscribe(observable, onNext, onError, this.lifecycleDisposables);
+  }
+
+  /**
+   * Binds an {@link Observable} until the given event of the component
+   *
+   * @param observable {@link Observable} given observable for subscribe
+   * @param event {@link Event} which disposes the stream
+   * @param onNext {@link Consumer} of the items on the main thread
+   * @param onError [OPTIONAL] {@link Consumer} of the error, it is logged if null
+   * @param <T> any object for {@link Observable}
+   * @return {@link Disposable}
+   */
+  protected final <T> Disposable bindUntilEvent(@NonNull Observable<T> observable,
+      @NonNull Event<?> event, @NonNull Consumer<? super T> onNext,
+      @Nullable Consumer<? super Throwable> onError) {
+    return this.subscribe(observable, onNext, onError, this.untilEvent(event));
+  }
+
+  /**
+   * Binds a {@link Single} to the component lifecycle
+   *
+   * @param single {@link Single} given single for subscribe
+   * @param onSuccess {@link Consumer} of the item on the main thread
+   * @param <T> any object for {@link Single}
+   * @return {@link Disposable}
+   */
+  protected final <T> Disposable bindLifecycle(@NonNull Single<T> single,
+      @NonNull Consumer<? super T> onSuccess) {
+    return this.bindLifecycle(single, onSuccess, null);
+  }
+
+  /**
+   * Binds a {@link Single} to the component lifecycle
+   *
+   * @param single {@link Single} given single for subscribe
+   * @param onSuccess {@link Consumer} of the item on the main thread
+   * @param onError [OPTIONAL] {@link Consumer} of the error, it is logged if null
+   * @param <T> any object for {@link Single}
+   * @return {@link Disposable}
+   */
+  protected final <T> Disposable bindLifecycle(@NonNull Single<T> single,
+      @NonNull Consumer<? super T> onSuccess, @Nullable Consumer<? super Throwable> onError) {
+    return this.subscribe(single, onSuccess, onError, this.lifecycleDisposables);
+  }
+
+  /**
+   * Binds a {@link Single} until the given event of the component
+   *
+   * @param single {@link Single} given single for subscribe
+   * @param event {@link Event} which disposes the stream
+   * @param onSuccess {@link Consumer} of the item on the main thread
+   * @param onError [OPTIONAL] {@link Consumer} of the error, it is logged if null
+   * @param <T> any object for {@link Single}
+   * @return {@link Disposable}
+   */
+  protected final <T> Disposable bindUntilEvent(@NonNull Single<T> single,
+      @NonNull Event<?> event, @NonNull Consumer<? super T> onSuccess,
+      @Nullable Consumer<? super Throwable> onError) {
+    return this.subscribe(single, onSuccess, onError, this.untilEvent(event));
+  }
+
+  /**
+   * Binds a {@link Maybe} to the component lifecycle
+   *
+   * @param maybe {@link Maybe} given maybe for subscribe
+   * @param onSuccess {@link Consumer} of the item on the main thread
+   * @param <T> any object for {@link Maybe}
+   * @return {@link Disposable}
+   */
+  protected final <T> Disposable bindLifecycle(@NonNull Maybe<T> maybe,
+      @NonNull Consumer<? super T> onSuccess) {
+    return this.bindLifecycle(maybe, onSuccess, null);
+  }
+
+  /**
+   * Binds a {@link Maybe} to the component lifecycle
+   *
+   * @param maybe {@link Maybe} given maybe for subscribe
+   * @param onSuccess {@link Consumer} of the item on the main thread
+   * @param onError [OPTIONAL] {@link Consumer} of the error, it is logged if null
+   * @param <T> any object for {@link Maybe}
+   * @return {@link Disposable}
+   */
+  protected final <T> Disposable bindLifecycle(@NonNull Maybe<T> maybe,
+      @NonNull Consumer<? super T> onSuccess, @Nullable Consumer<? super Throwable> onError) {
+    return this.subscribe(maybe, onSuccess, onError, this.lifecycleDisposables);
+  }
+
+  /**
+   * Binds a {@link Maybe} until the given event of the component
+   *
+   * @param maybe {@link Maybe} given maybe for subscribe
+   * @param event {@link Event} which disposes the stream
+   * @param onSuccess {@link Consumer} of the item on the main thread
+   * @param onError [OPTIONAL] {@link Consumer} of the error, it is logged if null
+   * @param <T> any object for {@link Maybe}
+   * @return {@link Disposable}
+   */
+  protected final <T> Disposable bindUntilEvent(@NonNull Maybe<T> maybe,
+      @NonNull Event<?> event, @NonNull Consumer<? super T> onSuccess,
+      @Nullable Consumer<? super Throwable> onError) {
+    return this.subscribe(maybe, onSuccess, onError, this.untilEvent(event));
+  }
+
+  /**
+   * Binds a {@link Completable} to the component lifecycle
+   *
+   * @param completable {@link Completable} given completable for subscribe
+   * @param onComplete {@link Action} which runs on the main thread
+   * @return {@link Disposable}
+   */
+  protected final Disposable bindLifecycle(@NonNull Completable completable,
+      @NonNull Action onComplete) {
+    return this.bindLifecycle(completable, onComplete, null);
+  }
+
+  /**
+   * Binds a {@link Completable} to the component lifecycle
+   *
+   * @param completable {@link Completable} given completable for subscribe
+   * @param onComplete {@link Action} which runs on the main thread
+   * @param onError [OPTIONAL] {@link Consumer} of the error, it is logged if null
+   * @return {@link Disposable}
+   */
+  protected final Disposable bindLifecycle(@NonNull Completable completable,
+      @NonNull Action onComplete, @Nullable Consumer<? super Throwable> onError) {
+    return this.subscribe(completable, onComplete, onError, this.lifecycleDisposables);
+  }
+
+  /**
+   * Binds a {@link Completable} until the given event of the component
+   *
+   * @param completable {@link Completable} given completable for subscribe
+   * @param event {@link Event} which disposes the stream
+   * @param onComplete {@link Action} which runs on the main thread
+   * @param onError [OPTIONAL] {@link Consumer} of the error, it is logged if null
+   * @return {@link Disposable}
+   */
+  protected final Disposable bindUntilEvent(@NonNull Completable completable,
+      @NonNull Event<?> event, @NonNull Action onComplete,
+      @Nullable Consumer<? super Throwable> onError) {
+    return this.subscribe(completable, onComplete, onError, this.untilEvent(event));
+  }
+
+  /**
+   * The scheduler which runs the bound streams
+   *
+   * @return {@link Scheduler}, {@link Schedulers#io()} by default
+   */
+  protected Scheduler scheduler() {
+    return Schedulers.io();
+  }
+
+  /**
+   * The scheduler which delivers the items of the bound streams to the view
+   *
+   * @return {@link Scheduler} on the main thread
+   */
+  protected Scheduler mainThreadScheduler() {
+    return AndroidSchedulers.mainThread();
+  }
+
+  private <T> Disposable subscribe(Flowable<T> flowable, Consumer<? super T> onNext,
+      Consumer<? super Throwable> onError, CompositeDisposable disposables) {
+    return flowable.subscribeOn(this.scheduler())
+        .observeOn(this.mainThreadScheduler())
+        .subscribe(onNext, onError != null ? onError : LOG_ERROR, NO_ACTION, disposables);
+  }
+
+  private <T> Disposable subscribe(Observable<T> observable, Consumer<? super T> onNext,
+      Consumer<? super Throwable> onError, CompositeDisposable disposables) {
+    return observable.subscribeOn(this.scheduler())
+        .observeOn(this.mainThreadScheduler())
+        .subscribe(onNext, onError != null ? onError : LOG_ERROR, NO_ACTION, disposables);
+  }
+
+  private <T> Disposable subscribe(Single<T> single, Consumer<? super T> onSuccess,
+      Consumer<? super Throwable> onError, CompositeDisposable disposables) {
+    return single.subscribeOn(this.scheduler())
+        .observeOn(this.mainThreadScheduler())
+        .subscribe(onSuccess, onError != null ? onError : LOG_ERROR, disposables);
+  }
+
+  private <T> Disposable subscribe(Maybe<T> maybe, Consumer<? super T> onSuccess,
+      Consumer<? super Throwable> onError, CompositeDisposable disposables) {
+    return maybe.subscribeOn(this.scheduler())
+        .observeOn(this.mainThreadScheduler())
+        .subscribe(onSuccess, onError != null ? onError : LOG_ERROR, NO_ACTION, disposables);
+  }
+
+  private Disposable subscribe(Completable completable, Action onComplete,
+      Consumer<? super Throwable> onError, CompositeDisposable disposables) {
+    return completable.subscribeOn(this.scheduler())
+        .observeOn(this.mainThreadScheduler())
+        .subscribe(onComplete, onError != null ? onError : LOG_ERROR, disposables);
+  }
+
+  /**
+   * @param event {@link Event} of the component
+   * @return the {@link CompositeDisposable} which is cleared every time the event happens
+   */
+  private CompositeDisposable untilEvent(Event<?> event) {
+    CompositeDisposable disposables = this.eventDisposables.get(event);
+    if (disposables == null) {
+      disposables = new CompositeDisposable();
+      this.eventDisposables.put(event, disposables);
+      this.listen(event, disposables);
+    }
+    return disposables;
+  }
+
+  private <T> void listen(Event<T> event, final CompositeDisposable disposables) {
+    this.listen(event, new Listener<T>() {
+      @Override public void call(T t) {
+        disposables.clear();
+      }
+    });
+  }
+
+  private <T> void listen(Event<T> event, Listener<T> listener) {
+    this.naviComponent.addListener(event, listener);
+    this.listeners.add(listener);
+  }
+
+  @SuppressWarnings("unchecked") private void removeListeners() {
+    if (this.naviComponent != null) {
+      for (Listener listener : this.listeners) {
+        this.naviComponent.removeListener(listener);
+      }
+    }
+    this.listeners.clear();
+  }
+
+  private void disposeAll() {
+    this.lifecycleDisposables.clear();
+    for (CompositeDisposable disposables : this.eventDisposables.values()) {
+      disposables.dispose();
+    }
+    this.eventDisposables.clear();
+  }
+
+  /**
+   * Follows the lifecycle of the component and binds the view, binding another component drops
+   * the streams of the previous one
+   *
+   * @param component {@link NaviComponent} which implements the view
+   * @param viewEvent {@link Event} which binds the view
+   * @param endEvent {@link Event} which disposes the streams bound to the lifecycle
+   */
+  @SuppressWarnings("unchecked")
+  private <T> void init(NaviComponent component, Event<T> viewEvent, Event<Void> endEvent) {
+    this.removeListeners();
+    this.disposeAll();
+    this.naviComponent = component;
+    this.mvpView = (MvpView) component;
+    this.listen(viewEvent, new Listener<T>() {
+      @Override public void call(T t) {
+        RxPresenter.this.bindView((V) mvpView);
+      }
+    });
+    this.listen(Event.RESUME, new Listener<Void>() {
+      @Override public void call(Void aVoid) {
+        RxPresenter.this.resume();
+      }
+    });
+    this.listen(Event.PAUSE, new Listener<Void>() {
+      @Override public void call(Void aVoid) {
+        RxPresenter.this.pause();
+      }
+    });
+    this.listen(endEvent, this.lifecycleDisposables);
+    this.listen(Event.DESTROY, new Listener<Void>() {
+      @Override public void call(Void aVoid) {
+        RxPresenter.this.destroy();
+      }
+    });
+  }
+}
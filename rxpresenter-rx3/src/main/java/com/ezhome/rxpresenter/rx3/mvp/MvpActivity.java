@@ -0,0 +1,10 @@
+package com.ezhome.rxpresenter.rx3.mvp;
+
+import com.trello.navi.component.support.NaviAppCompatActivity;
+
+/**
+ * Base {@link android.support.v4.app.Fragment} that allows lifecycle monitoring
+ */
+public class MvpActivity extends NaviAppCompatActivity implements MvpView {
+
+}
\ No newline at end of file
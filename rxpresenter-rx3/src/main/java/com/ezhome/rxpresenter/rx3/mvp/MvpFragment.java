@@ -0,0 +1,10 @@
+package com.ezhome.rxpresenter.rx3.mvp;
+
+import com.trello.navi.component.support.NaviFragment;
+
+/**
+ * Base {@link android.support.v4.app.Fragment} that allows lifecycle monitoring
+ */
+public class MvpFragment extends NaviFragment implements MvpView {
+
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.ezhome.rxpresenter.rx3.mvp;
+
+/**
+ * Contract type interface for MVP views
+ */
+public interface MvpView {
+}
\ No newline at end of file
@@ -0,0 +1,175 @@
+package com.ezhome.rxpresenter.rx3;
+
+import android.support.v4.app.Fragment;
+import android.support.v4.app.FragmentActivity;
+import com.ezhome.rxpresenter.rx3.mvp.MvpView;
+import com.trello.navi.Event;
+import com.trello.navi.component.NaviActivity;
+import com.trello.navi.component.support.NaviFragment;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.functions.Action;
+import io.reactivex.rxjava3.functions.Consumer;
+import io.reactivex.rxjava3.processors.PublishProcessor;
+import io.reactivex.rxjava3.subjects.CompletableSubject;
+import io.reactivex.rxjava3.subjects.MaybeSubject;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+import io.reactivex.rxjava3.subjects.SingleSubject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class RxPresenterTest {
+
+  private final List<Object> delivered = new ArrayList<>();
+  private final Consumer<Object> collect = new Consumer<Object>() {
+    @Override public void accept(Object o) {
+      delivered.add(o);
+    }
+  };
+
+  private TestRxPresenter presenter;
+
+  @Before public void setUp() throws Exception {
+    this.presenter = new TestRxPresenter();
+  }
+
+  @Test public void testActivityLifecycleDisposesEveryType() throws Exception {
+    final ActivityController controller = Robolectric.buildActivity(TestActivity.class);
+    this.presenter.bind((NaviActivity) controller.get());
+    controller.create().start();
+    assertNotNull(this.presenter.view);
+
+    final PublishProcessor<Integer> flowable = PublishProcessor.create();
+    final PublishSubject<Integer> observable = PublishSubject.create();
+    final SingleSubject<Integer> single = SingleSubject.create();
+    final MaybeSubject<Integer> maybe = MaybeSubject.create();
+    final CompletableSubject completable = CompletableSubject.create();
+    this.presenter.bindLifecycle(flowable, this.collect);
+    this.presenter.bindLifecycle(observable, this.collect);
+    this.presenter.bindLifecycle(single, this.collect);
+    this.presenter.bindLifecycle(maybe, this.collect);
+    this.presenter.bindLifecycle(completable, new Action() {
+      @Override public void run() {
+        delivered.add("complete");
+      }
+    });
+
+    flowable.onNext(1);
+    observable.onNext(2);
+    assertEquals(Arrays.<Object>asList(1, 2), this.delivered);
+
+    controller.resume().pause().stop().destroy();
+    assertFalse(flowable.hasSubscribers());
+    assertFalse(observable.hasObservers());
+    assertFalse(single.hasObservers());
+    assertFalse(maybe.hasObservers());
+    assertFalse(completable.hasObservers());
+    assertNull(this.presenter.view);
+    assertEquals(1, this.presenter.destroyCount);
+  }
+
+  @Test public void testOneShotStreamsDeliverOnce() throws Exception {
+    final ActivityController controller = Robolectric.buildActivity(TestActivity.class);
+    this.presenter.bind((NaviActivity) controller.get());
+    controller.create().start();
+
+    final Disposable single = this.presenter.bindLifecycle(Single.just(1), this.collect);
+    final Disposable maybe = this.presenter.bindLifecycle(Maybe.just(2), this.collect);
+    final Disposable completable =
+        this.presenter.bindLifecycle(Completable.complete(), new Action() {
+          @Override public void run() {
+            delivered.add(3);
+          }
+        });
+
+    assertEquals(Arrays.<Object>asList(1, 2, 3), this.delivered);
+    assertTrue(single.isDisposed());
+    assertTrue(maybe.isDisposed());
+    assertTrue(completable.isDisposed());
+  }
+
+  @Test public void testErrorIsDeliveredToTheErrorConsumer() throws Exception {
+    final ActivityController controller = Robolectric.buildActivity(TestActivity.class);
+    this.presenter.bind((NaviActivity) controller.get());
+    controller.create().start();
+
+    final IllegalStateException error = new IllegalStateException();
+    this.presenter.bindLifecycle(Single.<Integer>error(error), this.collect, this.collect);
+
+    assertEquals(1, this.delivered.size());
+    assertSame(error, this.delivered.get(0));
+  }
+
+  @Test public void testFragmentBindUntilEventAndDestroyView() throws Exception {
+    final NaviFragment fragment = new TestFragment();
+    this.presenter.bind(fragment);
+    startFragment(fragment);
+
+    final PublishSubject<Integer> untilStop = PublishSubject.create();
+    final PublishProcessor<Integer> untilDestroyView = PublishProcessor.create();
+    this.presenter.bindUntilEvent(untilStop, Event.STOP, this.collect, null);
+    this.presenter.bindLifecycle(untilDestroyView, this.collect);
+
+    fragment.onResume();
+    fragment.onPause();
+    assertTrue(untilStop.hasObservers());
+    fragment.onStop();
+    assertFalse(untilStop.hasObservers());
+    assertTrue(untilDestroyView.hasSubscribers());
+    fragment.onDestroyView();
+    assertFalse(untilDestroyView.hasSubscribers());
+  }
+
+  @Test public void testBindAnotherComponentDropsThePreviousStreams() throws Exception {
+    final ActivityController first = Robolectric.buildActivity(TestActivity.class);
+    this.presenter.bind((NaviActivity) first.get());
+    first.create().start();
+    final PublishSubject<Integer> subject = PublishSubject.create();
+    this.presenter.bindLifecycle(subject, this.collect);
+
+    final ActivityController second = Robolectric.buildActivity(TestActivity.class);
+    this.presenter.bind((NaviActivity) second.get());
+    assertFalse(subject.hasObservers());
+
+    //the previous component no longer drives the presenter
+    first.stop().destroy();
+    assertEquals(0, this.presenter.destroyCount);
+    second.create().start().stop().destroy();
+    assertEquals(1, this.presenter.destroyCount);
+  }
+
+  private static void startFragment(Fragment fragment) {
+    Robolectric.setupActivity(FragmentActivity.class)
+        .getSupportFragmentManager()
+        .beginTransaction()
+        .add(fragment, null)
+        .commit();
+  }
+
+  public static class TestFragment extends NaviFragment implements MvpView {
+
+  }
+
+  public static class TestActivity extends NaviActivity implements MvpView {
+
+  }
+}
@@ -0,0 +1,10 @@
+package com.ezhome.rxpresenter.rx3;
+
+import com.ezhome.rxpresenter.rx3.mvp.MvpView;
+
+/**
+ * Test MVP view
+ */
+interface TestMvpView extends MvpView {
+
+}
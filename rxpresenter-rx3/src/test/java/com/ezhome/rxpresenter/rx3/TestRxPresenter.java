@@ -0,0 +1,25 @@
+package com.ezhome.rxpresenter.rx3;
+
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Test presenter which runs and delivers the streams on the calling thread
+ */
+class TestRxPresenter extends RxPresenter<TestMvpView> {
+
+  int destroyCount;
+
+  @Override public void destroy() {
+    super.destroy();
+    this.destroyCount++;
+  }
+
+  @Override protected Scheduler scheduler() {
+    return Schedulers.trampoline();
+  }
+
+  @Override protected Scheduler mainThreadScheduler() {
+    return Schedulers.trampoline();
+  }
+}
@@ -0,0 +1,117 @@
+package com.ezhome.rxpresenter;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Policy of a stream bound with the {@link ResultCache}: how long a cached result is fresh, if a
+ * stale result is emitted while the fresh one is loading, how the result is sized and if it is
+ * also kept on disk eg.
+ *
+ * <pre>
+ * CachePolicy.&lt;Feed&gt;ttl(5, TimeUnit.MINUTES)
+ *     .staleWhileRevalidate(1, TimeUnit.DAYS)
+ *     .persisted(FEED_CODEC);
+ * </pre>
+ *
+ * @param <T> the result
+ */
+public final class CachePolicy<T> {
+
+  /**
+   * Estimates the size in bytes of a result
+   *
+   * @param <T> the result
+   */
+  public interface Sizer<T> {
+
+    int sizeOf(@NonNull T value);
+  }
+
+  /**
+   * The size of a result which is neither sized nor persisted
+   */
+  static final int DEFAULT_SIZE = 1024;
+
+  final long ttlMillis;
+  final long maxStaleMillis;
+  @Nullable final PresenterSnapshots.Codec<T> codec;
+  @Nullable final Sizer<T> sizer;
+
+  private CachePolicy(long ttlMillis, long maxStaleMillis, PresenterSnapshots.Codec<T> codec,
+      Sizer<T> sizer) {
+    this.ttlMillis = ttlMillis;
+    this.maxStaleMillis = maxStaleMillis;
+    this.codec = codec;
+    this.sizer = sizer;
+  }
+
+  /**
+   * A cached result is emitted, without subscribing the source, while it is younger than the ttl
+   *
+   * @param ttl the time a result is fresh
+   * @param unit {@link TimeUnit} of the ttl
+   * @param <T> the result
+   * @return {@link CachePolicy}
+   */
+  public static <T> CachePolicy<T> ttl(long ttl, @NonNull TimeUnit unit) {
+    if (ttl < 0) {
+      throw new IllegalArgumentException("ttl < 0: " + ttl);
+    }
+    final long ttlMillis = unit.toMillis(ttl);
+    return new CachePolicy<>(ttlMillis, ttlMillis, null, null);
+  }
+
+  /**
+   * Same policy emitting a stale result right away and then the fresh result of the source
+   *
+   * @return {@link CachePolicy}
+   */
+  public CachePolicy<T> staleWhileRevalidate() {
+    return new CachePolicy<>(this.ttlMillis, Long.MAX_VALUE, this.codec, this.sizer);
+  }
+
+  /**
+   * Same policy emitting a stale result, up to the given age, right away and then the fresh
+   * result of the source
+   *
+   * @param maxStale the maximum age of an emitted stale result
+   * @param unit {@link TimeUnit} of the max age
+   * @return {@link CachePolicy}
+   */
+  public CachePolicy<T> staleWhileRevalidate(long maxStale, @NonNull TimeUnit unit) {
+    final long maxStaleMillis = Math.max(unit.toMillis(maxStale), this.ttlMillis);
+    return new CachePolicy<>(this.ttlMillis, maxStaleMillis, this.codec, this.sizer);
+  }
+
+  /**
+   * Same policy keeping the results also in the disk tier of the {@link ResultCache}, the size of
+   * a result is the size of its encoding
+   *
+   * @param codec {@link PresenterSnapshots.Codec} which encodes the result
+   * @return {@link CachePolicy}
+   */
+  public CachePolicy<T> persisted(@NonNull PresenterSnapshots.Codec<T> codec) {
+    return new CachePolicy<>(this.ttlMillis, this.maxStaleMillis, codec, this.sizer);
+  }
+
+  /**
+   * Same policy sizing the results with the given {@link Sizer}, by default a result which is not
+   * persisted counts as {@value #DEFAULT_SIZE} bytes
+   *
+   * @param sizer {@link Sizer}
+   * @return {@link CachePolicy}
+   */
+  public CachePolicy<T> sizeOf(@NonNull Sizer<T> sizer) {
+    return new CachePolicy<>(this.ttlMillis, this.maxStaleMillis, this.codec, sizer);
+  }
+
+  boolean isFresh(long age) {
+    return age <= this.ttlMillis;
+  }
+
+  boolean isUsable(long age) {
+    return age <= this.maxStaleMillis;
+  }
+}
@@ -0,0 +1,170 @@
+package com.ezhome.rxpresenter;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
+import android.support.v7.widget.RecyclerView;
+import com.ezhome.rxpresenter.mvp.MvpView;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Binds {@link ItemRxPresenter} to the rows of a {@link RecyclerView}. The presenters are reused:
+ * a recycled row returns its presenter to the pool and the next bound row takes it, so scrolling
+ * does not allocate presenters once the pool is warm. The pool follows the lifecycle of the
+ * {@link RxPresenter} which created it, at the end of the lifecycle every row is unbound.
+ *
+ * The adapter binds the rows in onBindViewHolder and forwards onViewAttachedToWindow and
+ * onViewDetachedFromWindow, the recycled rows are received as a
+ * {@link RecyclerView.RecyclerListener} eg.
+ *
+ * <pre>
+ * recyclerView.setRecyclerListener(pool);
+ * </pre>
+ *
+ * The pool is used only on the main thread.
+ *
+ * @param <V> the view of the rows
+ * @param <P> the item presenter
+ */
+public final class ItemPresenterPool<V extends MvpView, P extends ItemRxPresenter<V>>
+    implements RecyclerView.RecyclerListener {
+
+  /**
+   * Default maximum number of presenters kept in the pool
+   */
+  static final int DEFAULT_MAX_IDLE = 32;
+
+  /**
+   * Creates the item presenters
+   *
+   * @param <P> the item presenter
+   */
+  public interface Factory<P> {
+
+    P create();
+  }
+
+  private final RxPresenter<?> parent;
+  private final Factory<P> factory;
+  private final int maxIdle;
+  private final ArrayDeque<P> idle;
+  private final Map<RecyclerView.ViewHolder, P> bound = new IdentityHashMap<>();
+  private int created;
+  private boolean tracked;
+
+  /**
+   * @param parent the presenter of the screen
+   * @param factory {@link Factory}
+   * @param maxIdle maximum number of presenters kept in the pool
+   */
+  ItemPresenterPool(RxPresenter<?> parent, Factory<P> factory, int maxIdle) {
+    if (maxIdle < 0) {
+      throw new IllegalArgumentException("maxIdle < 0: " + maxIdle);
+    }
+    this.parent = parent;
+    this.factory = factory;
+    this.maxIdle = maxIdle;
+    this.idle = new ArrayDeque<>(Math.max(maxIdle, 1));
+  }
+
+  /**
+   * Binds a presenter to the row, a row which is bound again keeps its presenter but the streams
+   * of its previous item are cancelled
+   *
+   * @param holder {@link RecyclerView.ViewHolder} of the row
+   * @param view the view of the row
+   * @return the item presenter of the row
+   */
+  public P bind(@NonNull RecyclerView.ViewHolder holder, @NonNull V view) {
+    if (!this.tracked) {
+      this.tracked = true;
+      this.parent.trackItemPool(this);
+    }
+    P presenter = this.bound.get(holder);
+    if (presenter == null) {
+      presenter = this.idle.poll();
+      if (presenter == null) {
+        presenter = this.factory.create();
+        this.created++;
+      }
+      this.bound.put(holder, presenter);
+    }
+    presenter.bind(this.parent, holder, view);
+    return presenter;
+  }
+
+  /**
+   * Cancels the streams of a row which is detached from the window
+   *
+   * @param holder {@link RecyclerView.ViewHolder} of the row
+   */
+  public void onViewDetachedFromWindow(@NonNull RecyclerView.ViewHolder holder) {
+    final P presenter = this.bound.get(holder);
+    if (presenter != null) {
+      presenter.detach();
+    }
+  }
+
+  /**
+   * Notifies the presenter of a row which is attached to the window again
+   *
+   * @param holder {@link RecyclerView.ViewHolder} of the row
+   */
+  public void onViewAttachedToWindow(@NonNull RecyclerView.ViewHolder holder) {
+    final P presenter = this.bound.get(holder);
+    if (presenter != null) {
+      presenter.attach();
+    }
+  }
+
+  /**
+   * Unbinds the presenter of a recycled row and returns it to the pool
+   *
+   * @param holder {@link RecyclerView.ViewHolder} of the row
+   */
+  @Override public void onViewRecycled(RecyclerView.ViewHolder holder) {
+    final P presenter = this.bound.remove(holder);
+    if (presenter != null) {
+      this.release(presenter);
+    }
+  }
+
+  /**
+   * Unbinds every row, called at the end of the lifecycle of the parent presenter which stops
+   * tracking the pool until it binds a row again
+   */
+  void unbindAll() {
+    this.tracked = false;
+    if (this.bound.isEmpty()) {
+      return;
+    }
+    final ArrayList<P> presenters = new ArrayList<>(this.bound.values());
+    this.bound.clear();
+    for (P presenter : presenters) {
+      this.release(presenter);
+    }
+  }
+
+  private void release(P presenter) {
+    presenter.unbind();
+    if (this.idle.size() < this.maxIdle) {
+      this.idle.push(presenter);
+    }
+  }
+
+  /**
+   * @return the number of presenters created by the factory
+   */
+  @VisibleForTesting int created() {
+    return this.created;
+  }
+
+  /**
+   * @return the number of bound rows
+   */
+  @VisibleForTesting int boundCount() {
+    return this.bound.size();
+  }
+}
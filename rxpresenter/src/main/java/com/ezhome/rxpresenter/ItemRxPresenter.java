@@ -0,0 +1,133 @@
+package com.ezhome.rxpresenter;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import com.ezhome.rxpresenter.mvp.MvpView;
+import rx.Observable;
+import rx.Subscriber;
+import rx.Subscription;
+import rx.functions.Action1;
+import rx.subscriptions.CompositeSubscription;
+
+/**
+ * A presenter of a {@link RecyclerView} row. It is bound to a {@link RecyclerView.ViewHolder} by
+ * an {@link ItemPresenterPool} and its streams are cancelled when the row is detached from the
+ * window, when the row is recycled and at the end of the lifecycle of the parent
+ * {@link RxPresenter}. A recycled presenter goes back to the pool and it is reused by the next row.
+ * Item presenters are used only on the main thread.
+ *
+ * @param <V> the view of the row
+ */
+public abstract class ItemRxPresenter<V extends MvpView> {
+
+  /**
+   * The streams of the current row
+   */
+  private final CompositeSubscription subscriptions = new CompositeSubscription();
+
+  /**
+   * The presenter of the screen which owns the pool
+   */
+  private RxPresenter<?> parent;
+
+  /**
+   * {@link RecyclerView.ViewHolder} of the current row
+   */
+  private RecyclerView.ViewHolder holder;
+
+  /**
+   * The view of the current row, null while the presenter is in the pool
+   */
+  protected V view;
+
+  /**
+   * Called when the row is attached to the window again after a detach, the streams which were
+   * cancelled on detach can be bound again here
+   */
+  protected void onAttach() {
+    //empty method
+  }
+
+  /**
+   * Called when the row is recycled or the parent lifecycle ends, after the streams are cancelled
+   * and before the presenter goes back to the pool. The state of the row must be released here.
+   */
+  protected void onUnbind() {
+    //empty method
+  }
+
+  /**
+   * @return {@link RecyclerView.ViewHolder} of the current row or null while in the pool
+   */
+  @Nullable protected final RecyclerView.ViewHolder holder() {
+    return this.holder;
+  }
+
+  /**
+   * Executes an observable subscription on the schedulers of the parent presenter which is
+   * cancelled when the row is detached or recycled
+   *
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param subscriber {@link rx.Subscriber} custom subscriber
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   */
+  protected final <T> Subscription bindItem(@NonNull Observable<T> observable,
+      @NonNull Subscriber<T> subscriber) {
+    return this.track(this.parent().composeItem(observable).subscribe(subscriber));
+  }
+
+  /**
+   * Same as {@link #bindItem(Observable, Subscriber)} with an {@link Action1}
+   *
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param action {@link rx.functions.Action1} custom action
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   */
+  protected final <T> Subscription bindItem(@NonNull Observable<T> observable,
+      @NonNull Action1<T> action) {
+    return this.track(this.parent().composeItem(observable).subscribe(action));
+  }
+
+  private RxPresenter<?> parent() {
+    if (this.parent == null) {
+      throw new IllegalStateException("The item presenter is not bound to a row");
+    }
+    return this.parent;
+  }
+
+  private Subscription track(Subscription subscription) {
+    this.subscriptions.add(subscription);
+    return subscription;
+  }
+
+  /**
+   * Binds the presenter to a row, the streams of the previous row are cancelled
+   */
+  void bind(RxPresenter<?> parent, RecyclerView.ViewHolder holder, V view) {
+    this.subscriptions.clear();
+    this.parent = parent;
+    this.holder = holder;
+    this.view = view;
+  }
+
+  void detach() {
+    this.subscriptions.clear();
+  }
+
+  void attach() {
+    if (this.holder != null) {
+      this.onAttach();
+    }
+  }
+
+  void unbind() {
+    this.subscriptions.clear();
+    this.onUnbind();
+    this.view = null;
+    this.holder = null;
+    this.parent = null;
+  }
+}
@@ -0,0 +1,243 @@
+package com.ezhome.rxpresenter;
+
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import rx.Observable;
+import rx.Subscriber;
+
+/**
+ * Times every onNext, onError and onCompleted which an {@link RxPresenter} delivers to a bound
+ * subscriber on the main thread, the deliveries on other threads are not timed since they do not
+ * block the frames. The deliveries over the budget are attributed to the presenter
+ * class and the stream tag (or the subscriber class when the stream is not tagged) and the worst
+ * offenders are kept for dumping. Meant for debug and internal builds, install it with
+ * {@link RxPresenterPlugins#setJankDetector(JankDetector)} eg.
+ *
+ * <pre>
+ * if (BuildConfig.DEBUG) {
+ *   RxPresenterPlugins.setJankDetector(new JankDetector(8, TimeUnit.MILLISECONDS, 20));
+ * }
+ * </pre>
+ */
+public final class JankDetector {
+
+  private static final Comparator<Offender> WORST_FIRST = new Comparator<Offender>() {
+    @Override public int compare(Offender o1, Offender o2) {
+      return o1.worstNanos < o2.worstNanos ? 1 : (o1.worstNanos == o2.worstNanos ? 0 : -1);
+    }
+  };
+
+  private final long budgetNanos;
+  private final int maxOffenders;
+  private final Map<String, Offender> offenders = new HashMap<>();
+
+  /**
+   * @param budget the longest delivery which is not reported
+   * @param unit {@link TimeUnit} of the budget
+   * @param maxOffenders how many of the worst offenders are kept
+   */
+  public JankDetector(long budget, @NonNull TimeUnit unit, int maxOffenders) {
+    if (maxOffenders <= 0) {
+      throw new IllegalArgumentException("maxOffenders must be positive");
+    }
+    this.budgetNanos = unit.toNanos(budget);
+    this.maxOffenders = maxOffenders;
+  }
+
+  /**
+   * @return the worst offenders, the one with the slowest delivery first
+   */
+  @NonNull public synchronized List<Offender> offenders() {
+    final List<Offender> list = new ArrayList<>(this.offenders.size());
+    for (Offender offender : this.offenders.values()) {
+      list.add(offender.copy());
+    }
+    Collections.sort(list, WORST_FIRST);
+    return list;
+  }
+
+  /**
+   * @return a printable report of the worst offenders
+   */
+  @NonNull public String dump() {
+    final List<Offender> list = this.offenders();
+    final StringBuilder builder = new StringBuilder("Slow deliveries over ")
+        .append(TimeUnit.NANOSECONDS.toMicros(this.budgetNanos) / 1000f)
+        .append("ms: ")
+        .append(list.size());
+    for (Offender offender : list) {
+      builder.append('\n').append(offender);
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Forgets all the offenders
+   */
+  public synchronized void clear() {
+    this.offenders.clear();
+  }
+
+  /**
+   * @param presenter the class of the presenter which binds the stream
+   * @param tag the stream tag
+   * @param <T> any object for {@link rx.Observable}
+   * @return an operator which times the deliveries to the downstream subscriber
+   */
+  <T> Observable.Operator<T, T> timing(Class<?> presenter, String tag) {
+    return new OperatorTiming<>(presenter, tag);
+  }
+
+  void onDelivery(Class<?> presenter, String tag, long startNanos) {
+    final long elapsed = System.nanoTime() - startNanos;
+    if (elapsed > this.budgetNanos) {
+      this.record(presenter, tag, elapsed);
+    }
+  }
+
+  private synchronized void record(Class<?> presenter, String tag, long elapsedNanos) {
+    final String key = presenter.getName() + '/' + tag;
+    Offender offender = this.offenders.get(key);
+    if (offender == null) {
+      if (this.offenders.size() == this.maxOffenders) {
+        final Offender mildest = Collections.max(this.offenders.values(), WORST_FIRST);
+        if (mildest.worstNanos >= elapsedNanos) {
+          return;
+        }
+        this.offenders.remove(mildest.presenter + '/' + mildest.tag);
+      }
+      offender = new Offender(presenter.getName(), tag);
+      this.offenders.put(key, offender);
+    }
+    offender.count++;
+    offender.totalNanos += elapsedNanos;
+    offender.worstNanos = Math.max(offender.worstNanos, elapsedNanos);
+  }
+
+  /**
+   * A stream which delivered on the main thread for longer than the budget
+   */
+  public static final class Offender {
+
+    private final String presenter;
+    private final String tag;
+    private int count;
+    private long worstNanos;
+    private long totalNanos;
+
+    Offender(String presenter, String tag) {
+      this.presenter = presenter;
+      this.tag = tag;
+    }
+
+    /**
+     * @return the class name of the presenter
+     */
+    @NonNull public String presenter() {
+      return this.presenter;
+    }
+
+    /**
+     * @return the stream tag or the class name of the subscriber if the stream is not tagged
+     */
+    @NonNull public String tag() {
+      return this.tag;
+    }
+
+    /**
+     * @return the deliveries over the budget
+     */
+    public int count() {
+      return this.count;
+    }
+
+    /**
+     * @return the slowest delivery in nanoseconds
+     */
+    public long worstNanos() {
+      return this.worstNanos;
+    }
+
+    /**
+     * @return the time of all the deliveries over the budget in nanoseconds
+     */
+    public long totalNanos() {
+      return this.totalNanos;
+    }
+
+    Offender copy() {
+      final Offender copy = new Offender(this.presenter, this.tag);
+      copy.count = this.count;
+      copy.worstNanos = this.worstNanos;
+      copy.totalNanos = this.totalNanos;
+      return copy;
+    }
+
+    @Override public String toString() {
+      return this.presenter + " [" + this.tag + "] slow deliveries: " + this.count + ", worst: "
+          + TimeUnit.NANOSECONDS.toMicros(this.worstNanos) / 1000f + "ms, total: "
+          + TimeUnit.NANOSECONDS.toMicros(this.totalNanos) / 1000f + "ms";
+    }
+  }
+
+  private final class OperatorTiming<T> implements Observable.Operator<T, T> {
+
+    private final Class<?> presenter;
+    private final String tag;
+
+    OperatorTiming(Class<?> presenter, String tag) {
+      this.presenter = presenter;
+      this.tag = tag;
+    }
+
+    @Override public Subscriber<? super T> call(final Subscriber<? super T> child) {
+      return new Subscriber<T>(child) {
+        @Override public void onCompleted() {
+          if (Looper.myLooper() != Looper.getMainLooper()) {
+            child.onCompleted();
+            return;
+          }
+          final long start = System.nanoTime();
+          try {
+            child.onCompleted();
+          } finally {
+            onDelivery(presenter, tag, start);
+          }
+        }
+
+        @Override public void onError(Throwable e) {
+          if (Looper.myLooper() != Looper.getMainLooper()) {
+            child.onError(e);
+            return;
+          }
+          final long start = System.nanoTime();
+          try {
+            child.onError(e);
+          } finally {
+            onDelivery(presenter, tag, start);
+          }
+        }
+
+        @Override public void onNext(T t) {
+          if (Looper.myLooper() != Looper.getMainLooper()) {
+            child.onNext(t);
+            return;
+          }
+          final long start = System.nanoTime();
+          try {
+            child.onNext(t);
+          } finally {
+            onDelivery(presenter, tag, start);
+          }
+        }
+      };
+    }
+  }
+}
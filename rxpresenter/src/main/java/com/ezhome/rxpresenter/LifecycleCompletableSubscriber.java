@@ -0,0 +1,64 @@
+package com.ezhome.rxpresenter;
+
+import rx.CompletableSubscriber;
+import rx.Subscription;
+import rx.subscriptions.CompositeSubscription;
+
+/**
+ * Subscribes a {@link CompletableSubscriber} of a presenter, it stays in the lifecycle
+ * subscriptions of the presenter until it completes or the lifecycle ends
+ */
+final class LifecycleCompletableSubscriber implements CompletableSubscriber, Subscription {
+
+  private final CompletableSubscriber actual;
+  private final CompositeSubscription lifecycle;
+  private final CompositeSubscription resources = new CompositeSubscription();
+
+  /**
+   * @param actual the {@link CompletableSubscriber} which receives the completion
+   * @param lifecycle the subscriptions which are released at the end of the lifecycle
+   */
+  LifecycleCompletableSubscriber(CompletableSubscriber actual, CompositeSubscription lifecycle) {
+    this.actual = actual;
+    this.lifecycle = lifecycle;
+  }
+
+  @Override public void onSubscribe(Subscription upstream) {
+    //unsubscribed already if the lifecycle ended before the subscription
+    this.resources.add(upstream);
+    this.actual.onSubscribe(this);
+  }
+
+  @Override public void onCompleted() {
+    try {
+      this.actual.onCompleted();
+    } finally {
+      this.lifecycle.remove(this);
+    }
+  }
+
+  @Override public void onError(Throwable error) {
+    try {
+      this.actual.onError(error);
+    } finally {
+      this.lifecycle.remove(this);
+    }
+  }
+
+  /**
+   * Adds a subscription which is unsubscribed together with the stream
+   *
+   * @param subscription {@link Subscription}
+   */
+  void add(Subscription subscription) {
+    this.resources.add(subscription);
+  }
+
+  @Override public void unsubscribe() {
+    this.resources.unsubscribe();
+  }
+
+  @Override public boolean isUnsubscribed() {
+    return this.resources.isUnsubscribed();
+  }
+}
@@ -0,0 +1,199 @@
+package com.ezhome.rxpresenter;
+
+import android.os.Bundle;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import com.trello.navi.Event;
+import com.trello.navi.Listener;
+import com.trello.navi.NaviComponent;
+import com.trello.navi.model.ViewCreated;
+import com.trello.rxlifecycle.LifecycleProvider;
+import com.trello.rxlifecycle.android.ActivityEvent;
+import com.trello.rxlifecycle.android.FragmentEvent;
+import com.trello.rxlifecycle.navi.NaviLifecycle;
+import java.lang.ref.WeakReference;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import rx.Observable;
+
+/**
+ * The lifecycle of one {@link NaviComponent} shared by all the presenters which are bound to it.
+ * It registers one Navi listener per event and one {@link LifecycleProvider}, whatever the number
+ * of presenters, and fans out the events to the presenters in the order they were bound
+ */
+final class LifecycleHub {
+
+  /**
+   * The hubs by component, the component keeps its hub alive through the Navi listeners
+   */
+  private static final Map<NaviComponent, WeakReference<LifecycleHub>> HUBS = new WeakHashMap<>();
+
+  /**
+   * The lifecycle events of a presenter, called on the main thread
+   */
+  interface Callbacks {
+
+    void onViewEvent();
+
+    void onRestoreInstanceState(@Nullable Bundle savedState);
+
+    void onSaveInstanceState(Bundle outState);
+
+    void onResumeEvent();
+
+    void onPauseEvent();
+
+    /**
+     * The end of the lifecycle of the bound streams, {@link Event#DESTROY_VIEW} for fragments
+     * and {@link Event#DESTROY} for activities
+     */
+    void onLifecycleEnd();
+
+    void onDestroyEvent();
+  }
+
+  private final boolean fragment;
+  private final LifecycleProvider provider;
+  private final Observable.Transformer lifecycleTransformer;
+  private final Map<FragmentEvent, Observable.Transformer> eventTransformers =
+      new EnumMap<>(FragmentEvent.class);
+  private final List<Callbacks> callbacks = new CopyOnWriteArrayList<>();
+
+  @SuppressWarnings("unchecked")
+  private LifecycleHub(NaviComponent component, boolean fragment) {
+    this.fragment = fragment;
+    if (fragment) {
+      this.provider = NaviLifecycle.createFragmentLifecycleProvider(component);
+      this.lifecycleTransformer = this.provider.bindUntilEvent(FragmentEvent.DESTROY_VIEW);
+    } else {
+      this.provider = NaviLifecycle.createActivityLifecycleProvider(component);
+      this.lifecycleTransformer = this.provider.bindUntilEvent(ActivityEvent.DESTROY);
+    }
+    this.listen(component);
+  }
+
+  /**
+   * @param component {@link NaviComponent}
+   * @param fragment true if the component is a fragment
+   * @return the hub of the component, created on the first call
+   */
+  static LifecycleHub of(@NonNull NaviComponent component, boolean fragment) {
+    synchronized (HUBS) {
+      final WeakReference<LifecycleHub> reference = HUBS.get(component);
+      LifecycleHub hub = reference != null ? reference.get() : null;
+      if (hub == null) {
+        hub = new LifecycleHub(component, fragment);
+        HUBS.put(component, new WeakReference<>(hub));
+      }
+      return hub;
+    }
+  }
+
+  void add(Callbacks callbacks) {
+    if (!this.callbacks.contains(callbacks)) {
+      this.callbacks.add(callbacks);
+    }
+  }
+
+  void remove(Callbacks callbacks) {
+    this.callbacks.remove(callbacks);
+  }
+
+  @VisibleForTesting int size() {
+    return this.callbacks.size();
+  }
+
+  /**
+   * @return the transformer which stops emitting at the end of the lifecycle
+   */
+  Observable.Transformer lifecycleTransformer() {
+    return this.lifecycleTransformer;
+  }
+
+  /**
+   * @param event {@link FragmentEvent}
+   * @return the cached transformer which stops emitting on the event
+   */
+  @SuppressWarnings("unchecked") Observable.Transformer untilEvent(FragmentEvent event) {
+    Observable.Transformer transformer = this.eventTransformers.get(event);
+    if (transformer == null) {
+      transformer = this.provider.bindUntilEvent(event);
+      this.eventTransformers.put(event, transformer);
+    }
+    return transformer;
+  }
+
+  private void listen(NaviComponent component) {
+    final Listener<Bundle> restore = new Listener<Bundle>() {
+      @Override public void call(Bundle savedState) {
+        for (Callbacks callback : callbacks) {
+          callback.onRestoreInstanceState(savedState);
+        }
+      }
+    };
+    final Listener<Void> end = new Listener<Void>() {
+      @Override public void call(Void aVoid) {
+        for (Callbacks callback : callbacks) {
+          callback.onLifecycleEnd();
+        }
+      }
+    };
+    if (this.fragment) {
+      component.addListener(Event.VIEW_CREATED, new Listener<ViewCreated>() {
+        @Override public void call(ViewCreated viewCreated) {
+          for (Callbacks callback : callbacks) {
+            callback.onViewEvent();
+          }
+        }
+      });
+      component.addListener(Event.ACTIVITY_CREATED, restore);
+    } else {
+      component.addListener(Event.START, new Listener<Void>() {
+        @Override public void call(Void aVoid) {
+          for (Callbacks callback : callbacks) {
+            callback.onViewEvent();
+          }
+        }
+      });
+      component.addListener(Event.POST_CREATE, restore);
+    }
+    component.addListener(Event.SAVE_INSTANCE_STATE, new Listener<Bundle>() {
+      @Override public void call(Bundle outState) {
+        for (Callbacks callback : callbacks) {
+          callback.onSaveInstanceState(outState);
+        }
+      }
+    });
+    component.addListener(Event.RESUME, new Listener<Void>() {
+      @Override public void call(Void aVoid) {
+        for (Callbacks callback : callbacks) {
+          callback.onResumeEvent();
+        }
+      }
+    });
+    component.addListener(Event.PAUSE, new Listener<Void>() {
+      @Override public void call(Void aVoid) {
+        for (Callbacks callback : callbacks) {
+          callback.onPauseEvent();
+        }
+      }
+    });
+    if (this.fragment) {
+      component.addListener(Event.DESTROY_VIEW, end);
+    }
+    component.addListener(Event.DESTROY, new Listener<Void>() {
+      @Override public void call(Void aVoid) {
+        for (Callbacks callback : callbacks) {
+          if (!fragment) {
+            callback.onLifecycleEnd();
+          }
+          callback.onDestroyEvent();
+        }
+      }
+    });
+  }
+}
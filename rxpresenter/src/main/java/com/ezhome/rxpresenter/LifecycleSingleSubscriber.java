@@ -0,0 +1,42 @@
+package com.ezhome.rxpresenter;
+
+import rx.SingleSubscriber;
+import rx.subscriptions.CompositeSubscription;
+
+/**
+ * Subscribes a {@link SingleSubscriber} of a presenter, it stays in the lifecycle subscriptions of
+ * the presenter until it receives the result or the lifecycle ends
+ */
+final class LifecycleSingleSubscriber<T> extends SingleSubscriber<T> {
+
+  private final SingleSubscriber<T> actual;
+  private final CompositeSubscription lifecycle;
+
+  /**
+   * @param actual the {@link SingleSubscriber} which receives the result
+   * @param lifecycle the subscriptions which are released at the end of the lifecycle
+   */
+  LifecycleSingleSubscriber(SingleSubscriber<T> actual, CompositeSubscription lifecycle) {
+    this.actual = actual;
+    this.lifecycle = lifecycle;
+    //unsubscribing either of them cancels the stream
+    this.add(actual);
+    actual.add(this);
+  }
+
+  @Override public void onSuccess(T value) {
+    try {
+      this.actual.onSuccess(value);
+    } finally {
+      this.lifecycle.remove(this);
+    }
+  }
+
+  @Override public void onError(Throwable error) {
+    try {
+      this.actual.onError(error);
+    } finally {
+      this.lifecycle.remove(this);
+    }
+  }
+}
@@ -0,0 +1,257 @@
+package com.ezhome.rxpresenter;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import timber.log.Timber;
+
+/**
+ * A fixed size ring buffer of the lifecycle and stream events of the presenters, meant to be
+ * dumped in a bug report. Every event is written as primitive fields in preallocated arrays
+ * without locks, allocations or string formatting, the oldest events are overwritten. Install it
+ * with {@link RxPresenterPlugins#setTrace(LifecycleTrace)} eg.
+ *
+ * <pre>
+ * RxPresenterPlugins.setTrace(new LifecycleTrace(1024));
+ * //or with the events logged, in debug builds
+ * RxPresenterPlugins.setTrace(new LifecycleTrace(1024, LifecycleTrace.TIMBER));
+ * </pre>
+ */
+public final class LifecycleTrace {
+
+  /**
+   * Receives every event after it is written in the ring buffer
+   */
+  public interface Sink {
+
+    /**
+     * @param presenterId the id of the presenter
+     * @param kind the event kind eg. {@link #BIND}
+     * @param tag [OPTIONAL] the stream tag or the presenter class for {@link #BIND}
+     * @param timestampNanos {@link System#nanoTime()} of the event
+     */
+    void onEvent(int presenterId, int kind, @Nullable String tag, long timestampNanos);
+  }
+
+  /**
+   * A {@link Sink} which logs the events with {@link Timber}
+   */
+  public static final Sink TIMBER = new Sink() {
+    @Override
+    public void onEvent(int presenterId, int kind, @Nullable String tag, long timestampNanos) {
+      Timber.d("presenter #%d %s %s", presenterId, kindName(kind), tag != null ? tag : "");
+    }
+  };
+
+  public static final int BIND = 0;
+  public static final int VIEW_BOUND = 1;
+  public static final int RESUME = 2;
+  public static final int PAUSE = 3;
+  public static final int DETACH = 4;
+  public static final int DESTROY = 5;
+  public static final int SUBSCRIBE = 6;
+  public static final int UNSUBSCRIBE = 7;
+
+  private static final String[] KIND_NAMES = {
+      "BIND", "VIEW_BOUND", "RESUME", "PAUSE", "DETACH", "DESTROY", "SUBSCRIBE", "UNSUBSCRIBE"
+  };
+
+  /**
+   * Maximum number of distinct tags, the tags over it are dumped as {@link #OVERFLOW_TAG}
+   */
+  private static final int MAX_TAGS = 1024;
+  private static final int NO_TAG = -1;
+  private static final int OVERFLOW_TAG = -2;
+  /**
+   * The sequence of a slot which was never written, a slot which is being written holds
+   * {@code -sequence - 2} so the sequence of its writer is known
+   */
+  private static final long EMPTY = -1L;
+
+  private final int mask;
+  private final AtomicLong cursor = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLongArray sequences;
+  private final AtomicLongArray timestamps;
+  private final AtomicIntegerArray presenterIds;
+  private final AtomicIntegerArray kinds;
+  private final AtomicIntegerArray tagIds;
+
+  private final Map<String, Integer> tags = new ConcurrentHashMap<>();
+  private final AtomicReferenceArray<String> tagNames = new AtomicReferenceArray<>(MAX_TAGS);
+  private final Sink sink;
+
+  /**
+   * @param capacity the number of the kept events, rounded up to a power of two
+   */
+  public LifecycleTrace(int capacity) {
+    this(capacity, null);
+  }
+
+  /**
+   * @param capacity the number of the kept events, rounded up to a power of two
+   * @param sink [OPTIONAL] {@link Sink} which receives every event eg. {@link #TIMBER}
+   */
+  public LifecycleTrace(int capacity, @Nullable Sink sink) {
+    if (capacity <= 0 || capacity > 1 << 20) {
+      throw new IllegalArgumentException("capacity must be between 1 and 2^20");
+    }
+    final int size = Integer.highestOneBit(capacity) == capacity ? capacity
+        : Integer.highestOneBit(capacity) << 1;
+    this.mask = size - 1;
+    this.sequences = new AtomicLongArray(size);
+    this.timestamps = new AtomicLongArray(size);
+    this.presenterIds = new AtomicIntegerArray(size);
+    this.kinds = new AtomicIntegerArray(size);
+    this.tagIds = new AtomicIntegerArray(size);
+    for (int i = 0; i < size; i++) {
+      this.sequences.set(i, EMPTY);
+    }
+    this.sink = sink;
+  }
+
+  /**
+   * @return the number of the kept events
+   */
+  public int capacity() {
+    return this.mask + 1;
+  }
+
+  /**
+   * @return the number of events which were dropped instead of waiting for a slower writer, only
+   * possible when the writers wrap around the whole buffer
+   */
+  public long dropped() {
+    return this.dropped.get();
+  }
+
+  /**
+   * Writes an event, the oldest one is overwritten when the buffer is full
+   *
+   * @param presenterId the id of the presenter
+   * @param kind the event kind eg. {@link #BIND}
+   * @param tag [OPTIONAL] the stream tag
+   */
+  public void record(int presenterId, int kind, @Nullable String tag) {
+    final long now = System.nanoTime();
+    final int tagId = tag != null ? this.tagId(tag) : NO_TAG;
+    final long sequence = this.cursor.getAndIncrement();
+    final int index = (int) sequence & this.mask;
+    //only one writer owns the slot until it publishes its sequence, readers skip the slot
+    //meanwhile. A writer never waits: it drops its event when the slot is being written by
+    //another one, which it wrapped around, or already holds a newer event.
+    while (true) {
+      final long current = this.sequences.get(index);
+      if (current < EMPTY || current > sequence) {
+        this.dropped.incrementAndGet();
+        break;
+      }
+      if (this.sequences.compareAndSet(index, current, -sequence - 2)) {
+        this.timestamps.lazySet(index, now);
+        this.presenterIds.lazySet(index, presenterId);
+        this.kinds.lazySet(index, kind);
+        this.tagIds.lazySet(index, tagId);
+        this.sequences.lazySet(index, sequence);
+        break;
+      }
+    }
+    if (this.sink != null) {
+      this.sink.onEvent(presenterId, kind, tag, now);
+    }
+  }
+
+  /**
+   * Writes the kept events, the oldest first, one per line: the time in microseconds relative to
+   * the first event, the presenter id, the event kind and the tag
+   *
+   * @param writer {@link Writer}
+   * @throws IOException if the writer fails
+   */
+  public void dump(@NonNull Writer writer) throws IOException {
+    final long end = this.cursor.get();
+    final long start = Math.max(0, end - this.capacity());
+    long origin = -1;
+    for (long sequence = start; sequence < end; sequence++) {
+      final int index = (int) sequence & this.mask;
+      if (this.sequences.get(index) != sequence) {
+        continue;
+      }
+      final long timestamp = this.timestamps.get(index);
+      final int presenterId = this.presenterIds.get(index);
+      final int kind = this.kinds.get(index);
+      final int tagId = this.tagIds.get(index);
+      if (this.sequences.get(index) != sequence) {
+        //overwritten while reading
+        continue;
+      }
+      if (origin < 0) {
+        origin = timestamp;
+      }
+      writer.append(String.valueOf(TimeUnit.NANOSECONDS.toMicros(timestamp - origin)))
+          .append("us #")
+          .append(String.valueOf(presenterId))
+          .append(' ')
+          .append(kindName(kind));
+      if (tagId != NO_TAG) {
+        writer.append(' ').append(tagId == OVERFLOW_TAG ? "?" : this.tagNames.get(tagId));
+      }
+      writer.append('\n');
+    }
+    writer.flush();
+  }
+
+  /**
+   * Writes the kept events to a file
+   *
+   * @param file {@link File} which is overwritten
+   * @throws IOException if the file cannot be written
+   * @see #dump(Writer)
+   */
+  public void dump(@NonNull File file) throws IOException {
+    final Writer writer = new BufferedWriter(new FileWriter(file));
+    try {
+      this.dump(writer);
+    } finally {
+      writer.close();
+    }
+  }
+
+  /**
+   * @param kind the event kind eg. {@link #BIND}
+   * @return the name of the kind
+   */
+  @NonNull public static String kindName(int kind) {
+    return kind >= 0 && kind < KIND_NAMES.length ? KIND_NAMES[kind] : String.valueOf(kind);
+  }
+
+  private int tagId(String tag) {
+    final Integer id = this.tags.get(tag);
+    if (id != null) {
+      return id;
+    }
+    synchronized (this.tags) {
+      final Integer current = this.tags.get(tag);
+      if (current != null) {
+        return current;
+      }
+      final int next = this.tags.size();
+      if (next == MAX_TAGS) {
+        return OVERFLOW_TAG;
+      }
+      this.tagNames.set(next, tag);
+      this.tags.put(tag, next);
+      return next;
+    }
+  }
+}
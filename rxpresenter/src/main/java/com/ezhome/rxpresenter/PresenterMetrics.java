@@ -0,0 +1,92 @@
+package com.ezhome.rxpresenter;
+
+import android.support.annotation.NonNull;
+import com.trello.navi.NaviComponent;
+
+/**
+ * Listener of the streams bound by the {@link RxPresenter}s, install it with
+ * {@link RxPresenterPlugins#setMetrics(PresenterMetrics)} to forward the numbers to a telemetry
+ * backend. The callbacks run on the thread of the event, mostly the main thread, so they must be
+ * cheap and must not block. The emissions per second of a presenter are the calls of
+ * {@link #onNext(RxPresenter, long, int)} counted by the listener over time.
+ *
+ * While {@link #NONE} is installed the presenters do not add any operator to the bound streams.
+ */
+public interface PresenterMetrics {
+
+  /**
+   * The default listener which is never called
+   */
+  PresenterMetrics NONE = new PresenterMetrics() {
+    @Override public void onBind(@NonNull RxPresenter<?> presenter,
+        @NonNull NaviComponent component) {
+    }
+
+    @Override public void onSubscribe(@NonNull RxPresenter<?> presenter, int liveSubscriptions) {
+    }
+
+    @Override public void onNext(@NonNull RxPresenter<?> presenter, long hopLatencyNanos,
+        int queueDepth) {
+    }
+
+    @Override public void onError(@NonNull RxPresenter<?> presenter, @NonNull Throwable error) {
+    }
+
+    @Override public void onUnsubscribe(@NonNull RxPresenter<?> presenter, int liveSubscriptions) {
+    }
+
+    @Override public void onDestroy(@NonNull RxPresenter<?> presenter, int liveSubscriptions) {
+    }
+  };
+
+  /**
+   * The presenter is bound to a component
+   *
+   * @param presenter {@link RxPresenter}
+   * @param component {@link NaviComponent} activity or fragment
+   */
+  void onBind(@NonNull RxPresenter<?> presenter, @NonNull NaviComponent component);
+
+  /**
+   * A stream is subscribed
+   *
+   * @param presenter {@link RxPresenter}
+   * @param liveSubscriptions the live streams of the presenter including this one
+   */
+  void onSubscribe(@NonNull RxPresenter<?> presenter, int liveSubscriptions);
+
+  /**
+   * An item of a stream which runs on a background scheduler is delivered on the main thread, or
+   * an item of a stream bound with bindUntilEvent is delivered on the thread which emits it
+   *
+   * @param presenter {@link RxPresenter}
+   * @param hopLatencyNanos the time from the emission on the background scheduler to the delivery
+   * on the main thread, or from the emission to the delivery for bindUntilEvent
+   * @param queueDepth the items of the stream which are emitted but not delivered yet
+   */
+  void onNext(@NonNull RxPresenter<?> presenter, long hopLatencyNanos, int queueDepth);
+
+  /**
+   * A stream terminates with an error
+   *
+   * @param presenter {@link RxPresenter}
+   * @param error {@link Throwable}
+   */
+  void onError(@NonNull RxPresenter<?> presenter, @NonNull Throwable error);
+
+  /**
+   * A stream is unsubscribed
+   *
+   * @param presenter {@link RxPresenter}
+   * @param liveSubscriptions the live streams of the presenter left
+   */
+  void onUnsubscribe(@NonNull RxPresenter<?> presenter, int liveSubscriptions);
+
+  /**
+   * The presenter is destroyed
+   *
+   * @param presenter {@link RxPresenter}
+   * @param liveSubscriptions the streams which are still live, they outlive the presenter
+   */
+  void onDestroy(@NonNull RxPresenter<?> presenter, int liveSubscriptions);
+}
@@ -0,0 +1,266 @@
+package com.ezhome.rxpresenter;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import com.trello.navi.NaviComponent;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import rx.Subscription;
+import timber.log.Timber;
+
+/**
+ * Debug registry of the live presenters and of the streams they bind. Everything is held with
+ * weak references so the registry never keeps a presenter, a component or a stream alive.
+ *
+ * When a presenter is destroyed its streams must be unsubscribed and its view released, otherwise
+ * the presenter is reported as a {@link Leak}. Meant for debug builds, install it with
+ * {@link RxPresenterPlugins#setRegistry(PresenterRegistry)} eg.
+ *
+ * <pre>
+ * if (BuildConfig.DEBUG) {
+ *   RxPresenterPlugins.setRegistry(new PresenterRegistry());
+ * }
+ * </pre>
+ */
+public final class PresenterRegistry {
+
+  /**
+   * Listener of the leaks found when a presenter is destroyed
+   */
+  public interface LeakListener {
+
+    /**
+     * @param leak {@link Leak}
+     */
+    void onLeak(@NonNull Leak leak);
+  }
+
+  private static final LeakListener LOG_LEAKS = new LeakListener() {
+    @Override public void onLeak(@NonNull Leak leak) {
+      Timber.w("Presenter leak: %s", leak);
+    }
+  };
+
+  private final Map<RxPresenter<?>, Entry> presenters = new WeakHashMap<>();
+  private final LeakListener leakListener;
+
+  /**
+   * A registry which logs the leaks
+   */
+  public PresenterRegistry() {
+    this(LOG_LEAKS);
+  }
+
+  /**
+   * @param leakListener {@link LeakListener} which is notified of the leaks
+   */
+  public PresenterRegistry(@NonNull LeakListener leakListener) {
+    this.leakListener = leakListener;
+  }
+
+  /**
+   * @return the number of the tracked presenters, the destroyed ones are tracked only while they
+   * leak
+   */
+  public synchronized int size() {
+    return this.presenters.size();
+  }
+
+  /**
+   * @return the destroyed presenters which still have active streams or reference their view
+   */
+  @NonNull public synchronized List<Leak> leaks() {
+    final List<Leak> leaks = new ArrayList<>();
+    final Iterator<Map.Entry<RxPresenter<?>, Entry>> iterator =
+        this.presenters.entrySet().iterator();
+    while (iterator.hasNext()) {
+      final Map.Entry<RxPresenter<?>, Entry> entry = iterator.next();
+      final Leak leak = entry.getValue().leak(entry.getKey());
+      if (leak != null) {
+        leaks.add(leak);
+      } else if (entry.getValue().destroyed) {
+        //the streams of a destroyed presenter finished later
+        iterator.remove();
+      }
+    }
+    return leaks;
+  }
+
+  /**
+   * @return a printable report of every tracked presenter, its component and its streams
+   */
+  @NonNull public synchronized String dump() {
+    final StringBuilder builder =
+        new StringBuilder("Presenters: ").append(this.presenters.size());
+    for (Map.Entry<RxPresenter<?>, Entry> entry : this.presenters.entrySet()) {
+      entry.getValue().dump(entry.getKey(), builder.append('\n'));
+    }
+    return builder.toString();
+  }
+
+  synchronized void onBind(RxPresenter<?> presenter, NaviComponent component) {
+    Entry entry = this.presenters.get(presenter);
+    if (entry == null) {
+      entry = new Entry();
+      this.presenters.put(presenter, entry);
+    }
+    entry.component = new WeakReference<Object>(component);
+    entry.componentName = component.getClass().getName();
+    entry.destroyed = false;
+  }
+
+  synchronized void onSubscribe(RxPresenter<?> presenter, String tag, Subscription subscription) {
+    Entry entry = this.presenters.get(presenter);
+    if (entry == null) {
+      entry = new Entry();
+      this.presenters.put(presenter, entry);
+    }
+    entry.prune();
+    entry.streams.add(new Stream(tag, subscription));
+  }
+
+  void onDestroy(RxPresenter<?> presenter) {
+    final Leak leak;
+    synchronized (this) {
+      final Entry entry = this.presenters.get(presenter);
+      if (entry == null) {
+        return;
+      }
+      entry.destroyed = true;
+      leak = entry.leak(presenter);
+      if (leak == null) {
+        this.presenters.remove(presenter);
+      }
+    }
+    if (leak != null) {
+      this.leakListener.onLeak(leak);
+    }
+  }
+
+  /**
+   * A destroyed presenter which still has active streams or references its view
+   */
+  public static final class Leak {
+
+    private final String presenter;
+    private final String component;
+    private final List<String> activeStreams;
+    private final boolean viewReferenced;
+
+    Leak(String presenter, String component, List<String> activeStreams,
+        boolean viewReferenced) {
+      this.presenter = presenter;
+      this.component = component;
+      this.activeStreams = Collections.unmodifiableList(activeStreams);
+      this.viewReferenced = viewReferenced;
+    }
+
+    /**
+     * @return the presenter class and identity
+     */
+    @NonNull public String presenter() {
+      return this.presenter;
+    }
+
+    /**
+     * @return the class of the last bound component
+     */
+    @Nullable public String component() {
+      return this.component;
+    }
+
+    /**
+     * @return the tags of the streams which are still subscribed
+     */
+    @NonNull public List<String> activeStreams() {
+      return this.activeStreams;
+    }
+
+    /**
+     * @return true if the presenter still references its view
+     */
+    public boolean isViewReferenced() {
+      return this.viewReferenced;
+    }
+
+    @Override public String toString() {
+      return this.presenter + " of " + this.component + " active streams: " + this.activeStreams
+          + ", view referenced: " + this.viewReferenced;
+    }
+  }
+
+  private static final class Entry {
+
+    WeakReference<Object> component;
+    String componentName;
+    boolean destroyed;
+    final List<Stream> streams = new ArrayList<>();
+
+    /**
+     * Drops the streams which are unsubscribed or collected
+     */
+    void prune() {
+      for (Iterator<Stream> iterator = this.streams.iterator(); iterator.hasNext(); ) {
+        if (!iterator.next().isActive()) {
+          iterator.remove();
+        }
+      }
+    }
+
+    @Nullable Leak leak(RxPresenter<?> presenter) {
+      if (!this.destroyed) {
+        return null;
+      }
+      this.prune();
+      final boolean viewReferenced = presenter.view != null;
+      if (this.streams.isEmpty() && !viewReferenced) {
+        return null;
+      }
+      final List<String> active = new ArrayList<>(this.streams.size());
+      for (Stream stream : this.streams) {
+        active.add(stream.tag);
+      }
+      return new Leak(name(presenter), this.componentName, active, viewReferenced);
+    }
+
+    void dump(RxPresenter<?> presenter, StringBuilder builder) {
+      final Object component = this.component != null ? this.component.get() : null;
+      builder.append(name(presenter))
+          .append(this.destroyed ? " destroyed" : " live")
+          .append(", component: ")
+          .append(component != null ? name(component) : this.componentName)
+          .append(", view: ")
+          .append(presenter.view != null ? "bound" : "unbound");
+      for (Stream stream : this.streams) {
+        builder.append("\n  ").append(stream.tag).append(": ");
+        builder.append(stream.isActive() ? "active" : "unsubscribed");
+      }
+    }
+
+    private static String name(Object object) {
+      return object.getClass().getName() + '@' + Integer.toHexString(
+          System.identityHashCode(object));
+    }
+  }
+
+  private static final class Stream {
+
+    final String tag;
+    final WeakReference<Subscription> subscription;
+
+    Stream(String tag, Subscription subscription) {
+      this.tag = tag;
+      this.subscription = new WeakReference<>(subscription);
+    }
+
+    boolean isActive() {
+      final Subscription subscription = this.subscription.get();
+      return subscription != null && !subscription.isUnsubscribed();
+    }
+  }
+}
@@ -0,0 +1,335 @@
+package com.ezhome.rxpresenter;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
+import com.ezhome.rxpresenter.reactive.PresenterSchedulers.Lane;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Action0;
+import rx.functions.Func1;
+import timber.log.Timber;
+
+/**
+ * Keeps the state snapshots of the presenters in app-private memory-mapped files, so a large state
+ * survives process death without going through the {@link android.os.Bundle}. Only the key of the
+ * snapshot is saved in the Bundle, the state is encoded with a {@link Codec} and written on the IO
+ * lane, and it is read back on the IO lane when the presenter is bound again. Install it with
+ * {@link RxPresenterPlugins#setSnapshots(PresenterSnapshots)} eg.
+ *
+ * <pre>
+ * RxPresenterPlugins.setSnapshots(new PresenterSnapshots(context));
+ * </pre>
+ *
+ * The snapshots of a finished component are deleted, the snapshots which are older than the max
+ * age, or over the max number of files, are deleted when the store is created.
+ */
+public final class PresenterSnapshots {
+
+  /**
+   * Encodes a state in a compact binary form, called on the IO lane
+   *
+   * @param <T> the state
+   */
+  public interface Codec<T> {
+
+    void write(@NonNull T state, @NonNull DataOutput output) throws IOException;
+
+    @NonNull T read(@NonNull DataInput input) throws IOException;
+  }
+
+  static final long DEFAULT_MAX_AGE_HOURS = 72;
+  static final int DEFAULT_MAX_FILES = 64;
+
+  private static final String DIRECTORY = "rxpresenter-snapshots";
+  private static final String SUFFIX = ".snapshot";
+  private static final String TEMP_SUFFIX = ".tmp";
+  private static final int MAGIC = 0x52585053;
+  private static final int HEADER_SIZE = 8;
+
+  private static final Func1<Object, Boolean> NOT_NULL = new Func1<Object, Boolean>() {
+    @Override public Boolean call(Object o) {
+      return o != null;
+    }
+  };
+
+  /**
+   * Sorts the deleted files first and then by age
+   */
+  private static final Comparator<File> OLDEST_FIRST = new Comparator<File>() {
+    @Override public int compare(File a, File b) {
+      if (a == null || b == null) {
+        return a == b ? 0 : a == null ? -1 : 1;
+      }
+      final long ageA = a.lastModified();
+      final long ageB = b.lastModified();
+      return ageA < ageB ? -1 : ageA == ageB ? 0 : 1;
+    }
+  };
+
+  private final File directory;
+  private final long maxAgeMillis;
+  private final int maxFiles;
+
+  /**
+   * The states which are not written yet by key, a read returns them without the file
+   */
+  private final ConcurrentHashMap<String, Object> pending = new ConcurrentHashMap<>();
+
+  /**
+   * Keeps the snapshots in the files directory for {@value #DEFAULT_MAX_AGE_HOURS} hours and up to
+   * {@value #DEFAULT_MAX_FILES} files
+   *
+   * @param context {@link Context}
+   */
+  public PresenterSnapshots(@NonNull Context context) {
+    this(new File(context.getFilesDir(), DIRECTORY), DEFAULT_MAX_AGE_HOURS, TimeUnit.HOURS,
+        DEFAULT_MAX_FILES);
+  }
+
+  /**
+   * @param directory app-private directory of the snapshots
+   * @param maxAge the age after which a snapshot is deleted
+   * @param unit {@link TimeUnit} of the max age
+   * @param maxFiles the maximum number of snapshots, the oldest ones are deleted
+   */
+  public PresenterSnapshots(@NonNull File directory, long maxAge, @NonNull TimeUnit unit,
+      int maxFiles) {
+    if (maxAge <= 0) {
+      throw new IllegalArgumentException("maxAge <= 0: " + maxAge);
+    }
+    if (maxFiles <= 0) {
+      throw new IllegalArgumentException("maxFiles <= 0: " + maxFiles);
+    }
+    this.directory = directory;
+    this.maxAgeMillis = unit.toMillis(maxAge);
+    this.maxFiles = maxFiles;
+    this.schedule(new Action0() {
+      @Override public void call() {
+        PresenterSnapshots.this.trim();
+      }
+    });
+  }
+
+  /**
+   * Writes the snapshot on the IO lane, a newer snapshot of the same key replaces an older one
+   * which is not written yet
+   *
+   * @param key the key of the snapshot
+   * @param state the immutable state
+   * @param codec {@link Codec} of the state
+   * @param <T> the state
+   */
+  public <T> void write(@NonNull final String key, @NonNull final T state,
+      @NonNull final Codec<T> codec) {
+    this.pending.put(key, state);
+    this.schedule(new Action0() {
+      @Override public void call() {
+        PresenterSnapshots.this.writeNow(key, state, codec);
+      }
+    });
+  }
+
+  /**
+   * Reads the snapshot on the IO lane
+   *
+   * @param key the key of the snapshot
+   * @param codec {@link Codec} of the state
+   * @param <T> the state
+   * @return {@link Observable} of the state, empty if there is no valid snapshot
+   */
+  public <T> Observable<T> read(@NonNull final String key, @NonNull final Codec<T> codec) {
+    return Observable.fromCallable(new Callable<T>() {
+      @Override public T call() throws Exception {
+        return PresenterSnapshots.this.readNow(key, codec);
+      }
+    }).filter(NOT_NULL).subscribeOn(RxPresenterPlugins.laneScheduler(Lane.IO));
+  }
+
+  /**
+   * Deletes the snapshot on the IO lane
+   *
+   * @param key the key of the snapshot
+   */
+  public void delete(@NonNull final String key) {
+    this.pending.remove(key);
+    this.schedule(new Action0() {
+      @Override public void call() {
+        synchronized (PresenterSnapshots.this) {
+          PresenterSnapshots.this.file(key).delete();
+        }
+      }
+    });
+  }
+
+  private void schedule(final Action0 action) {
+    final Scheduler.Worker worker = RxPresenterPlugins.laneScheduler(Lane.IO).createWorker();
+    worker.schedule(new Action0() {
+      @Override public void call() {
+        try {
+          action.call();
+        } finally {
+          worker.unsubscribe();
+        }
+      }
+    });
+  }
+
+  /**
+   * Writes the state in a temporary file which replaces the snapshot, the states are written one
+   * at a time and a state which was replaced before its turn is skipped
+   */
+  private synchronized <T> void writeNow(String key, T state, Codec<T> codec) {
+    if (this.pending.get(key) != state) {
+      return;
+    }
+    final File file = this.file(key);
+    final File temp = new File(this.directory, file.getName() + TEMP_SUFFIX);
+    try {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      final DataOutputStream output = new DataOutputStream(bytes);
+      codec.write(state, output);
+      output.flush();
+      if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+        throw new IOException("Cannot create " + this.directory);
+      }
+      final RandomAccessFile access = new RandomAccessFile(temp, "rw");
+      try {
+        //a longer temporary file left by a killed process must not keep its trailing bytes
+        access.setLength(HEADER_SIZE + bytes.size());
+        final FileChannel channel = access.getChannel();
+        final MappedByteBuffer buffer =
+            channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + bytes.size());
+        buffer.putInt(MAGIC).putInt(bytes.size()).put(bytes.toByteArray());
+        buffer.force();
+      } finally {
+        access.close();
+      }
+      if (!temp.renameTo(file)) {
+        throw new IOException("Cannot rename " + temp);
+      }
+    } catch (IOException e) {
+      Timber.e(e, "Cannot write the snapshot %s", key);
+      temp.delete();
+    } finally {
+      this.pending.remove(key, state);
+    }
+  }
+
+  @SuppressWarnings("unchecked") private synchronized <T> T readNow(String key, Codec<T> codec) {
+    final Object state = this.pending.get(key);
+    if (state != null) {
+      return (T) state;
+    }
+    final File file = this.file(key);
+    if (!file.isFile()) {
+      return null;
+    }
+    try {
+      final RandomAccessFile access = new RandomAccessFile(file, "r");
+      try {
+        final FileChannel channel = access.getChannel();
+        final MappedByteBuffer buffer =
+            channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+          throw new IOException("Not a snapshot");
+        }
+        final int size = buffer.getInt();
+        if (size != buffer.remaining()) {
+          throw new IOException("Truncated snapshot");
+        }
+        return codec.read(new DataInputStream(new BufferInputStream(buffer)));
+      } finally {
+        access.close();
+      }
+    } catch (IOException e) {
+      Timber.e(e, "Cannot read the snapshot %s", key);
+      file.delete();
+      return null;
+    }
+  }
+
+  /**
+   * Deletes the snapshots over the max age and then the oldest ones over the max number of files
+   */
+  @VisibleForTesting synchronized void trim() {
+    final File[] files = this.directory.listFiles();
+    if (files == null) {
+      return;
+    }
+    final long now = System.currentTimeMillis();
+    int count = 0;
+    for (int i = 0; i < files.length; i++) {
+      final File file = files[i];
+      if (file.getName().endsWith(TEMP_SUFFIX) || now - file.lastModified() > this.maxAgeMillis) {
+        file.delete();
+        files[i] = null;
+      } else {
+        count++;
+      }
+    }
+    if (count <= this.maxFiles) {
+      return;
+    }
+    Arrays.sort(files, OLDEST_FIRST);
+    for (File file : files) {
+      if (count <= this.maxFiles) {
+        return;
+      }
+      if (file != null) {
+        file.delete();
+        count--;
+      }
+    }
+  }
+
+  private File file(String key) {
+    return new File(this.directory, key + SUFFIX);
+  }
+
+  /**
+   * {@link InputStream} over the mapped file
+   */
+  private static final class BufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    BufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override public int read() {
+      return this.buffer.hasRemaining() ? this.buffer.get() & 0xff : -1;
+    }
+
+    @Override public int read(@NonNull byte[] bytes, int offset, int length) {
+      if (!this.buffer.hasRemaining()) {
+        return -1;
+      }
+      final int count = Math.min(length, this.buffer.remaining());
+      this.buffer.get(bytes, offset, count);
+      return count;
+    }
+
+    @Override public int available() {
+      return this.buffer.remaining();
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package com.ezhome.rxpresenter;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.v4.app.Fragment;
+import android.support.v4.app.FragmentActivity;
+import android.support.v4.app.FragmentManager;
+import com.ezhome.rxpresenter.mvp.Presenter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps presenters alive across configuration changes. The store lives in a retained headless
+ * fragment of the activity and keys the presenters by id, so a recreated view can
+ * {@link Presenter#bind} to the same presenter instead of creating a new one. A retained
+ * {@link RxPresenter} is destroyed only when its component is really finishing.
+ *
+ * <p>Must be accessed from the main thread.
+ */
+public final class PresenterStore {
+
+  static final String FRAGMENT_TAG = "com.ezhome.rxpresenter.PresenterStore";
+
+  /**
+   * Holder fragments which are added but not yet committed, keyed by their fragment manager
+   */
+  private static final Map<FragmentManager, HolderFragment> PENDING_HOLDERS = new HashMap<>();
+
+  private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+  private final Map<String, Presenter<?>> presenters = new HashMap<>();
+
+  PresenterStore() {
+  }
+
+  /**
+   * Returns the store of the given activity
+   *
+   * @param activity {@link FragmentActivity}
+   * @return {@link PresenterStore}
+   */
+  public static PresenterStore of(@NonNull FragmentActivity activity) {
+    return holder(activity.getSupportFragmentManager()).store;
+  }
+
+  /**
+   * Returns the store of the activity which hosts the given fragment
+   *
+   * @param fragment {@link Fragment}
+   * @return {@link PresenterStore}
+   */
+  public static PresenterStore of(@NonNull Fragment fragment) {
+    return of(fragment.getActivity());
+  }
+
+  /**
+   * Returns the presenter stored with the given id, creating and storing it if it does not exist
+   *
+   * @param id unique id of the presenter in the activity
+   * @param factory {@link Factory} which creates the presenter
+   * @param <P> the type of the presenter
+   * @return the retained presenter
+   */
+  @SuppressWarnings("unchecked")
+  public <P extends Presenter<?>> P get(@NonNull String id, @NonNull Factory<P> factory) {
+    P presenter = (P) this.presenters.get(id);
+    if (presenter == null) {
+      presenter = factory.create();
+      this.presenters.put(id, presenter);
+      if (presenter instanceof RxPresenter) {
+        ((RxPresenter<?>) presenter).retain(this, id);
+      }
+    }
+    return presenter;
+  }
+
+  /**
+   * @param id the id of the presenter
+   * @return true if a presenter is stored with the given id
+   */
+  public boolean contains(@NonNull String id) {
+    return this.presenters.containsKey(id);
+  }
+
+  /**
+   * Removes the presenter with the given id without destroying it
+   *
+   * @param id the id of the presenter
+   */
+  public void remove(@NonNull String id) {
+    this.presenters.remove(id);
+  }
+
+  /**
+   * Destroys and removes all the stored presenters
+   */
+  void clear() {
+    for (Presenter<?> presenter : this.presenters.values()) {
+      presenter.destroy();
+    }
+    this.presenters.clear();
+  }
+
+  private static HolderFragment holder(FragmentManager fragmentManager) {
+    HolderFragment holder = (HolderFragment) fragmentManager.findFragmentByTag(FRAGMENT_TAG);
+    if (holder == null) {
+      holder = PENDING_HOLDERS.get(fragmentManager);
+    }
+    if (holder == null) {
+      holder = new HolderFragment();
+      PENDING_HOLDERS.put(fragmentManager, holder);
+      fragmentManager.beginTransaction().add(holder, FRAGMENT_TAG).commitAllowingStateLoss();
+      final FragmentManager manager = fragmentManager;
+      MAIN_HANDLER.post(new Runnable() {
+        @Override public void run() {
+          PENDING_HOLDERS.remove(manager);
+        }
+      });
+    }
+    return holder;
+  }
+
+  /**
+   * Creates a presenter when it is not found in the store
+   *
+   * @param <P> the type of the presenter
+   */
+  public interface Factory<P extends Presenter<?>> {
+    P create();
+  }
+
+  /**
+   * Retained headless fragment which holds the {@link PresenterStore}
+   */
+  public static final class HolderFragment extends Fragment {
+
+    final PresenterStore store = new PresenterStore();
+
+    public HolderFragment() {
+      setRetainInstance(true);
+    }
+
+    @Override public void onDestroy() {
+      super.onDestroy();
+      this.store.clear();
+    }
+  }
+}
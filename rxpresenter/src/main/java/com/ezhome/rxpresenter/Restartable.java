@@ -0,0 +1,99 @@
+package com.ezhome.rxpresenter;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import com.ezhome.rxpresenter.reactive.DefaultSubscriber;
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.Subscription;
+import rx.functions.Action1;
+import rx.functions.Func0;
+import rx.subjects.ReplaySubject;
+
+/**
+ * A stream registered by id in {@link RxPresenter} which keeps running while the view is detached
+ * and caches its results until the next view is bound
+ *
+ * @param <T> any object for {@link rx.Observable}
+ */
+final class Restartable<T> {
+
+  private final Func0<Observable<T>> factory;
+  private final int cacheSize;
+  private final boolean firstOnly;
+  private final Action1<T> onNext;
+  private final Action1<Throwable> onError;
+
+  private ReplaySubject<T> cache;
+  private Subscription upstream;
+
+  /**
+   * @param factory creates the upstream {@link Observable} every time the restartable starts
+   * @param cacheSize how many items are replayed to a new view
+   * @param firstOnly true if only the first item of the upstream is delivered
+   * @param onNext {@link Action1} which receives the items
+   * @param onError [OPTIONAL] {@link Action1} which receives the error
+   */
+  Restartable(@NonNull Func0<Observable<T>> factory, int cacheSize, boolean firstOnly,
+      @NonNull Action1<T> onNext, @Nullable Action1<Throwable> onError) {
+    this.factory = factory;
+    this.cacheSize = cacheSize;
+    this.firstOnly = firstOnly;
+    this.onNext = onNext;
+    this.onError = onError;
+  }
+
+  boolean isStarted() {
+    return this.upstream != null;
+  }
+
+  /**
+   * Subscribes a fresh upstream from the factory into a new cache
+   *
+   * @param scheduler the scheduler to run the stream
+   */
+  void start(@NonNull Scheduler scheduler) {
+    this.stop();
+    Observable<T> source = this.factory.call();
+    if (this.firstOnly) {
+      source = source.take(1);
+    }
+    this.cache = ReplaySubject.createWithSize(this.cacheSize);
+    this.upstream = source.subscribeOn(scheduler).subscribe(this.cache);
+  }
+
+  void stop() {
+    if (this.upstream != null) {
+      this.upstream.unsubscribe();
+      this.upstream = null;
+      this.cache = null;
+    }
+  }
+
+  /**
+   * @return {@link Observable} which replays the cached results
+   */
+  Observable<T> cached() {
+    return this.cache.asObservable();
+  }
+
+  /**
+   * @return a new {@link Subscriber} which delivers to the registered actions
+   */
+  Subscriber<T> newSubscriber() {
+    return new DefaultSubscriber<T>() {
+      @Override public void onNext(T t) {
+        Restartable.this.onNext.call(t);
+      }
+
+      @Override public void onError(Throwable e) {
+        if (Restartable.this.onError == null) {
+          super.onError(e);
+        } else {
+          Restartable.this.onError.call(e);
+        }
+      }
+    };
+  }
+}
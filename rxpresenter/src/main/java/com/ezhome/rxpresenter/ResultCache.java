@@ -0,0 +1,521 @@
+package com.ezhome.rxpresenter;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import com.ezhome.rxpresenter.reactive.PresenterSchedulers.Lane;
+import com.ezhome.rxpresenter.reactive.SharedStreamRegistry;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.schedulers.Schedulers;
+import timber.log.Timber;
+
+/**
+ * A process wide cache of the results of the streams bound with
+ * {@link RxPresenter#bindCached(String, Observable, CachePolicy, rx.Subscriber[])}. The results are
+ * kept in a least recently used memory tier bounded in bytes and, for the persisted policies, in an
+ * optional disk tier bounded in bytes. The presenters which load the same key at the same time
+ * share one subscription of the source. It is safe to use from any thread. Install it with
+ * {@link RxPresenterPlugins#setResultCache(ResultCache)} eg.
+ *
+ * <pre>
+ * RxPresenterPlugins.setResultCache(new ResultCache(8 * 1024 * 1024,
+ *     new File(context.getCacheDir(), "results"), 32 * 1024 * 1024));
+ * </pre>
+ */
+public final class ResultCache {
+
+  /**
+   * Size of the memory tier of the default cache
+   */
+  static final long DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+
+  private static final String SUFFIX = ".result";
+  private static final String TEMP_SUFFIX = ".tmp";
+  private static final int MAGIC = 0x52585243;
+
+  /**
+   * Sorts the files by age
+   */
+  private static final Comparator<File> OLDEST_FIRST = new Comparator<File>() {
+    @Override public int compare(File a, File b) {
+      final long ageA = a.lastModified();
+      final long ageB = b.lastModified();
+      return ageA < ageB ? -1 : ageA == ageB ? 0 : 1;
+    }
+  };
+
+  private final long maxBytes;
+  @Nullable private final File directory;
+  private final long maxDiskBytes;
+  private final Scheduler clock;
+  private final Object diskLock = new Object();
+
+  /**
+   * The encoded results which are not written yet, a newer result of the same key replaces an
+   * older one which is not written yet
+   */
+  private final ConcurrentHashMap<String, ByteArrayOutputStream> pendingWrites =
+      new ConcurrentHashMap<>();
+
+  /**
+   * The memory tier in access order, guarded by this
+   */
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long sizeBytes;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong staleHits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong diskHits = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  /**
+   * A cache without disk tier
+   *
+   * @param maxBytes the maximum size of the memory tier
+   */
+  public ResultCache(long maxBytes) {
+    this(maxBytes, null, 0, Schedulers.immediate());
+  }
+
+  /**
+   * @param maxBytes the maximum size of the memory tier
+   * @param directory app-private directory of the disk tier
+   * @param maxDiskBytes the maximum size of the disk tier, the oldest results are deleted
+   */
+  public ResultCache(long maxBytes, @NonNull File directory, long maxDiskBytes) {
+    this(maxBytes, directory, maxDiskBytes, Schedulers.immediate());
+  }
+
+  /**
+   * @param clock the {@link Scheduler} which gives the time of the results
+   */
+  @VisibleForTesting ResultCache(long maxBytes, @Nullable File directory, long maxDiskBytes,
+      Scheduler clock) {
+    if (maxBytes <= 0) {
+      throw new IllegalArgumentException("maxBytes <= 0: " + maxBytes);
+    }
+    this.maxBytes = maxBytes;
+    this.directory = directory;
+    this.maxDiskBytes = maxDiskBytes;
+    this.clock = clock;
+  }
+
+  /**
+   * Emits the cached result of the key according to the policy, and the results of the source
+   * when the cached one is missing or stale. A result in memory is emitted on the subscribing
+   * thread, the disk tier and the source run on the given scheduler.
+   *
+   * @param key the key of the result
+   * @param source {@link rx.Observable} which loads the result
+   * @param policy {@link CachePolicy}
+   * @param scheduler the scheduler to read the disk tier and run the source
+   * @param <T> the result
+   * @return {@link rx.Observable}
+   */
+  public <T> Observable<T> get(@NonNull final String key, @NonNull final Observable<T> source,
+      @NonNull final CachePolicy<T> policy, @NonNull final Scheduler scheduler) {
+    return Observable.defer(new Func0<Observable<T>>() {
+      @Override public Observable<T> call() {
+        final Entry entry = ResultCache.this.memory(key);
+        if (entry != null) {
+          final Observable<T> cached = ResultCache.this.cached(key, entry, source, policy,
+              scheduler);
+          if (cached != null) {
+            return cached;
+          }
+        }
+        if (policy.codec != null && ResultCache.this.directory != null) {
+          return ResultCache.this.disk(key, source, policy, scheduler);
+        }
+        ResultCache.this.misses.incrementAndGet();
+        return ResultCache.this.fetch(key, source, policy, scheduler);
+      }
+    });
+  }
+
+  /**
+   * Removes the result of the key from both tiers
+   *
+   * @param key the key of the result
+   */
+  public void invalidate(@NonNull String key) {
+    synchronized (this) {
+      final Entry entry = this.entries.remove(key);
+      if (entry != null) {
+        this.sizeBytes -= entry.size;
+      }
+    }
+    if (this.directory != null) {
+      this.pendingWrites.remove(key);
+      synchronized (this.diskLock) {
+        this.file(key).delete();
+      }
+    }
+  }
+
+  /**
+   * Removes all the results of the memory tier
+   */
+  public synchronized void clear() {
+    this.entries.clear();
+    this.sizeBytes = 0;
+  }
+
+  /**
+   * @return the number of fresh results emitted from the cache
+   */
+  public long hits() {
+    return this.hits.get();
+  }
+
+  /**
+   * @return the number of stale results emitted while the fresh ones were loading
+   */
+  public long staleHits() {
+    return this.staleHits.get();
+  }
+
+  /**
+   * @return the number of requests which waited for the source
+   */
+  public long misses() {
+    return this.misses.get();
+  }
+
+  /**
+   * @return the number of results, fresh or stale, read from the disk tier
+   */
+  public long diskHits() {
+    return this.diskHits.get();
+  }
+
+  /**
+   * @return the number of results evicted from the memory tier to stay under the max size
+   */
+  public long evictions() {
+    return this.evictions.get();
+  }
+
+  /**
+   * @return the share of the requests which emitted a cached result without waiting for the source
+   */
+  public double hitRate() {
+    final long served = this.hits.get() + this.staleHits.get();
+    final long requests = served + this.misses.get();
+    return requests == 0 ? 0 : (double) served / requests;
+  }
+
+  /**
+   * @return the size in bytes of the memory tier
+   */
+  public synchronized long sizeBytes() {
+    return this.sizeBytes;
+  }
+
+  /**
+   * @return the maximum size in bytes of the memory tier
+   */
+  public long maxBytes() {
+    return this.maxBytes;
+  }
+
+  /**
+   * @return the number of results in the memory tier
+   */
+  public synchronized int size() {
+    return this.entries.size();
+  }
+
+  private synchronized Entry memory(String key) {
+    return this.entries.get(key);
+  }
+
+  /**
+   * @return the observable of a cached result or null if it is too old for the policy
+   */
+  @Nullable @SuppressWarnings("unchecked")
+  private <T> Observable<T> cached(String key, Entry entry, Observable<T> source,
+      CachePolicy<T> policy, Scheduler scheduler) {
+    final long age = this.clock.now() - entry.timestamp;
+    if (policy.isFresh(age)) {
+      this.hits.incrementAndGet();
+      return Observable.just((T) entry.value);
+    }
+    if (policy.isUsable(age)) {
+      this.staleHits.incrementAndGet();
+      return Observable.just((T) entry.value).concatWith(fetch(key, source, policy, scheduler));
+    }
+    return null;
+  }
+
+  private <T> Observable<T> disk(final String key, final Observable<T> source,
+      final CachePolicy<T> policy, final Scheduler scheduler) {
+    return Observable.fromCallable(new Callable<Entry>() {
+      @Override public Entry call() throws Exception {
+        return ResultCache.this.read(key, policy);
+      }
+    }).flatMap(new Func1<Entry, Observable<T>>() {
+      @Override public Observable<T> call(Entry entry) {
+        if (entry != Entry.NONE) {
+          final Observable<T> cached = ResultCache.this.cached(key, entry, source, policy,
+              scheduler);
+          if (cached != null) {
+            ResultCache.this.diskHits.incrementAndGet();
+            ResultCache.this.store(key, entry);
+            return cached;
+          }
+        }
+        ResultCache.this.misses.incrementAndGet();
+        return ResultCache.this.fetch(key, source, policy, scheduler);
+      }
+    }).subscribeOn(scheduler);
+  }
+
+  /**
+   * Subscribes the source, or joins the in-flight one of the key, and caches every result
+   */
+  private <T> Observable<T> fetch(final String key, Observable<T> source,
+      final CachePolicy<T> policy, Scheduler scheduler) {
+    return SharedStreamRegistry.get().share(new FetchKey(key), source.doOnNext(new Action1<T>() {
+      @Override public void call(T value) {
+        ResultCache.this.put(key, value, policy);
+      }
+    }), scheduler);
+  }
+
+  /**
+   * Puts the result in the memory tier on the delivering thread and writes it to the disk tier on
+   * the IO lane, so the subscribers of the source do not wait for the file
+   */
+  private <T> void put(String key, T value, CachePolicy<T> policy) {
+    final long now = this.clock.now();
+    if (policy.codec == null) {
+      final int size = policy.sizer != null ? policy.sizer.sizeOf(value) : CachePolicy.DEFAULT_SIZE;
+      this.store(key, new Entry(value, now, size));
+      return;
+    }
+    try {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      final DataOutputStream output = new DataOutputStream(bytes);
+      policy.codec.write(value, output);
+      output.flush();
+      final int size = policy.sizer != null ? policy.sizer.sizeOf(value) : bytes.size();
+      this.store(key, new Entry(value, now, size));
+      if (this.directory != null) {
+        this.scheduleWrite(key, now, bytes);
+      }
+    } catch (IOException e) {
+      Timber.e(e, "Cannot encode the result %s", key);
+    }
+  }
+
+  private void scheduleWrite(final String key, final long timestamp,
+      final ByteArrayOutputStream bytes) {
+    this.pendingWrites.put(key, bytes);
+    final Scheduler.Worker worker = RxPresenterPlugins.laneScheduler(Lane.IO).createWorker();
+    worker.schedule(new Action0() {
+      @Override public void call() {
+        try {
+          if (ResultCache.this.pendingWrites.get(key) == bytes) {
+            ResultCache.this.write(key, timestamp, bytes);
+          }
+        } catch (IOException e) {
+          Timber.e(e, "Cannot write the result %s", key);
+        } finally {
+          ResultCache.this.pendingWrites.remove(key, bytes);
+          worker.unsubscribe();
+        }
+      }
+    });
+  }
+
+  /**
+   * Puts the entry in the memory tier and evicts the least recently used ones over the max size
+   */
+  private synchronized void store(String key, Entry entry) {
+    final Entry previous = this.entries.remove(key);
+    if (previous != null) {
+      this.sizeBytes -= previous.size;
+    }
+    if (entry.size > this.maxBytes) {
+      return;
+    }
+    this.entries.put(key, entry);
+    this.sizeBytes += entry.size;
+    final Iterator<Map.Entry<String, Entry>> iterator = this.entries.entrySet().iterator();
+    while (this.sizeBytes > this.maxBytes && iterator.hasNext()) {
+      final Map.Entry<String, Entry> eldest = iterator.next();
+      iterator.remove();
+      this.sizeBytes -= eldest.getValue().size;
+      this.evictions.incrementAndGet();
+    }
+  }
+
+  private void write(String key, long timestamp, ByteArrayOutputStream bytes) throws IOException {
+    synchronized (this.diskLock) {
+      if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+        throw new IOException("Cannot create " + this.directory);
+      }
+      final File file = this.file(key);
+      final File temp = new File(this.directory, file.getName() + TEMP_SUFFIX);
+      final DataOutputStream output =
+          new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+      try {
+        output.writeInt(MAGIC);
+        output.writeUTF(key);
+        output.writeLong(timestamp);
+        output.writeInt(bytes.size());
+        bytes.writeTo(output);
+      } finally {
+        output.close();
+      }
+      if (!temp.renameTo(file)) {
+        temp.delete();
+        throw new IOException("Cannot rename " + temp);
+      }
+      this.trimDisk();
+    }
+  }
+
+  /**
+   * @return the entry of the disk tier or {@link Entry#NONE}
+   */
+  private <T> Entry read(String key, CachePolicy<T> policy) {
+    synchronized (this.diskLock) {
+      final File file = this.file(key);
+      if (!file.isFile()) {
+        return Entry.NONE;
+      }
+      try {
+        final DataInputStream input =
+            new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+          if (input.readInt() != MAGIC || !key.equals(input.readUTF())) {
+            return Entry.NONE;
+          }
+          final long timestamp = input.readLong();
+          final byte[] bytes = new byte[input.readInt()];
+          input.readFully(bytes);
+          final T value =
+              policy.codec.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+          final int size = policy.sizer != null ? policy.sizer.sizeOf(value) : bytes.length;
+          return new Entry(value, timestamp, size);
+        } finally {
+          input.close();
+        }
+      } catch (IOException e) {
+        Timber.e(e, "Cannot read the result %s", key);
+        file.delete();
+        return Entry.NONE;
+      }
+    }
+  }
+
+  /**
+   * Deletes the oldest results over the max size of the disk tier, called with the disk lock
+   */
+  private void trimDisk() {
+    final File[] files = this.directory.listFiles();
+    if (files == null) {
+      return;
+    }
+    long size = 0;
+    for (File file : files) {
+      size += file.length();
+    }
+    if (size <= this.maxDiskBytes) {
+      return;
+    }
+    Arrays.sort(files, OLDEST_FIRST);
+    for (File file : files) {
+      if (size <= this.maxDiskBytes) {
+        return;
+      }
+      size -= file.length();
+      file.delete();
+    }
+  }
+
+  /**
+   * @return the file of the key, named by the SHA-1 of the key so two keys never share a file
+   */
+  private File file(String key) {
+    try {
+      final byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes("UTF-8"));
+      final StringBuilder name = new StringBuilder(digest.length * 2 + SUFFIX.length());
+      for (byte b : digest) {
+        name.append(Character.forDigit((b >> 4) & 0xf, 16))
+            .append(Character.forDigit(b & 0xf, 16));
+      }
+      return new File(this.directory, name.append(SUFFIX).toString());
+    } catch (NoSuchAlgorithmException | UnsupportedEncodingException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  /**
+   * A cached result
+   */
+  private static final class Entry {
+
+    static final Entry NONE = new Entry(null, 0, 0);
+
+    final Object value;
+    final long timestamp;
+    final int size;
+
+    Entry(Object value, long timestamp, int size) {
+      this.value = value;
+      this.timestamp = timestamp;
+      this.size = size;
+    }
+  }
+
+  /**
+   * The key of the in-flight loads in the {@link SharedStreamRegistry}, distinct from the keys of
+   * {@link RxPresenter#bindShared(Object, Observable, rx.Subscriber[])}
+   */
+  private static final class FetchKey {
+
+    private final String key;
+
+    FetchKey(String key) {
+      this.key = key;
+    }
+
+    @Override public boolean equals(Object o) {
+      return o instanceof FetchKey && ((FetchKey) o).key.equals(this.key);
+    }
+
+    @Override public int hashCode() {
+      return this.key.hashCode();
+    }
+  }
+}
@@ -1,45 +1,104 @@
 package com.ezhome.rxpresenter;
 
+import android.app.Activity;
+import android.os.Bundle;
+import android.os.Looper;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
 import android.support.v4.app.Fragment;
 import com.ezhome.rxpresenter.mvp.MvpView;
 import com.ezhome.rxpresenter.mvp.Presenter;
+import com.ezhome.rxpresenter.reactive.Backpressure;
 import com.ezhome.rxpresenter.reactive.DefaultSubscriber;
-import com.trello.navi.Event;
+import com.ezhome.rxpresenter.reactive.FrameClock;
+import com.ezhome.rxpresenter.reactive.LatestPolicy;
+import com.ezhome.rxpresenter.reactive.ListState;
+import com.ezhome.rxpresenter.reactive.OperatorObserveOnMainThread;
+import com.ezhome.rxpresenter.reactive.OperatorLatestPerFrame;
+import com.ezhome.rxpresenter.reactive.OperatorPauseDelivery;
+import com.ezhome.rxpresenter.reactive.PauseDelivery;
+import com.ezhome.rxpresenter.reactive.PrefetchRegistry;
+import com.ezhome.rxpresenter.reactive.PresenterMainDispatcher;
+import com.ezhome.rxpresenter.reactive.PresenterSchedulers.Lane;
+import com.ezhome.rxpresenter.reactive.SharedStreamRegistry;
 import com.trello.navi.NaviComponent;
 import com.trello.navi.component.NaviActivity;
 import com.trello.navi.component.support.NaviAppCompatActivity;
 import com.trello.navi.component.support.NaviDialogFragment;
 import com.trello.navi.component.support.NaviFragment;
-import com.trello.navi.rx.RxNavi;
 import com.trello.rxlifecycle.LifecycleProvider;
 import com.trello.rxlifecycle.RxLifecycle;
 import com.trello.rxlifecycle.android.ActivityEvent;
 import com.trello.rxlifecycle.android.FragmentEvent;
-import com.trello.rxlifecycle.navi.NaviLifecycle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import rx.Completable;
+import rx.CompletableSubscriber;
 import rx.Observable;
 import rx.Scheduler;
+import rx.Single;
+import rx.SingleSubscriber;
 import rx.Subscriber;
 import rx.Subscription;
 import rx.android.schedulers.AndroidSchedulers;
 import rx.functions.Action0;
 import rx.functions.Action1;
+import rx.functions.Func0;
+import rx.functions.Func1;
 import rx.schedulers.Schedulers;
+import rx.subjects.BehaviorSubject;
 import rx.subscriptions.CompositeSubscription;
-import timber.log.Timber;
+import rx.subscriptions.Subscriptions;
 
 /**
  * An Rx presenter based on lifecycle
  */
 public abstract class RxPresenter<V extends MvpView> implements Presenter<V> {
 
-  private static final String LOG_TAG = RxPresenter.class.getSimpleName();
+  /**
+   * Source of the presenter ids of the {@link LifecycleTrace}
+   */
+  private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+  /**
+   * Bundle key of the started restartable ids
+   */
+  private static final String RESTARTABLES_KEY = "com.ezhome.rxpresenter.RxPresenter.restartables";
+
+  /**
+   * Bundle key of the key of the state snapshots
+   */
+  private static final String SNAPSHOTS_KEY = "com.ezhome.rxpresenter.RxPresenter.snapshots";
+
+  /**
+   * Default number of items replayed by {@link #bindRestartable(String, Func0, Action1, Action1)}
+   */
+  private static final int DEFAULT_REPLAY_SIZE = 16;
+
+  /**
+   * Maximum number of cached scheduler transformers, a presenter binds on a handful of schedulers
+   */
+  private static final int MAX_SCHEDULER_TRANSFORMERS = 8;
+
+  /**
+   * Default time a prefetched stream waits to be taken by the presenter of the next screen
+   */
+  private static final long DEFAULT_PREFETCH_TTL_MILLIS = 10000;
+
+  /**
+   * Bound {@link Single} and {@link Completable} streams, released at the end of the lifecycle
+   */
+  private final CompositeSubscription lifecycleSubscriptions = new CompositeSubscription();
 
   /**
-   * Internal subscriptions ofr {@link RxPresenter} to cleanup the {@link RxNavi}
-   * subscriptions
+   * The id of this presenter in the {@link LifecycleTrace}
    */
-  private final CompositeSubscription subscriptions = new CompositeSubscription();
+  final int id = NEXT_ID.incrementAndGet();
 
   /**
    * {@link NaviComponent}
@@ -52,9 +111,95 @@ public abstract class RxPresenter<V extends MvpView> implements Presenter<V> {
   private MvpView mvpView;
 
   /**
-   * {@link LifecycleProvider}
+   * {@link LifecycleHub} of the bound component, it owns the {@link LifecycleProvider} and the
+   * lifecycle transformers shared by all the presenters of the component
+   */
+  private LifecycleHub hub;
+
+  /**
+   * Receives the lifecycle events of the bound component from the {@link LifecycleHub}
+   */
+  private final LifecycleHub.Callbacks hubCallbacks = new HubCallbacks();
+
+  /**
+   * True if the bound component is a {@link Fragment}, resolved once when it is bound
+   */
+  private boolean fragmentComponent;
+
+  /**
+   * Cached scheduler transformers by the scheduler which runs the stream
+   */
+  private final Map<Scheduler, Observable.Transformer> schedulerTransformers = new HashMap<>();
+
+  /**
+   * The main thread scheduler of the cached scheduler transformers
+   */
+  private Scheduler transformersMainThread;
+
+  /**
+   * The {@link PresenterMetrics} of the cached scheduler transformers
+   */
+  private PresenterMetrics transformersMetrics = PresenterMetrics.NONE;
+
+  /**
+   * Reports the bound streams to the installed {@link PresenterMetrics}
+   */
+  private StreamMetrics streamMetrics;
+
+  /**
+   * Live bound streams of this presenter, counted while a {@link PresenterMetrics} is installed
+   */
+  private final AtomicInteger liveSubscriptions = new AtomicInteger();
+
+  /**
+   * {@link FrameClock} used by {@link #bindLatestPerFrame(Observable, Subscriber[])}
+   */
+  private FrameClock frameClock;
+
+  /**
+   * {@link PresenterStore} which retains this presenter across configuration changes
+   */
+  private PresenterStore store;
+
+  /**
+   * The id of this presenter in the {@link PresenterStore}
+   */
+  private String storeId;
+
+  /**
+   * Restartable streams by id, they survive view detach/attach
+   */
+  private final Map<String, Restartable<?>> restartables = new HashMap<>();
+
+  /**
+   * Current delivery of each restartable to the bound view
+   */
+  private final Map<String, Subscription> restartableDeliveries = new HashMap<>();
+
+  /**
+   * The state snapshots by id, saved in the installed {@link PresenterSnapshots}
+   */
+  private final Map<String, Snapshot<?>> snapshots = new HashMap<>();
+
+  /**
+   * The key of the state snapshots, restored from the Bundle or created on the first save
+   */
+  private String snapshotsKey;
+
+  /**
+   * {@link ItemPresenterPool} of the lists of this presenter, unbound at the end of the lifecycle
+   */
+  private final List<ItemPresenterPool<?, ?>> itemPools = new ArrayList<>();
+
+  /**
+   * The switch-latest slots by name, only the latest stream bound to a slot is delivered
+   */
+  private final Map<String, LatestSlot> latestSlots = new HashMap<>();
+
+  /**
+   * Emits true when the component is paused and false when it is resumed
    */
-  private LifecycleProvider lifecycleProvider;
+  private final BehaviorSubject<Boolean> pausedState = BehaviorSubject.create(false);
 
   /**
    * The view which is bind with the presenter
@@ -62,25 +207,21 @@ public abstract class RxPresenter<V extends MvpView> implements Presenter<V> {
   protected V view;
 
   @Override public void bind(NaviFragment fragment) {
-    Timber.tag(getClass().getSimpleName());
     this.naviComponent = fragment;
     this.initFragment();
   }
 
   @Override public void bind(NaviDialogFragment fragment) {
-    Timber.tag(getClass().getSimpleName());
     this.naviComponent = fragment;
     this.initFragment();
   }
 
   @Override public void bind(NaviAppCompatActivity activity) {
-    Timber.tag(getClass().getSimpleName());
     this.naviComponent = activity;
     this.initActivity();
   }
 
   @Override public void bind(NaviActivity activity) {
-    Timber.tag(getClass().getSimpleName());
     this.naviComponent = activity;
     this.initActivity();
   }
@@ -94,9 +235,28 @@ public abstract class RxPresenter<V extends MvpView> implements Presenter<V> {
   }
 
   @Override public void destroy() {
-    Timber.d("%s destroying and cleanup its references", LOG_TAG);
-    this.subscriptions.clear();
+    this.trace(LifecycleTrace.DESTROY, null);
+    if (this.hub != null) {
+      this.hub.remove(this.hubCallbacks);
+    }
+    this.lifecycleSubscriptions.clear();
+    for (Restartable<?> restartable : this.restartables.values()) {
+      restartable.stop();
+    }
+    for (Subscription delivery : this.restartableDeliveries.values()) {
+      delivery.unsubscribe();
+    }
+    this.restartableDeliveries.clear();
+    this.unbindItems();
     this.view = null;
+    final PresenterMetrics metrics = RxPresenterPlugins.metrics();
+    if (metrics != PresenterMetrics.NONE) {
+      metrics.onDestroy(this, this.liveSubscriptions.get());
+    }
+    final PresenterRegistry registry = RxPresenterPlugins.registry();
+    if (registry != null) {
+      registry.onDestroy(this);
+    }
   }
 
   /**
@@ -119,13 +279,36 @@ public abstract class RxPresenter<V extends MvpView> implements Presenter<V> {
    */
   @SafeVarargs protected final <T> Subscription bindLifecycle(@NonNull Observable<T> observable,
       Subscriber<T>... subscribers) {
-    if (subscribers.length > 1) {
-      throw new IllegalArgumentException("You can pass only one Subscriber<T>");
-    }
-    if (subscribers.length == 0) {
-      return composeLifecycle(observable, Schedulers.io()).subscribe(new DefaultSubscriber<T>());
-    }
-    return composeLifecycle(observable, Schedulers.io()).subscribe(subscribers[0]);
+    return bindLifecycle(observable, RxPresenterPlugins.defaultScheduler(), subscribers);
+  }
+
+  /**
+   * Same as {@link #bindLifecycle(Observable, Subscriber[])} with a {@link DefaultSubscriber},
+   * without allocating the varargs array
+   *
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   */
+  protected final <T> Subscription bindLifecycle(@NonNull Observable<T> observable) {
+    return subscribe(null, composeLifecycle(observable, RxPresenterPlugins.defaultScheduler()),
+        (Subscriber<T>) null);
+  }
+
+  /**
+   * Same as {@link #bindLifecycle(Observable, Subscriber[])} with a tag which identifies the
+   * stream in the reports of the {@link JankDetector}
+   *
+   * @param tag the stream tag
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param subscribers [OPTIONAL] {@link rx.Subscriber} custom subscriber
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   */
+  @SafeVarargs protected final <T> Subscription bindLifecycle(@NonNull String tag,
+      @NonNull Observable<T> observable, Subscriber<T>... subscribers) {
+    return subscribe(tag, composeLifecycle(observable, RxPresenterPlugins.defaultScheduler()),
+        subscribers);
   }
 
   /**
@@ -139,13 +322,67 @@ public abstract class RxPresenter<V extends MvpView> implements Presenter<V> {
    */
   @SafeVarargs protected final <T> Subscription bindLifecycle(@NonNull Observable<T> observable,
       Scheduler scheduler, Subscriber<T>... subscribers) {
-    if (subscribers.length > 1) {
-      throw new IllegalArgumentException("You can pass only one Subscriber<T>");
-    }
-    if (subscribers.length == 0) {
-      return composeLifecycle(observable, scheduler).subscribe(new DefaultSubscriber<T>());
-    }
-    return composeLifecycle(observable, scheduler).subscribe(subscribers[0]);
+    return subscribe(null, composeLifecycle(observable, scheduler), subscribers);
+  }
+
+  /**
+   * Same as {@link #bindLifecycle(Observable, Subscriber[])} for one subscriber, without
+   * allocating the varargs array, for the hot paths which bind many streams
+   *
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param subscriber {@link rx.Subscriber} custom subscriber
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   */
+  protected final <T> Subscription bindSubscriber(@NonNull Observable<T> observable,
+      @NonNull Subscriber<T> subscriber) {
+    return bindSubscriber(observable, RxPresenterPlugins.defaultScheduler(), subscriber);
+  }
+
+  /**
+   * Same as {@link #bindLifecycle(Observable, Scheduler, Subscriber[])} for one subscriber,
+   * without allocating the varargs array
+   *
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param scheduler the scheduler to run the stream
+   * @param subscriber {@link rx.Subscriber} custom subscriber
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   */
+  protected final <T> Subscription bindSubscriber(@NonNull Observable<T> observable,
+      Scheduler scheduler, @NonNull Subscriber<T> subscriber) {
+    return subscribe(null, composeLifecycle(observable, scheduler), subscriber);
+  }
+
+  /**
+   * Binds a value which is already resolved, eg. a value cached by the presenter, until the end
+   * of the lifecycle. It is not moved to a scheduler, so a value bound on the main thread is
+   * delivered synchronously, in the same frame.
+   *
+   * @param value the resolved value
+   * @param subscriber {@link rx.Subscriber} custom subscriber
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   */
+  protected final <T> Subscription bindResolved(T value, @NonNull Subscriber<T> subscriber) {
+    return subscribe(null, composeLifecycle(Observable.just(value), Schedulers.immediate()),
+        subscriber);
+  }
+
+  /**
+   * Executes an observable subscription based on {@link RxLifecycle}
+   * {@link LifecycleProvider} on the given scheduler lane
+   *
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param lane {@link Lane} which runs the stream
+   * @param subscribers [OPTIONAL] {@link rx.Subscriber} custom subscriber
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   * @see RxPresenterPlugins#laneScheduler(Lane)
+   */
+  @SafeVarargs protected final <T> Subscription bindLifecycle(@NonNull Observable<T> observable,
+      @NonNull Lane lane, Subscriber<T>... subscribers) {
+    return bindLifecycle(observable, RxPresenterPlugins.laneScheduler(lane), subscribers);
   }
 
   /**
@@ -162,152 +399,1391 @@ public abstract class RxPresenter<V extends MvpView> implements Presenter<V> {
     if (action == null) {
       return bindLifecycle(observable);
     }
-    return composeLifecycle(observable, Schedulers.io()).subscribe(action);
+    return register(null, action,
+        timed(null, composeLifecycle(observable, RxPresenterPlugins.defaultScheduler()), action)
+            .subscribe(action));
   }
 
   /**
    * Executes an observable subscription based on {@link RxLifecycle}
-   * {@link LifecycleProvider}
+   * {@link LifecycleProvider} holding the items emitted while the component is paused according
+   * to the given {@link PauseDelivery} policy, they are flushed in one batch on resume
    *
    * @param observable {@link rx.Observable} given observable for subscribe
-   * @param event {@link FragmentEvent} a fragment on {@link RxLifecycle}
+   * @param delivery {@link PauseDelivery} policy while paused
    * @param subscribers [OPTIONAL] {@link rx.Subscriber} custom subscriber
    * @param <T> any object for {@link rx.Observable}
    * @return {@link Subscription}
    */
-  @SafeVarargs protected final <T> Subscription bindUntilEvent(@NonNull Observable<T> observable,
-      @NonNull FragmentEvent event, Subscriber<T>... subscribers) {
-    if (subscribers.length > 1) {
-      throw new IllegalArgumentException("You can pass only one Subscriber<T>");
-    }
-    if (subscribers.length == 0) {
-      return composeUntilEvent(observable, event).subscribe(new DefaultSubscriber<T>());
-    }
-    return composeUntilEvent(observable, event).subscribe(subscribers[0]);
+  @SafeVarargs protected final <T> Subscription bindLifecycle(@NonNull Observable<T> observable,
+      @NonNull PauseDelivery delivery, Subscriber<T>... subscribers) {
+    return subscribe(null,
+        composeLifecycle(observable, RxPresenterPlugins.defaultScheduler(), delivery),
+        subscribers);
   }
 
   /**
    * Executes an observable subscription based on {@link RxLifecycle}
-   * {@link LifecycleProvider}
+   * {@link LifecycleProvider} applying the given {@link Backpressure} policy when the stream is
+   * faster than the main thread
    *
    * @param observable {@link rx.Observable} given observable for subscribe
-   * @param event {@link FragmentEvent} a fragment on {@link RxLifecycle}
-   * @param action [OPTIONAL] {@link rx.functions.Action1} custom action
+   * @param backpressure {@link Backpressure} policy and main thread buffer size
+   * @param subscribers [OPTIONAL] {@link rx.Subscriber} custom subscriber
    * @param <T> any object for {@link rx.Observable}
    * @return {@link Subscription}
    */
-  protected final <T> Subscription bindUntilEvent(@NonNull Observable<T> observable,
-      @NonNull FragmentEvent event, Action1<T> action) {
-    if (action == null) {
-      return bindUntilEvent(observable, event);
-    }
-    return composeUntilEvent(observable, event).subscribe(action);
+  @SafeVarargs protected final <T> Subscription bindLifecycle(@NonNull Observable<T> observable,
+      @NonNull Backpressure backpressure, Subscriber<T>... subscribers) {
+    return bindLifecycle(observable, RxPresenterPlugins.defaultScheduler(), backpressure,
+        subscribers);
   }
 
   /**
-   * Helper methods, Composes a new {@link rx.Observable} based on a specific event
+   * Executes an observable subscription based on {@link RxLifecycle}
+   * {@link LifecycleProvider} applying the given {@link Backpressure} policy when the stream is
+   * faster than the main thread
    *
    * @param observable {@link rx.Observable} given observable for subscribe
-   * @param event {@link FragmentEvent} the event which must stop emitting items
+   * @param scheduler the scheduler to run the stream
+   * @param backpressure {@link Backpressure} policy and main thread buffer size
+   * @param subscribers [OPTIONAL] {@link rx.Subscriber} custom subscriber
    * @param <T> any object for {@link rx.Observable}
-   * @return {@link rx.Observable}
+   * @return {@link Subscription}
    */
-  @SuppressWarnings("unchecked")
-  private <T> Observable<T> composeUntilEvent(@NonNull Observable<T> observable,
-      @NonNull FragmentEvent event) {
-    return observable.doOnUnsubscribe(loggingUnsub)
-        .compose(lifecycleProvider.<T>bindUntilEvent(event));
+  @SafeVarargs protected final <T> Subscription bindLifecycle(@NonNull Observable<T> observable,
+      Scheduler scheduler, @NonNull Backpressure backpressure, Subscriber<T>... subscribers) {
+    return subscribe(null, composeLifecycle(observable, scheduler, backpressure), subscribers);
   }
 
   /**
-   * Helper methods, Composes a new {@link rx.Observable} based on a specific event
+   * Executes a single subscription which is released at the end of the component lifecycle, on
+   * {@link FragmentEvent#DESTROY_VIEW} for fragments and on {@link ActivityEvent#DESTROY} for
+   * activities. The single is not converted to an {@link rx.Observable}, it hops once to the
+   * scheduler and once to the main thread. A released single delivers nothing.
    *
-   * @param observable {@link rx.Observable} given observable for subscribe
-   * @param <T> any object for {@link rx.Observable}
-   * @return {@link rx.Observable}
+   * @param single {@link rx.Single} given single for subscribe
+   * @param subscriber {@link rx.SingleSubscriber} which receives the result
+   * @param <T> any object for {@link rx.Single}
+   * @return {@link Subscription}
    */
-  @SuppressWarnings("unchecked")
-  private <T> Observable<T> composeLifecycle(@NonNull Observable<T> observable, Scheduler scheduler) {
-    if (naviComponent instanceof Fragment) {
-      return observable.doOnUnsubscribe(loggingUnsub)
-          .compose(applySchedulers(scheduler))
-          .compose(lifecycleProvider.<T>bindUntilEvent(FragmentEvent.DESTROY_VIEW));
-    } else {
-      return observable.doOnUnsubscribe(loggingUnsub)
-          .compose(applySchedulers(scheduler))
-          .compose(lifecycleProvider.<T>bindUntilEvent(ActivityEvent.DESTROY));
-    }
+  protected final <T> Subscription bindLifecycle(@NonNull Single<T> single,
+      @NonNull SingleSubscriber<T> subscriber) {
+    return bindLifecycle(single, RxPresenterPlugins.defaultScheduler(), subscriber);
   }
 
   /**
-   * We are using RxJava transformers to compose the observables in order
-   * to not break the chain and help in the UI to do process and avoid
-   * lagging
+   * Same as {@link #bindLifecycle(Single, SingleSubscriber)} on the given scheduler
+   *
+   * @param single {@link rx.Single} given single for subscribe
+   * @param scheduler the scheduler to run the single
+   * @param subscriber {@link rx.SingleSubscriber} which receives the result
+   * @param <T> any object for {@link rx.Single}
+   * @return {@link Subscription}
    */
-  private <T> Observable.Transformer<T, T> applySchedulers(final Scheduler scheduler) {
-    return new Observable.Transformer<T, T>() {
-      @Override public Observable<T> call(Observable<T> observable) {
-        return observable.subscribeOn(scheduler)
-            .observeOn(AndroidSchedulers.mainThread());
-      }
-    };
+  protected final <T> Subscription bindLifecycle(@NonNull Single<T> single, Scheduler scheduler,
+      @NonNull SingleSubscriber<T> subscriber) {
+    final LifecycleSingleSubscriber<T> bound =
+        new LifecycleSingleSubscriber<>(subscriber, this.lifecycleSubscriptions);
+    this.lifecycleSubscriptions.add(bound);
+    register(null, subscriber, bound);
+    single.subscribeOn(scheduler).observeOn(mainThreadScheduler()).subscribe(bound);
+    return bound;
   }
 
   /**
-   * Used to follow the lifecycle and bind the view
+   * Executes a completable subscription which is released at the end of the component lifecycle,
+   * on {@link FragmentEvent#DESTROY_VIEW} for fragments and on {@link ActivityEvent#DESTROY} for
+   * activities. The completable is not converted to an {@link rx.Observable}, it hops once to the
+   * scheduler and once to the main thread. A released completable delivers nothing.
+   *
+   * @param completable {@link rx.Completable} given completable for subscribe
+   * @param subscriber {@link rx.CompletableSubscriber} which receives the completion
+   * @return {@link Subscription}
    */
-  @SuppressWarnings("unchecked") private void initFragment() {
-    this.mvpView = (MvpView) naviComponent;
-    this.lifecycleProvider = NaviLifecycle.createFragmentLifecycleProvider(naviComponent);
-    this.initCommon(Event.VIEW_CREATED);
+  protected final Subscription bindLifecycle(@NonNull Completable completable,
+      @NonNull CompletableSubscriber subscriber) {
+    return bindLifecycle(completable, RxPresenterPlugins.defaultScheduler(), subscriber);
   }
 
   /**
-   * Used to follow the lifecycle and bind the view
+   * Same as {@link #bindLifecycle(Completable, CompletableSubscriber)} on the given scheduler
+   *
+   * @param completable {@link rx.Completable} given completable for subscribe
+   * @param scheduler the scheduler to run the completable
+   * @param subscriber {@link rx.CompletableSubscriber} which receives the completion
+   * @return {@link Subscription}
    */
-  @SuppressWarnings("unchecked") private void initActivity() {
-    this.mvpView = (MvpView) naviComponent;
-    this.lifecycleProvider = NaviLifecycle.createActivityLifecycleProvider(naviComponent);
-    this.initCommon(Event.START);
+  protected final Subscription bindLifecycle(@NonNull Completable completable,
+      Scheduler scheduler, @NonNull CompletableSubscriber subscriber) {
+    final LifecycleCompletableSubscriber bound =
+        new LifecycleCompletableSubscriber(subscriber, this.lifecycleSubscriptions);
+    this.lifecycleSubscriptions.add(bound);
+    register(null, subscriber, bound);
+    completable.subscribeOn(scheduler).observeOn(mainThreadScheduler()).subscribe(bound);
+    return bound;
+  }
+
+  /**
+   * Executes an observable subscription based on {@link RxLifecycle}
+   * {@link LifecycleProvider}
+   *
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param event {@link FragmentEvent} a fragment on {@link RxLifecycle}
+   * @param subscribers [OPTIONAL] {@link rx.Subscriber} custom subscriber
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   */
+  @SafeVarargs protected final <T> Subscription bindUntilEvent(@NonNull Observable<T> observable,
+      @NonNull FragmentEvent event, Subscriber<T>... subscribers) {
+    return subscribe(null, composeUntilEvent(observable, event), subscribers);
+  }
+
+  /**
+   * Same as {@link #bindUntilEvent(Observable, FragmentEvent, Subscriber[])} for one subscriber,
+   * without allocating the varargs array
+   *
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param event {@link FragmentEvent} a fragment on {@link RxLifecycle}
+   * @param subscriber {@link rx.Subscriber} custom subscriber
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   */
+  protected final <T> Subscription bindSubscriberUntilEvent(@NonNull Observable<T> observable,
+      @NonNull FragmentEvent event, @NonNull Subscriber<T> subscriber) {
+    return subscribe(null, composeUntilEvent(observable, event), subscriber);
   }
 
   /**
-   * Standard common lifecycle
+   * Same as {@link #bindUntilEvent(Observable, FragmentEvent, Subscriber[])} with a
+   * {@link DefaultSubscriber}, without allocating the varargs array
+   *
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param event {@link FragmentEvent} a fragment on {@link RxLifecycle}
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
    */
-  @SuppressWarnings("unchecked")
-  private <T> void initCommon(Event<T> event) {
-    this.subscriptions.add(
-        RxNavi.observe(naviComponent, event).subscribe(new Action1<T>() {
-          @Override public void call(T t) {
-            RxPresenter.this.bindView((V) mvpView);
-          }
-        }));
-    this.subscriptions.add(
-        RxNavi.observe(naviComponent, Event.RESUME).subscribe(new Action1<Void>() {
-          @Override public void call(Void aVoid) {
-            RxPresenter.this.resume();
-          }
-        }));
-    this.subscriptions.add(
-        RxNavi.observe(naviComponent, Event.PAUSE).subscribe(new Action1<Void>() {
-          @Override public void call(Void aVoid) {
-            RxPresenter.this.pause();
-          }
-        }));
-    this.subscriptions.add(
-        RxNavi.observe(naviComponent, Event.DESTROY).subscribe(new Action1<Object>() {
-          @Override public void call(final Object object) {
-            RxPresenter.this.destroy();
-          }
-        }));
+  protected final <T> Subscription bindUntilEvent(@NonNull Observable<T> observable,
+      @NonNull FragmentEvent event) {
+    return subscribe(null, composeUntilEvent(observable, event), (Subscriber<T>) null);
+  }
+
+  /**
+   * Same as {@link #bindUntilEvent(Observable, FragmentEvent, Subscriber[])} with a tag which
+   * identifies the stream in the reports of the {@link JankDetector}
+   *
+   * @param tag the stream tag
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param event {@link FragmentEvent} a fragment on {@link RxLifecycle}
+   * @param subscribers [OPTIONAL] {@link rx.Subscriber} custom subscriber
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   */
+  @SafeVarargs protected final <T> Subscription bindUntilEvent(@NonNull String tag,
+      @NonNull Observable<T> observable, @NonNull FragmentEvent event,
+      Subscriber<T>... subscribers) {
+    return subscribe(tag, composeUntilEvent(observable, event), subscribers);
   }
 
   /**
-   * Logs the un-subscription of a sequence
+   * Executes an observable subscription based on {@link RxLifecycle}
+   * {@link LifecycleProvider}
+   *
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param event {@link FragmentEvent} a fragment on {@link RxLifecycle}
+   * @param action [OPTIONAL] {@link rx.functions.Action1} custom action
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
    */
-  private final Action0 loggingUnsub = new Action0() {
-    @Override public void call() {
-      Timber.d("Sequence un-subscribed");
+  protected final <T> Subscription bindUntilEvent(@NonNull Observable<T> observable,
+      @NonNull FragmentEvent event, Action1<T> action) {
+    if (action == null) {
+      return bindUntilEvent(observable, event);
     }
-  };
+    return register(null, action,
+        timed(null, composeUntilEvent(observable, event), action).subscribe(action));
+  }
+
+  /**
+   * Executes an observable subscription based on {@link RxLifecycle}
+   * {@link LifecycleProvider} holding the items emitted while the component is paused according
+   * to the given {@link PauseDelivery} policy, they are flushed in one batch on resume
+   *
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param event {@link FragmentEvent} a fragment on {@link RxLifecycle}
+   * @param delivery {@link PauseDelivery} policy while paused
+   * @param subscribers [OPTIONAL] {@link rx.Subscriber} custom subscriber
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   */
+  @SafeVarargs protected final <T> Subscription bindUntilEvent(@NonNull Observable<T> observable,
+      @NonNull FragmentEvent event, @NonNull PauseDelivery delivery, Subscriber<T>... subscribers) {
+    return subscribe(null,
+        composeUntilEvent(observable.lift(this.<T>pauseDelivery(delivery)), event), subscribers);
+  }
+
+  /**
+   * Executes an observable subscription based on {@link RxLifecycle}
+   * {@link LifecycleProvider} delivering at most one item per display frame, always the latest one.
+   * Useful for fast streams (sensors, tickers, progress) where rendering every item drops frames.
+   *
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param subscribers [OPTIONAL] {@link rx.Subscriber} custom subscriber
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   */
+  @SafeVarargs protected final <T> Subscription bindLatestPerFrame(
+      @NonNull Observable<T> observable, Subscriber<T>... subscribers) {
+    return bindLatestPerFrame(observable, RxPresenterPlugins.defaultScheduler(), subscribers);
+  }
+
+  /**
+   * Executes an observable subscription based on {@link RxLifecycle}
+   * {@link LifecycleProvider} delivering at most one item per display frame, always the latest one.
+   *
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param scheduler the scheduler to run the stream
+   * @param subscribers [OPTIONAL] {@link rx.Subscriber} custom subscriber
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   */
+  @SafeVarargs protected final <T> Subscription bindLatestPerFrame(
+      @NonNull Observable<T> observable, Scheduler scheduler, Subscriber<T>... subscribers) {
+    return subscribe(null, composeLatestPerFrame(observable, scheduler), subscribers);
+  }
+
+  /**
+   * Executes a subscription of lists based on {@link RxLifecycle} {@link LifecycleProvider}. The
+   * diff of every list against the previously delivered one is computed on the default scheduler
+   * and the list is delivered together with its diff in one main thread hop, a list which arrives
+   * while a diff is running cancels it.
+   *
+   * @param observable {@link rx.Observable} of the lists
+   * @param callback {@link ListState.ItemCallback} which compares the items
+   * @param subscribers [OPTIONAL] {@link rx.Subscriber} custom subscriber
+   * @param <T> the items of the lists
+   * @return {@link Subscription}
+   */
+  @SafeVarargs protected final <T> Subscription bindListState(
+      @NonNull Observable<List<T>> observable, @NonNull ListState.ItemCallback<T> callback,
+      Subscriber<ListState<T>>... subscribers) {
+    return bindListState(observable, callback, RxPresenterPlugins.defaultScheduler(), subscribers);
+  }
+
+  /**
+   * Same as {@link #bindListState(Observable, ListState.ItemCallback, Subscriber[])} computing the
+   * diffs on the given scheduler
+   *
+   * @param observable {@link rx.Observable} of the lists
+   * @param callback {@link ListState.ItemCallback} which compares the items
+   * @param scheduler the scheduler to run the stream and compute the diffs
+   * @param subscribers [OPTIONAL] {@link rx.Subscriber} custom subscriber
+   * @param <T> the items of the lists
+   * @return {@link Subscription}
+   */
+  @SafeVarargs protected final <T> Subscription bindListState(
+      @NonNull Observable<List<T>> observable, @NonNull ListState.ItemCallback<T> callback,
+      Scheduler scheduler, Subscriber<ListState<T>>... subscribers) {
+    return subscribe(null,
+        composeLifecycle(observable.compose(ListState.diffing(callback, scheduler)), scheduler),
+        subscribers);
+  }
+
+  /**
+   * Executes an observable subscription based on {@link RxLifecycle}
+   * {@link LifecycleProvider} sharing the upstream with every other presenter which binds the same
+   * key while the stream is in flight
+   *
+   * @param key the request key, streams with the same key must emit the same type of items
+   * @param observable {@link rx.Observable} which runs when there is no in-flight stream
+   * @param subscribers [OPTIONAL] {@link rx.Subscriber} custom subscriber
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   * @see SharedStreamRegistry
+   */
+  @SafeVarargs protected final <T> Subscription bindShared(@NonNull Object key,
+      @NonNull Observable<T> observable, Subscriber<T>... subscribers) {
+    final Observable<T> shared = SharedStreamRegistry.get()
+        .share(key, observable, RxPresenterPlugins.defaultScheduler());
+    return bindLifecycle(shared, Schedulers.immediate(), subscribers);
+  }
+
+  /**
+   * Starts ahead, on the {@link Lane#PREFETCH} lane, a stream which the presenter of the next
+   * screen binds with {@link #bindPrefetched(Object, Observable, Subscriber[])}, eg. when the user
+   * clicks or an item becomes visible. The stream is not bound to the lifecycle of this presenter,
+   * it is unsubscribed if it is not taken within {@value #DEFAULT_PREFETCH_TTL_MILLIS} ms.
+   *
+   * @param key the request key, streams with the same key must emit the same type of items
+   * @param observable {@link rx.Observable} which loads the data of the next screen
+   * @param <T> any object for {@link rx.Observable}
+   * @return true if the stream was started, false if the key is already prefetched
+   * @see PrefetchRegistry
+   */
+  protected final <T> boolean prefetch(@NonNull Object key, @NonNull Observable<T> observable) {
+    return prefetch(key, observable, DEFAULT_PREFETCH_TTL_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Same as {@link #prefetch(Object, Observable)} with the given time to be taken
+   *
+   * @param key the request key, streams with the same key must emit the same type of items
+   * @param observable {@link rx.Observable} which loads the data of the next screen
+   * @param ttl the time after which a stream which is not taken is unsubscribed
+   * @param unit {@link TimeUnit} of the ttl
+   * @param <T> any object for {@link rx.Observable}
+   * @return true if the stream was started, false if the key is already prefetched
+   */
+  protected final <T> boolean prefetch(@NonNull Object key, @NonNull Observable<T> observable,
+      long ttl, @NonNull TimeUnit unit) {
+    return PrefetchRegistry.get()
+        .prefetch(key, observable, RxPresenterPlugins.laneScheduler(Lane.PREFETCH), ttl, unit);
+  }
+
+  /**
+   * Executes an observable subscription based on {@link RxLifecycle} {@link LifecycleProvider}
+   * taking over the stream prefetched with the same key, in flight or completed, or subscribing
+   * the observable when there is none
+   *
+   * @param key the request key, streams with the same key must emit the same type of items
+   * @param observable {@link rx.Observable} which runs when nothing was prefetched
+   * @param subscribers [OPTIONAL] {@link rx.Subscriber} custom subscriber
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   * @see #prefetch(Object, Observable)
+   */
+  @SafeVarargs protected final <T> Subscription bindPrefetched(@NonNull Object key,
+      @NonNull Observable<T> observable, Subscriber<T>... subscribers) {
+    final Observable<T> prefetched = PrefetchRegistry.get().take(key);
+    if (prefetched == null) {
+      return bindLifecycle(observable, subscribers);
+    }
+    //the prefetched stream already runs on its lane, completed results are replayed right away
+    return bindLifecycle(prefetched, Schedulers.immediate(), subscribers);
+  }
+
+  /**
+   * Executes an observable subscription based on {@link RxLifecycle} {@link LifecycleProvider}
+   * which supersedes the stream previously bound to the same slot: the previous upstream is
+   * unsubscribed right away and none of its items, even the ones already queued on the main
+   * thread, is delivered after this call. Pass a new subscriber to every call.
+   *
+   * @param slot the name of the slot, eg. "search"
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param subscribers [OPTIONAL] {@link rx.Subscriber} custom subscriber
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   */
+  @SafeVarargs protected final <T> Subscription bindLatest(@NonNull String slot,
+      @NonNull Observable<T> observable, Subscriber<T>... subscribers) {
+    return bindLatest(slot, observable, RxPresenterPlugins.defaultScheduler(), subscribers);
+  }
+
+  /**
+   * Same as {@link #bindLatest(String, Observable, Subscriber[])} running the stream on the given
+   * scheduler
+   *
+   * @param slot the name of the slot, eg. "search"
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param scheduler the scheduler to run the stream
+   * @param subscribers [OPTIONAL] {@link rx.Subscriber} custom subscriber
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   */
+  @SafeVarargs protected final <T> Subscription bindLatest(@NonNull String slot,
+      @NonNull Observable<T> observable, Scheduler scheduler, Subscriber<T>... subscribers) {
+    LatestSlot latest = this.latestSlots.get(slot);
+    if (latest == null) {
+      latest = new LatestSlot();
+      this.latestSlots.put(slot, latest);
+    }
+    final int generation = latest.supersede();
+    latest.current = subscribe(slot,
+        composeLifecycle(observable, scheduler).filter(latest.isCurrent(generation)),
+        subscribers);
+    return latest.current;
+  }
+
+  /**
+   * Executes an observable subscription based on {@link RxLifecycle} {@link LifecycleProvider}
+   * which maps every trigger, eg. a query typed by the user, to a stream superseding the stream
+   * of the previous trigger. The previous upstream is unsubscribed right away and none of its
+   * items is delivered once a new trigger arrives.
+   *
+   * @param triggers {@link rx.Observable} of the triggers, subscribed on the current thread
+   * @param mapper maps a trigger to the {@link rx.Observable} which loads its result
+   * @param subscribers [OPTIONAL] {@link rx.Subscriber} custom subscriber
+   * @param <Q> the trigger
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   */
+  @SafeVarargs protected final <Q, T> Subscription bindLatest(@NonNull Observable<Q> triggers,
+      @NonNull Func1<? super Q, ? extends Observable<T>> mapper, Subscriber<T>... subscribers) {
+    return bindLatest(triggers, LatestPolicy.none(), mapper, RxPresenterPlugins.defaultScheduler(),
+        subscribers);
+  }
+
+  /**
+   * Same as {@link #bindLatest(Observable, Func1, Subscriber[])} debouncing and skipping the
+   * repeated triggers as the given {@link LatestPolicy} says, before they start a stream
+   *
+   * @param triggers {@link rx.Observable} of the triggers, subscribed on the current thread
+   * @param policy {@link LatestPolicy} of the triggers
+   * @param mapper maps a trigger to the {@link rx.Observable} which loads its result
+   * @param subscribers [OPTIONAL] {@link rx.Subscriber} custom subscriber
+   * @param <Q> the trigger
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   */
+  @SafeVarargs protected final <Q, T> Subscription bindLatest(@NonNull Observable<Q> triggers,
+      @NonNull LatestPolicy policy, @NonNull Func1<? super Q, ? extends Observable<T>> mapper,
+      Subscriber<T>... subscribers) {
+    return bindLatest(triggers, policy, mapper, RxPresenterPlugins.defaultScheduler(),
+        subscribers);
+  }
+
+  /**
+   * Same as {@link #bindLatest(Observable, LatestPolicy, Func1, Subscriber[])} running the
+   * streams on the given scheduler
+   *
+   * @param triggers {@link rx.Observable} of the triggers, subscribed on the current thread
+   * @param policy {@link LatestPolicy} of the triggers
+   * @param mapper maps a trigger to the {@link rx.Observable} which loads its result
+   * @param scheduler the scheduler to run the streams
+   * @param subscribers [OPTIONAL] {@link rx.Subscriber} custom subscriber
+   * @param <Q> the trigger
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   */
+  @SafeVarargs protected final <Q, T> Subscription bindLatest(@NonNull Observable<Q> triggers,
+      @NonNull LatestPolicy policy, @NonNull final Func1<? super Q, ? extends Observable<T>> mapper,
+      Scheduler scheduler, Subscriber<T>... subscribers) {
+    final LatestSlot latest = new LatestSlot();
+    //the transformer cache is not thread safe, the triggers may arrive on the debounce scheduler
+    final Observable.Transformer<T, T> hop = this.applySchedulers(scheduler);
+    final Observable<T> switched = policy.apply(triggers).switchMap(new Func1<Q, Observable<T>>() {
+      @Override public Observable<T> call(Q trigger) {
+        final int generation = latest.supersede();
+        return mapper.call(trigger).compose(hop).filter(latest.isCurrent(generation));
+      }
+    });
+    return subscribe(null, track(switched.compose(this.<T>untilLifecycleEnd())), subscribers);
+  }
+
+  /**
+   * Executes an observable subscription based on {@link RxLifecycle} {@link LifecycleProvider}
+   * through the {@link ResultCache}. A fresh cached result is delivered right away, without
+   * subscribing the observable, and a stale one is delivered right away before the fresh result
+   * when the policy allows it. Presenters which load the same key at the same time share one
+   * subscription of the observable.
+   *
+   * @param key the key of the result, streams with the same key must emit the same type of items
+   * @param observable {@link rx.Observable} which loads the result
+   * @param policy {@link CachePolicy}
+   * @param subscribers [OPTIONAL] {@link rx.Subscriber} custom subscriber
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   * @see RxPresenterPlugins#setResultCache(ResultCache)
+   */
+  @SafeVarargs protected final <T> Subscription bindCached(@NonNull String key,
+      @NonNull Observable<T> observable, @NonNull CachePolicy<T> policy,
+      Subscriber<T>... subscribers) {
+    return bindCached(key, observable, policy, RxPresenterPlugins.defaultScheduler(), subscribers);
+  }
+
+  /**
+   * Same as {@link #bindCached(String, Observable, CachePolicy, Subscriber[])} running the
+   * observable and the disk tier on the given scheduler
+   *
+   * @param key the key of the result, streams with the same key must emit the same type of items
+   * @param observable {@link rx.Observable} which loads the result
+   * @param policy {@link CachePolicy}
+   * @param scheduler the scheduler to run the stream
+   * @param subscribers [OPTIONAL] {@link rx.Subscriber} custom subscriber
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   */
+  @SafeVarargs protected final <T> Subscription bindCached(@NonNull String key,
+      @NonNull Observable<T> observable, @NonNull CachePolicy<T> policy, Scheduler scheduler,
+      Subscriber<T>... subscribers) {
+    final Observable<T> cached =
+        RxPresenterPlugins.resultCache().get(key, observable, policy, scheduler);
+    //the memory tier is read on the subscribing thread so a cached result skips the scheduler
+    return subscribe(null, composeLifecycle(cached, Schedulers.immediate()), subscribers);
+  }
+
+  /**
+   * Registers a restartable stream which keeps running while the view is detached. Up to
+   * {@value #DEFAULT_REPLAY_SIZE} results are cached and replayed every time a view is bound.
+   * The stream runs after {@link #startRestartable(String)} and, if it was started, it is started
+   * again automatically after process death.
+   *
+   * @param id unique id of the restartable
+   * @param factory creates the {@link rx.Observable} on every start
+   * @param onNext {@link rx.functions.Action1} which receives the items on the main thread
+   * @param onError [OPTIONAL] {@link rx.functions.Action1} which receives the error
+   * @param <T> any object for {@link rx.Observable}
+   */
+  protected final <T> void bindRestartable(@NonNull String id,
+      @NonNull Func0<Observable<T>> factory, @NonNull Action1<T> onNext,
+      @Nullable Action1<Throwable> onError) {
+    this.registerRestartable(id,
+        new Restartable<>(factory, DEFAULT_REPLAY_SIZE, false, onNext, onError));
+  }
+
+  /**
+   * Same as {@link #bindRestartable(String, Func0, Action1, Action1)} but only the latest result
+   * is cached and delivered to a newly bound view
+   *
+   * @param id unique id of the restartable
+   * @param factory creates the {@link rx.Observable} on every start
+   * @param onNext {@link rx.functions.Action1} which receives the items on the main thread
+   * @param onError [OPTIONAL] {@link rx.functions.Action1} which receives the error
+   * @param <T> any object for {@link rx.Observable}
+   */
+  protected final <T> void bindDeliverLatest(@NonNull String id,
+      @NonNull Func0<Observable<T>> factory, @NonNull Action1<T> onNext,
+      @Nullable Action1<Throwable> onError) {
+    this.registerRestartable(id, new Restartable<>(factory, 1, false, onNext, onError));
+  }
+
+  /**
+   * Same as {@link #bindRestartable(String, Func0, Action1, Action1)} but only the first result
+   * of the stream is taken, cached and delivered
+   *
+   * @param id unique id of the restartable
+   * @param factory creates the {@link rx.Observable} on every start
+   * @param onNext {@link rx.functions.Action1} which receives the item on the main thread
+   * @param onError [OPTIONAL] {@link rx.functions.Action1} which receives the error
+   * @param <T> any object for {@link rx.Observable}
+   */
+  protected final <T> void bindDeliverFirst(@NonNull String id,
+      @NonNull Func0<Observable<T>> factory, @NonNull Action1<T> onNext,
+      @Nullable Action1<Throwable> onError) {
+    this.registerRestartable(id, new Restartable<>(factory, 1, true, onNext, onError));
+  }
+
+  /**
+   * Registers a restartable, a restartable already registered with the same id is stopped first
+   * so its stream does not keep running out of reach
+   *
+   * @param id unique id of the restartable
+   * @param restartable {@link Restartable}
+   */
+  private void registerRestartable(String id, Restartable<?> restartable) {
+    this.stopRestartable(id);
+    this.restartables.put(id, restartable);
+  }
+
+  /**
+   * Creates a pool of {@link ItemRxPresenter} for the rows of a list of this screen, the rows are
+   * unbound at the end of the lifecycle of this presenter
+   *
+   * @param factory {@link ItemPresenterPool.Factory} of the item presenters
+   * @param <IV> the view of the rows
+   * @param <P> the item presenter
+   * @return {@link ItemPresenterPool}
+   */
+  protected final <IV extends MvpView, P extends ItemRxPresenter<IV>> ItemPresenterPool<IV, P>
+  itemPresenterPool(@NonNull ItemPresenterPool.Factory<P> factory) {
+    return itemPresenterPool(factory, ItemPresenterPool.DEFAULT_MAX_IDLE);
+  }
+
+  /**
+   * Same as {@link #itemPresenterPool(ItemPresenterPool.Factory)} keeping up to maxIdle
+   * presenters, usually the number of rows which fit the screen plus the cached rows
+   *
+   * @param factory {@link ItemPresenterPool.Factory} of the item presenters
+   * @param maxIdle maximum number of presenters kept in the pool
+   * @param <IV> the view of the rows
+   * @param <P> the item presenter
+   * @return {@link ItemPresenterPool}
+   */
+  protected final <IV extends MvpView, P extends ItemRxPresenter<IV>> ItemPresenterPool<IV, P>
+  itemPresenterPool(@NonNull ItemPresenterPool.Factory<P> factory, int maxIdle) {
+    return new ItemPresenterPool<>(this, factory, maxIdle);
+  }
+
+  /**
+   * Keeps a pool which binds rows until the end of the lifecycle, when its rows are unbound
+   *
+   * @param pool {@link ItemPresenterPool}
+   */
+  void trackItemPool(ItemPresenterPool<?, ?> pool) {
+    this.itemPools.add(pool);
+  }
+
+  /**
+   * @return the number of pools which are unbound at the end of the lifecycle
+   */
+  @VisibleForTesting int itemPoolCount() {
+    return this.itemPools.size();
+  }
+
+  /**
+   * Composes the stream of an {@link ItemRxPresenter} on the schedulers of this presenter
+   *
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link rx.Observable}
+   */
+  <T> Observable<T> composeItem(@NonNull Observable<T> observable) {
+    return track(
+        observable.compose(this.<T>applySchedulers(RxPresenterPlugins.defaultScheduler())));
+  }
+
+  /**
+   * Executes an observable subscription which runs on the given scheduler until the end of the
+   * lifecycle, the items are not delivered on the main thread
+   *
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param scheduler the scheduler to run the stream
+   * @param subscriber {@link rx.Subscriber} which receives the items on the scheduler
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   */
+  <T> Subscription bindUntilLifecycleEnd(@NonNull Observable<T> observable, Scheduler scheduler,
+      @NonNull Subscriber<T> subscriber) {
+    return subscribe(null,
+        track(observable.subscribeOn(scheduler).compose(this.<T>untilLifecycleEnd())), subscriber);
+  }
+
+  private void unbindItems() {
+    for (int i = 0; i < this.itemPools.size(); i++) {
+      this.itemPools.get(i).unbindAll();
+    }
+    //the pools of a destroyed view are released, a pool which outlives it is tracked again when
+    //it binds a row
+    this.itemPools.clear();
+  }
+
+  /**
+   * Registers a state snapshot which is saved in the installed {@link PresenterSnapshots} instead
+   * of the Bundle, only its key goes in the Bundle. The state is taken on the main thread and
+   * written on the IO lane, after process death it is read on the IO lane and restored on the main
+   * thread. Nothing is saved without a {@link PresenterSnapshots}. A snapshot must be registered
+   * before the state is restored eg. in the constructor.
+   *
+   * @param id unique id of the snapshot
+   * @param codec {@link PresenterSnapshots.Codec} which encodes the state
+   * @param save {@link rx.functions.Func0} which returns the immutable state to save
+   * @param restore {@link rx.functions.Action1} which receives the restored state
+   * @param <T> the state
+   */
+  protected final <T> void bindSnapshot(@NonNull String id,
+      @NonNull PresenterSnapshots.Codec<T> codec, @NonNull Func0<T> save,
+      @NonNull Action1<T> restore) {
+    this.snapshots.put(id, new Snapshot<>(codec, save, restore));
+  }
+
+  /**
+   * Starts, or restarts, a registered restartable
+   *
+   * @param id the id of the restartable
+   */
+  protected final void startRestartable(@NonNull String id) {
+    this.startRestartable(id, RxPresenterPlugins.defaultScheduler());
+  }
+
+  /**
+   * Starts, or restarts, a registered restartable
+   *
+   * @param id the id of the restartable
+   * @param scheduler the scheduler to run the stream
+   */
+  protected final void startRestartable(@NonNull String id, Scheduler scheduler) {
+    final Restartable<?> restartable = this.restartables.get(id);
+    if (restartable == null) {
+      throw new IllegalArgumentException("No restartable registered with id " + id);
+    }
+    restartable.start(scheduler);
+    if (this.view != null) {
+      this.deliverRestartable(id, restartable);
+    }
+  }
+
+  /**
+   * Stops a restartable and drops its cached results
+   *
+   * @param id the id of the restartable
+   */
+  protected final void stopRestartable(@NonNull String id) {
+    final Restartable<?> restartable = this.restartables.get(id);
+    if (restartable != null) {
+      restartable.stop();
+    }
+    final Subscription delivery = this.restartableDeliveries.remove(id);
+    if (delivery != null) {
+      delivery.unsubscribe();
+    }
+  }
+
+  /**
+   * @param id the id of the restartable
+   * @return true if the restartable is started
+   */
+  protected final boolean isRestartableStarted(@NonNull String id) {
+    final Restartable<?> restartable = this.restartables.get(id);
+    return restartable != null && restartable.isStarted();
+  }
+
+  /**
+   * Helper methods, Composes a new {@link rx.Observable} based on a specific event
+   *
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param event {@link FragmentEvent} the event which must stop emitting items
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link rx.Observable}
+   */
+  @SuppressWarnings("unchecked")
+  private <T> Observable<T> composeUntilEvent(@NonNull Observable<T> observable,
+      @NonNull FragmentEvent event) {
+    final Observable.Transformer untilEvent = this.hub.untilEvent(event);
+    final StreamMetrics metrics = this.streamMetrics();
+    return track(observable.compose((Observable.Transformer<T, T>) (metrics != null
+        ? metrics.inPlace(untilEvent) : untilEvent)));
+  }
+
+  /**
+   * Helper methods, Composes a new {@link rx.Observable} based on a specific event
+   *
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link rx.Observable}
+   */
+  @SuppressWarnings("unchecked")
+  private <T> Observable<T> composeLifecycle(@NonNull Observable<T> observable, Scheduler scheduler) {
+    return track(observable
+        .compose(this.<T>applySchedulers(scheduler))
+        .compose(this.<T>untilLifecycleEnd()));
+  }
+
+  /**
+   * Helper methods, Composes a new {@link rx.Observable} based on the lifecycle which holds the
+   * items emitted while paused
+   *
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param scheduler the scheduler to run the stream
+   * @param delivery {@link PauseDelivery} policy while paused
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link rx.Observable}
+   */
+  private <T> Observable<T> composeLifecycle(@NonNull Observable<T> observable,
+      Scheduler scheduler, PauseDelivery delivery) {
+    return track(observable
+        .compose(this.<T>applySchedulers(scheduler))
+        .lift(this.<T>pauseDelivery(delivery))
+        .compose(this.<T>untilLifecycleEnd()));
+  }
+
+  /**
+   * Helper methods, Composes a new {@link rx.Observable} based on the lifecycle which applies a
+   * backpressure policy before the main thread
+   *
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param scheduler the scheduler to run the stream
+   * @param backpressure {@link Backpressure} policy of the main thread hop
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link rx.Observable}
+   */
+  private <T> Observable<T> composeLifecycle(@NonNull Observable<T> observable,
+      Scheduler scheduler, Backpressure backpressure) {
+    return track(observable
+        .compose(this.<T>applySchedulers(scheduler, backpressure))
+        .compose(this.<T>untilLifecycleEnd()));
+  }
+
+  private <T> Observable.Operator<T, T> pauseDelivery(PauseDelivery delivery) {
+    return new OperatorPauseDelivery<T>(this.pausedState, delivery);
+  }
+
+  /**
+   * Subscribes the given subscriber, or a {@link DefaultSubscriber} if none is given
+   *
+   * @param tag [OPTIONAL] the stream tag
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param subscribers [OPTIONAL] {@link rx.Subscriber} custom subscriber
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   */
+  private <T> Subscription subscribe(@Nullable String tag, Observable<T> observable,
+      Subscriber<T>[] subscribers) {
+    if (subscribers.length > 1) {
+      throw new IllegalArgumentException("You can pass only one Subscriber<T>");
+    }
+    return subscribe(tag, observable, subscribers.length == 0 ? null : subscribers[0]);
+  }
+
+  /**
+   * Subscribes the given subscriber, or a {@link DefaultSubscriber} if it is null
+   *
+   * @param tag [OPTIONAL] the stream tag
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param subscriber [OPTIONAL] {@link rx.Subscriber} custom subscriber
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link Subscription}
+   */
+  private <T> Subscription subscribe(@Nullable String tag, Observable<T> observable,
+      @Nullable Subscriber<T> subscriber) {
+    final Subscriber<T> target = subscriber != null ? subscriber : new DefaultSubscriber<T>();
+    return register(tag, target, timed(tag, observable, target).subscribe(target));
+  }
+
+  /**
+   * Tracks the subscription with the installed {@link PresenterRegistry} and
+   * {@link LifecycleTrace}
+   *
+   * @param tag [OPTIONAL] the stream tag, the class of the target is used if it is null
+   * @param target the subscriber or the action which receives the items
+   * @param subscription {@link Subscription} of the stream
+   * @return the given {@link Subscription}
+   */
+  private Subscription register(@Nullable String tag, Object target, Subscription subscription) {
+    final PresenterRegistry registry = RxPresenterPlugins.registry();
+    final LifecycleTrace trace = RxPresenterPlugins.trace();
+    if (registry == null && trace == null) {
+      return subscription;
+    }
+    final String name = tag != null ? tag : target.getClass().getName();
+    if (registry != null) {
+      registry.onSubscribe(this, name, subscription);
+    }
+    if (trace != null) {
+      trace.record(this.id, LifecycleTrace.SUBSCRIBE, name);
+      onUnsubscribe(subscription, Subscriptions.create(new Action0() {
+        @Override public void call() {
+          trace.record(RxPresenter.this.id, LifecycleTrace.UNSUBSCRIBE, name);
+        }
+      }));
+    }
+    return subscription;
+  }
+
+  /**
+   * Unsubscribes the given hook together with the subscription of a bound stream
+   *
+   * @param subscription {@link Subscription} of the stream
+   * @param hook {@link Subscription} which is unsubscribed with the stream
+   */
+  private static void onUnsubscribe(Subscription subscription, Subscription hook) {
+    if (subscription instanceof Subscriber) {
+      ((Subscriber<?>) subscription).add(hook);
+    } else if (subscription instanceof SingleSubscriber) {
+      ((SingleSubscriber<?>) subscription).add(hook);
+    } else if (subscription instanceof LifecycleCompletableSubscriber) {
+      ((LifecycleCompletableSubscriber) subscription).add(hook);
+    }
+  }
+
+  /**
+   * Writes a lifecycle event in the installed {@link LifecycleTrace}
+   *
+   * @param kind the event kind eg. {@link LifecycleTrace#BIND}
+   * @param tag [OPTIONAL] the event tag
+   */
+  private void trace(int kind, @Nullable String tag) {
+    final LifecycleTrace trace = RxPresenterPlugins.trace();
+    if (trace != null) {
+      trace.record(this.id, kind, tag);
+    }
+  }
+
+  /**
+   * Times the deliveries of the stream with the installed {@link JankDetector}, nothing is added
+   * to the stream without one
+   *
+   * @param tag [OPTIONAL] the stream tag, the class of the target is used if it is null
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param target the subscriber or the action which receives the items
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link rx.Observable}
+   */
+  private <T> Observable<T> timed(@Nullable String tag, Observable<T> observable, Object target) {
+    final JankDetector detector = RxPresenterPlugins.jankDetector();
+    if (detector == null) {
+      return observable;
+    }
+    return observable.lift(
+        detector.<T>timing(getClass(), tag != null ? tag : target.getClass().getName()));
+  }
+
+  /**
+   * Reports the stream to the installed {@link PresenterMetrics}, nothing is added to the stream
+   * while it is {@link PresenterMetrics#NONE}
+   */
+  private <T> Observable<T> track(Observable<T> observable) {
+    final StreamMetrics metrics = this.streamMetrics();
+    return metrics != null ? observable.lift(metrics.<T>track()) : observable;
+  }
+
+  /**
+   * @return the {@link StreamMetrics} of the installed {@link PresenterMetrics} or null if it is
+   * {@link PresenterMetrics#NONE}
+   */
+  @Nullable private StreamMetrics streamMetrics() {
+    final PresenterMetrics metrics = RxPresenterPlugins.metrics();
+    if (metrics == PresenterMetrics.NONE) {
+      return null;
+    }
+    if (this.streamMetrics == null || this.streamMetrics.metrics() != metrics) {
+      this.streamMetrics = new StreamMetrics(this, metrics, this.liveSubscriptions);
+    }
+    return this.streamMetrics;
+  }
+
+  /**
+   * Helper methods, Composes a new {@link rx.Observable} which is conflated to one item per frame
+   *
+   * @param observable {@link rx.Observable} given observable for subscribe
+   * @param scheduler the scheduler to run the stream
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link rx.Observable}
+   */
+  private <T> Observable<T> composeLatestPerFrame(@NonNull Observable<T> observable,
+      Scheduler scheduler) {
+    return track(observable
+        .subscribeOn(scheduler)
+        .lift(new OperatorLatestPerFrame<T>(frameClock()))
+        .compose(this.<T>untilLifecycleEnd()));
+  }
+
+  /**
+   * The lifecycle transformer which stops emitting on {@link FragmentEvent#DESTROY_VIEW} for
+   * fragments and on {@link ActivityEvent#DESTROY} for activities
+   */
+  @SuppressWarnings("unchecked") private <T> Observable.Transformer<T, T> untilLifecycleEnd() {
+    return (Observable.Transformer<T, T>) this.hub.lifecycleTransformer();
+  }
+
+  private FrameClock frameClock() {
+    return this.frameClock != null ? this.frameClock : RxPresenterPlugins.frameClock();
+  }
+
+  /**
+   * Replaces the {@link FrameClock} used to conflate emissions
+   *
+   * @param frameClock {@link FrameClock}
+   */
+  @VisibleForTesting void setFrameClock(@NonNull FrameClock frameClock) {
+    this.frameClock = frameClock;
+  }
+
+  /**
+   * We are using RxJava transformers to compose the observables in order
+   * to not break the chain and help in the UI to do process and avoid
+   * lagging
+   */
+  @SuppressWarnings("unchecked")
+  private <T> Observable.Transformer<T, T> applySchedulers(final Scheduler scheduler) {
+    final Scheduler mainThread = mainThreadScheduler();
+    final PresenterMetrics metrics = RxPresenterPlugins.metrics();
+    if (mainThread != this.transformersMainThread || metrics != this.transformersMetrics) {
+      this.schedulerTransformers.clear();
+      this.transformersMainThread = mainThread;
+      this.transformersMetrics = metrics;
+    }
+    Observable.Transformer transformer = this.schedulerTransformers.get(scheduler);
+    if (transformer == null) {
+      if (this.schedulerTransformers.size() == MAX_SCHEDULER_TRANSFORMERS) {
+        this.schedulerTransformers.clear();
+      }
+      final StreamMetrics streamMetrics = this.streamMetrics();
+      transformer = streamMetrics != null ? streamMetrics.hop(scheduler, mainThread, null)
+          : new SchedulersTransformer(scheduler, mainThread, null);
+      this.schedulerTransformers.put(scheduler, transformer);
+    }
+    return (Observable.Transformer<T, T>) transformer;
+  }
+
+  /**
+   * Same as {@link #applySchedulers(Scheduler)} with a {@link Backpressure} policy between the
+   * scheduler and the main thread, the transformer is not cached
+   */
+  @SuppressWarnings("unchecked")
+  private <T> Observable.Transformer<T, T> applySchedulers(Scheduler scheduler,
+      Backpressure backpressure) {
+    final Scheduler mainThread = mainThreadScheduler();
+    final StreamMetrics streamMetrics = this.streamMetrics();
+    return (Observable.Transformer<T, T>) (streamMetrics != null
+        ? streamMetrics.hop(scheduler, mainThread, backpressure)
+        : new SchedulersTransformer(scheduler, mainThread, backpressure));
+  }
+
+  /**
+   * The scheduler which delivers the items of the bound streams to the view. By default every
+   * stream posts its own messages through {@link AndroidSchedulers#mainThread()}, presenters with
+   * many bound streams can opt in to the shared batching dispatcher by returning
+   * {@link PresenterMainDispatcher#get()}
+   *
+   * @return {@link Scheduler} on the main thread
+   * @see RxPresenterPlugins#setMainThreadScheduler(Scheduler)
+   */
+  protected Scheduler mainThreadScheduler() {
+    return RxPresenterPlugins.mainThreadScheduler();
+  }
+
+  /**
+   * Delivers the cached results of the started restartables to the newly bound view
+   */
+  private void deliverRestartables() {
+    for (Map.Entry<String, Restartable<?>> entry : this.restartables.entrySet()) {
+      if (entry.getValue().isStarted()) {
+        this.deliverRestartable(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  private <T> void deliverRestartable(String id, Restartable<T> restartable) {
+    final Subscription previous = this.restartableDeliveries.remove(id);
+    if (previous != null) {
+      previous.unsubscribe();
+    }
+    this.restartableDeliveries.put(id,
+        subscribe(id, composeLifecycle(restartable.cached(), Schedulers.immediate()),
+            restartable.newSubscriber()));
+  }
+
+  /**
+   * Saves the ids of the started restartables
+   *
+   * @param outState {@link Bundle}
+   */
+  private void saveRestartables(Bundle outState) {
+    final ArrayList<String> started = new ArrayList<>();
+    for (Map.Entry<String, Restartable<?>> entry : this.restartables.entrySet()) {
+      if (entry.getValue().isStarted()) {
+        started.add(entry.getKey());
+      }
+    }
+    outState.putStringArrayList(RESTARTABLES_KEY, started);
+  }
+
+  /**
+   * Starts again the restartables which were running before process death
+   *
+   * @param savedState {@link Bundle}
+   */
+  private void restoreRestartables(@Nullable Bundle savedState) {
+    if (savedState == null) {
+      return;
+    }
+    final ArrayList<String> started = savedState.getStringArrayList(RESTARTABLES_KEY);
+    if (started == null) {
+      return;
+    }
+    for (String id : started) {
+      if (this.restartables.containsKey(id) && !this.isRestartableStarted(id)) {
+        this.startRestartable(id);
+      }
+    }
+  }
+
+  /**
+   * Saves the registered snapshots in the installed {@link PresenterSnapshots}, only their key
+   * goes in the Bundle
+   *
+   * @param outState {@link Bundle}
+   */
+  private void saveSnapshots(Bundle outState) {
+    final PresenterSnapshots store = RxPresenterPlugins.snapshots();
+    if (store == null || this.snapshots.isEmpty()) {
+      return;
+    }
+    if (this.snapshotsKey == null) {
+      //unique across process deaths without initializing a SecureRandom on the main thread
+      this.snapshotsKey = Long.toString(System.currentTimeMillis(), 36) + '-' + this.id;
+    }
+    outState.putString(SNAPSHOTS_KEY, this.snapshotsKey);
+    for (Map.Entry<String, Snapshot<?>> entry : this.snapshots.entrySet()) {
+      entry.getValue().save(store, this.snapshotsKey + '-' + entry.getKey());
+    }
+  }
+
+  /**
+   * Reads back the snapshots which were saved before process death and restores them on the main
+   * thread
+   *
+   * @param savedState {@link Bundle}
+   */
+  private void restoreSnapshots(@Nullable Bundle savedState) {
+    final PresenterSnapshots store = RxPresenterPlugins.snapshots();
+    if (savedState == null || store == null || this.snapshotsKey != null) {
+      return;
+    }
+    this.snapshotsKey = savedState.getString(SNAPSHOTS_KEY);
+    if (this.snapshotsKey == null) {
+      return;
+    }
+    for (Map.Entry<String, Snapshot<?>> entry : this.snapshots.entrySet()) {
+      this.restoreSnapshot(store, this.snapshotsKey + '-' + entry.getKey(), entry.getValue());
+    }
+  }
+
+  /**
+   * @param store {@link PresenterSnapshots}
+   * @param key the key of the snapshot in the store
+   * @param snapshot {@link Snapshot} which restores the read state
+   * @param <T> the type of the state
+   */
+  private <T> void restoreSnapshot(PresenterSnapshots store, String key,
+      final Snapshot<T> snapshot) {
+    bindLifecycle(store.read(key, snapshot.codec), Schedulers.immediate(),
+        new DefaultSubscriber<T>() {
+          @Override public void onNext(T state) {
+            snapshot.restore.call(state);
+          }
+        });
+  }
+
+  /**
+   * Deletes the snapshots of a screen which is finished and never restored
+   */
+  private void deleteSnapshots() {
+    final PresenterSnapshots store = RxPresenterPlugins.snapshots();
+    if (store == null || this.snapshotsKey == null) {
+      return;
+    }
+    for (String id : this.snapshots.keySet()) {
+      store.delete(this.snapshotsKey + '-' + id);
+    }
+  }
+
+  /**
+   * Marks the presenter as retained by a {@link PresenterStore}
+   *
+   * @param store {@link PresenterStore}
+   * @param id the id of the presenter in the store
+   */
+  void retain(@NonNull PresenterStore store, @NonNull String id) {
+    this.store = store;
+    this.storeId = id;
+  }
+
+  /**
+   * A retained presenter only detaches from a component which is destroyed because of a
+   * configuration change, otherwise the presenter is destroyed
+   */
+  private void onComponentDestroyed() {
+    if (this.store != null && this.isChangingConfigurations()) {
+      this.detach();
+      return;
+    }
+    if (this.store != null) {
+      this.store.remove(this.storeId);
+      this.store = null;
+    }
+    if (this.isFinishing()) {
+      this.deleteSnapshots();
+    }
+    this.destroy();
+  }
+
+  /**
+   * Releases the references to the component and the view, keeping the presenter state
+   */
+  private void detach() {
+    this.trace(LifecycleTrace.DETACH, null);
+    this.hub.remove(this.hubCallbacks);
+    this.lifecycleSubscriptions.clear();
+    this.unbindItems();
+    this.view = null;
+    this.mvpView = null;
+    this.naviComponent = null;
+    this.hub = null;
+  }
+
+  /**
+   * @return true if the component is finishing, or removed, and its state is never restored
+   */
+  private boolean isFinishing() {
+    if (fragmentComponent) {
+      final Fragment fragment = (Fragment) naviComponent;
+      final Activity activity = fragment.getActivity();
+      return fragment.isRemoving() || activity == null || activity.isFinishing();
+    }
+    return naviComponent instanceof Activity && ((Activity) naviComponent).isFinishing();
+  }
+
+  private boolean isChangingConfigurations() {
+    final Activity activity;
+    if (fragmentComponent) {
+      activity = ((Fragment) naviComponent).getActivity();
+    } else if (naviComponent instanceof Activity) {
+      activity = (Activity) naviComponent;
+    } else {
+      activity = null;
+    }
+    return activity != null && activity.isChangingConfigurations();
+  }
+
+  /**
+   * Used to follow the lifecycle and bind the view
+   */
+  private void initFragment() {
+    this.fragmentComponent = true;
+    this.initCommon();
+  }
+
+  /**
+   * Used to follow the lifecycle and bind the view
+   */
+  private void initActivity() {
+    this.fragmentComponent = false;
+    this.initCommon();
+  }
+
+  /**
+   * Standard common lifecycle, the events come from the {@link LifecycleHub} of the component
+   */
+  private void initCommon() {
+    this.mvpView = (MvpView) naviComponent;
+    //a retained presenter stops following its previous component
+    if (this.hub != null) {
+      this.hub.remove(this.hubCallbacks);
+    }
+    this.hub = LifecycleHub.of(naviComponent, fragmentComponent);
+    this.hub.add(this.hubCallbacks);
+    this.onBound();
+  }
+
+  private void onBound() {
+    final PresenterMetrics metrics = RxPresenterPlugins.metrics();
+    if (metrics != PresenterMetrics.NONE) {
+      metrics.onBind(this, this.naviComponent);
+    }
+    final PresenterRegistry registry = RxPresenterPlugins.registry();
+    if (registry != null) {
+      registry.onBind(this, this.naviComponent);
+    }
+    this.trace(LifecycleTrace.BIND, getClass().getName());
+  }
+
+  /**
+   * A registered state snapshot
+   */
+  private static final class Snapshot<T> {
+
+    final PresenterSnapshots.Codec<T> codec;
+    final Func0<T> save;
+    final Action1<T> restore;
+
+    Snapshot(PresenterSnapshots.Codec<T> codec, Func0<T> save, Action1<T> restore) {
+      this.codec = codec;
+      this.save = save;
+      this.restore = restore;
+    }
+
+    void save(PresenterSnapshots store, String key) {
+      final T state = this.save.call();
+      if (state != null) {
+        store.write(key, state, this.codec);
+      }
+    }
+  }
+
+  /**
+   * The generation of the latest stream of a switch-latest binding, a stream delivers its items
+   * only while its generation is the current one
+   */
+  private static final class LatestSlot {
+
+    private final AtomicInteger generation = new AtomicInteger();
+    private Subscription current = Subscriptions.unsubscribed();
+
+    /**
+     * Unsubscribes the current stream of the slot
+     *
+     * @return the generation of the next stream
+     */
+    int supersede() {
+      this.current.unsubscribe();
+      return this.generation.incrementAndGet();
+    }
+
+    /**
+     * @param generation the generation of a stream
+     * @return the filter which drops the items of the stream once it is superseded
+     */
+    Func1<Object, Boolean> isCurrent(final int generation) {
+      return new Func1<Object, Boolean>() {
+        @Override public Boolean call(Object item) {
+          return LatestSlot.this.generation.get() == generation;
+        }
+      };
+    }
+  }
+
+  private final class HubCallbacks implements LifecycleHub.Callbacks {
+
+    @SuppressWarnings("unchecked") @Override public void onViewEvent() {
+      RxPresenter.this.trace(LifecycleTrace.VIEW_BOUND, null);
+      RxPresenter.this.bindView((V) mvpView);
+      RxPresenter.this.deliverRestartables();
+    }
+
+    @Override public void onRestoreInstanceState(@Nullable Bundle savedState) {
+      RxPresenter.this.restoreRestartables(savedState);
+      RxPresenter.this.restoreSnapshots(savedState);
+    }
+
+    @Override public void onSaveInstanceState(Bundle outState) {
+      RxPresenter.this.saveRestartables(outState);
+      RxPresenter.this.saveSnapshots(outState);
+    }
+
+    @Override public void onResumeEvent() {
+      RxPresenter.this.trace(LifecycleTrace.RESUME, null);
+      RxPresenter.this.pausedState.onNext(false);
+      RxPresenter.this.resume();
+    }
+
+    @Override public void onPauseEvent() {
+      RxPresenter.this.trace(LifecycleTrace.PAUSE, null);
+      RxPresenter.this.pause();
+      RxPresenter.this.pausedState.onNext(true);
+    }
+
+    @Override public void onLifecycleEnd() {
+      RxPresenter.this.lifecycleSubscriptions.clear();
+      RxPresenter.this.unbindItems();
+      RxPresenter.this.latestSlots.clear();
+    }
+
+    @Override public void onDestroyEvent() {
+      RxPresenter.this.onComponentDestroyed();
+    }
+  }
+
+  /**
+   * Moves the subscription to a scheduler and the delivery to the main thread, one instance is
+   * cached per scheduler. Without a {@link Backpressure} policy the items which are emitted on the
+   * main thread, with nothing queued ahead of them, are delivered synchronously
+   */
+  private static final class SchedulersTransformer implements Observable.Transformer {
+
+    private final Scheduler scheduler;
+    private final Scheduler mainThread;
+    private final Backpressure backpressure;
+    private final OperatorObserveOnMainThread<Object> observeOnMainThread;
+
+    SchedulersTransformer(Scheduler scheduler, Scheduler mainThread,
+        @Nullable Backpressure backpressure) {
+      this.scheduler = scheduler;
+      this.mainThread = mainThread;
+      this.backpressure = backpressure;
+      this.observeOnMainThread = OperatorObserveOnMainThread.isMainThreadScheduler(mainThread)
+          ? new OperatorObserveOnMainThread<>(mainThread, Looper.getMainLooper()) : null;
+    }
+
+    @SuppressWarnings("unchecked") @Override public Object call(Object observable) {
+      final Observable<Object> source = ((Observable<Object>) observable).subscribeOn(scheduler);
+      if (backpressure == null) {
+        return observeOnMainThread != null ? source.lift(observeOnMainThread)
+            : source.observeOn(mainThread);
+      }
+      return backpressure.bufferSize() > 0
+          ? backpressure.apply(source).observeOn(mainThread, backpressure.bufferSize())
+          : backpressure.apply(source).observeOn(mainThread);
+    }
+  }
 }
\ No newline at end of file
@@ -0,0 +1,225 @@
+package com.ezhome.rxpresenter;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import com.ezhome.rxpresenter.reactive.ChoreographerFrameClock;
+import com.ezhome.rxpresenter.reactive.FrameClock;
+import com.ezhome.rxpresenter.reactive.PresenterSchedulers;
+import com.ezhome.rxpresenter.reactive.PresenterSchedulers.Lane;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import rx.Scheduler;
+import rx.android.schedulers.AndroidSchedulers;
+
+/**
+ * Global configuration of the {@link RxPresenter} defaults. It should be configured once at app
+ * startup, before any presenter binds a stream.
+ */
+public final class RxPresenterPlugins {
+
+  private static final AtomicReferenceArray<Scheduler> LANE_SCHEDULERS =
+      new AtomicReferenceArray<>(Lane.values().length);
+
+  private static volatile Lane defaultLane = Lane.IO;
+  private static volatile Scheduler mainThreadScheduler;
+  private static volatile FrameClock frameClock;
+  private static volatile PresenterMetrics metrics = PresenterMetrics.NONE;
+  private static volatile JankDetector jankDetector;
+  private static volatile PresenterRegistry registry;
+  private static volatile LifecycleTrace trace;
+  private static volatile PresenterSnapshots snapshots;
+  private static volatile ResultCache resultCache;
+
+  private RxPresenterPlugins() {
+    throw new AssertionError("No instances.");
+  }
+
+  /**
+   * Replaces the scheduler of a lane
+   *
+   * @param lane {@link Lane}
+   * @param scheduler {@link Scheduler} or null to restore the default one
+   */
+  public static void setLaneScheduler(@NonNull Lane lane, @Nullable Scheduler scheduler) {
+    LANE_SCHEDULERS.set(lane.ordinal(), scheduler);
+  }
+
+  /**
+   * @param lane {@link Lane}
+   * @return the {@link Scheduler} of the given lane
+   */
+  public static Scheduler laneScheduler(@NonNull Lane lane) {
+    final Scheduler scheduler = LANE_SCHEDULERS.get(lane.ordinal());
+    return scheduler != null ? scheduler : PresenterSchedulers.lane(lane);
+  }
+
+  /**
+   * Sets the lane used by the bind calls which do not choose a scheduler, {@link Lane#IO} by
+   * default
+   *
+   * @param lane {@link Lane}
+   */
+  public static void setDefaultLane(@NonNull Lane lane) {
+    defaultLane = lane;
+  }
+
+  /**
+   * @return the {@link Scheduler} of the default lane
+   */
+  public static Scheduler defaultScheduler() {
+    return laneScheduler(defaultLane);
+  }
+
+  /**
+   * Replaces the scheduler which delivers the items to the views
+   *
+   * @param scheduler {@link Scheduler} or null to restore {@link AndroidSchedulers#mainThread()}
+   */
+  public static void setMainThreadScheduler(@Nullable Scheduler scheduler) {
+    mainThreadScheduler = scheduler;
+  }
+
+  /**
+   * @return the {@link Scheduler} which delivers the items to the views
+   */
+  public static Scheduler mainThreadScheduler() {
+    final Scheduler scheduler = mainThreadScheduler;
+    return scheduler != null ? scheduler : AndroidSchedulers.mainThread();
+  }
+
+  /**
+   * Replaces the {@link FrameClock} used to conflate emissions per frame
+   *
+   * @param clock {@link FrameClock} or null to restore the {@link ChoreographerFrameClock}
+   */
+  public static void setFrameClock(@Nullable FrameClock clock) {
+    frameClock = clock;
+  }
+
+  /**
+   * @return the {@link FrameClock} used to conflate emissions per frame
+   */
+  public static FrameClock frameClock() {
+    final FrameClock clock = frameClock;
+    return clock != null ? clock : ChoreographerFrameClock.get();
+  }
+
+  /**
+   * Installs the listener of the bound streams
+   *
+   * @param listener {@link PresenterMetrics} or null to restore {@link PresenterMetrics#NONE}
+   */
+  public static void setMetrics(@Nullable PresenterMetrics listener) {
+    metrics = listener != null ? listener : PresenterMetrics.NONE;
+  }
+
+  /**
+   * @return the {@link PresenterMetrics} listener of the bound streams
+   */
+  public static PresenterMetrics metrics() {
+    return metrics;
+  }
+
+  /**
+   * Installs the detector which times the deliveries of the bound streams on the main thread
+   *
+   * @param detector {@link JankDetector} or null to stop timing the deliveries
+   */
+  public static void setJankDetector(@Nullable JankDetector detector) {
+    jankDetector = detector;
+  }
+
+  /**
+   * @return the installed {@link JankDetector} or null
+   */
+  @Nullable public static JankDetector jankDetector() {
+    return jankDetector;
+  }
+
+  /**
+   * Installs the debug registry of the live presenters and their streams
+   *
+   * @param presenterRegistry {@link PresenterRegistry} or null to stop tracking the presenters
+   */
+  public static void setRegistry(@Nullable PresenterRegistry presenterRegistry) {
+    registry = presenterRegistry;
+  }
+
+  /**
+   * @return the installed {@link PresenterRegistry} or null
+   */
+  @Nullable public static PresenterRegistry registry() {
+    return registry;
+  }
+
+  /**
+   * Installs the ring buffer of the lifecycle and stream events of the presenters
+   *
+   * @param lifecycleTrace {@link LifecycleTrace} or null to stop tracing the presenters
+   */
+  public static void setTrace(@Nullable LifecycleTrace lifecycleTrace) {
+    trace = lifecycleTrace;
+  }
+
+  /**
+   * @return the installed {@link LifecycleTrace} or null
+   */
+  @Nullable public static LifecycleTrace trace() {
+    return trace;
+  }
+
+  /**
+   * Installs the store of the presenter state snapshots
+   *
+   * @param presenterSnapshots {@link PresenterSnapshots} or null to stop saving the snapshots
+   */
+  public static void setSnapshots(@Nullable PresenterSnapshots presenterSnapshots) {
+    snapshots = presenterSnapshots;
+  }
+
+  /**
+   * @return the installed {@link PresenterSnapshots} or null
+   */
+  @Nullable public static PresenterSnapshots snapshots() {
+    return snapshots;
+  }
+
+  /**
+   * Replaces the cache of the streams bound with
+   * {@link RxPresenter#bindCached(String, rx.Observable, CachePolicy, rx.Subscriber[])}
+   *
+   * @param cache {@link ResultCache} or null to use the default memory cache
+   */
+  public static void setResultCache(@Nullable ResultCache cache) {
+    resultCache = cache;
+  }
+
+  /**
+   * @return the installed {@link ResultCache} or the default memory cache
+   */
+  public static ResultCache resultCache() {
+    final ResultCache cache = resultCache;
+    return cache != null ? cache : DefaultResultCacheHolder.CACHE;
+  }
+
+  /**
+   * Restores all the defaults
+   */
+  public static void reset() {
+    for (int i = 0; i < LANE_SCHEDULERS.length(); i++) {
+      LANE_SCHEDULERS.set(i, null);
+    }
+    defaultLane = Lane.IO;
+    mainThreadScheduler = null;
+    frameClock = null;
+    metrics = PresenterMetrics.NONE;
+    jankDetector = null;
+    registry = null;
+    trace = null;
+    snapshots = null;
+    resultCache = null;
+  }
+
+  private static final class DefaultResultCacheHolder {
+    static final ResultCache CACHE = new ResultCache(ResultCache.DEFAULT_MAX_BYTES);
+  }
+}
@@ -0,0 +1,334 @@
+package com.ezhome.rxpresenter;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import com.ezhome.rxpresenter.mvp.MvpView;
+import com.ezhome.rxpresenter.reactive.DefaultSubscriber;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscription;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.functions.Func1;
+
+/**
+ * A {@link RxPresenter} which keeps the whole view state in one immutable state. The intents and
+ * the results of the bound streams are reduced into the state one at a time on a background
+ * scheduler, and the view receives only the states which changed, at most one per main thread hop.
+ *
+ * The state must be immutable and implement equals, a reducer returns a new state for every change
+ * and the same, or an equal, state when nothing changed eg.
+ *
+ * <pre>
+ * public DemoPresenter() {
+ *   super(DemoState.EMPTY);
+ *   bindRender(TITLE, new Action1&lt;String&gt;() {...});
+ * }
+ *
+ * &#64;Override public void resume() {
+ *   bindState(repository.items(), ITEMS_LOADED);
+ * }
+ * </pre>
+ *
+ * @param <V> the view
+ * @param <S> the immutable view state
+ */
+public abstract class StateRxPresenter<V extends MvpView, S> extends RxPresenter<V> {
+
+  /**
+   * Reduces an intent or a result into a new state, called on the state scheduler
+   *
+   * @param <S> the immutable view state
+   * @param <R> the intent or the result
+   */
+  public interface Reducer<S, R> {
+
+    /**
+     * @param state the current state
+     * @param input the intent or the result
+     * @return the new state, or the given state if nothing changed
+     */
+    @NonNull S reduce(@NonNull S state, R input);
+  }
+
+  /**
+   * The renders of the sub states, selected on the state scheduler
+   */
+  private final List<RenderBinding<S, ?, ?>> renderBindings = new CopyOnWriteArrayList<>();
+
+  /**
+   * The latest state which waits for the main thread hop, null when no hop is scheduled
+   */
+  private final AtomicReference<S> pending = new AtomicReference<>();
+
+  private final Action0 renderAction = new Action0() {
+    @Override public void call() {
+      final S state = StateRxPresenter.this.pending.getAndSet(null);
+      if (state != null) {
+        StateRxPresenter.this.renderState(state);
+      }
+    }
+  };
+
+  /**
+   * The latest reduced state, written only on the state scheduler
+   */
+  private volatile S state;
+
+  /**
+   * The state of the latest {@link #render(Object)}, main thread only
+   */
+  private S renderedState;
+
+  private Scheduler.Worker stateWorker;
+  private Scheduler.Worker renderWorker;
+
+  /**
+   * @param initialState the state rendered when the view is bound
+   */
+  protected StateRxPresenter(@NonNull S initialState) {
+    this.state = initialState;
+  }
+
+  /**
+   * @return the latest reduced state
+   */
+  @NonNull protected final S state() {
+    return this.state;
+  }
+
+  /**
+   * Renders the whole state, called on the main thread only when the state changed and a view is
+   * bound. Screens which render sub states use {@link #bindRender(Func1, Action1)} instead.
+   *
+   * @param state the new state
+   */
+  protected void render(@NonNull S state) {
+    //empty method
+  }
+
+  /**
+   * The scheduler which reduces the states, one worker of it runs all the reducers of this
+   * presenter in order
+   *
+   * @return {@link Scheduler}
+   */
+  protected Scheduler stateScheduler() {
+    return RxPresenterPlugins.defaultScheduler();
+  }
+
+  /**
+   * Reduces an intent, eg. a click of the view, into the state
+   *
+   * @param input the intent
+   * @param reducer {@link Reducer}
+   * @param <R> the intent
+   */
+  protected final <R> void dispatch(final R input, @NonNull final Reducer<S, R> reducer) {
+    this.stateWorker().schedule(new Action0() {
+      @Override public void call() {
+        StateRxPresenter.this.reduce(input, reducer);
+      }
+    });
+  }
+
+  /**
+   * Executes an observable subscription based on the lifecycle which reduces every result into the
+   * state, the results never reach the main thread
+   *
+   * @param results {@link rx.Observable} of the results
+   * @param reducer {@link Reducer}
+   * @param <R> the result
+   * @return {@link Subscription}
+   */
+  protected final <R> Subscription bindState(@NonNull Observable<R> results,
+      @NonNull final Reducer<S, R> reducer) {
+    return bindUntilLifecycleEnd(results, RxPresenterPlugins.defaultScheduler(),
+        new DefaultSubscriber<R>() {
+          @Override public void onNext(R result) {
+            StateRxPresenter.this.dispatch(result, reducer);
+          }
+        });
+  }
+
+  /**
+   * Renders a sub state, the render is called only when the selected sub state changed
+   *
+   * @param selector selects the sub state, called on the state scheduler once per new state
+   * @param render {@link Action1} called on the main thread with the new sub state
+   * @param <T> the sub state
+   */
+  protected final <T> void bindRender(@NonNull Func1<S, T> selector,
+      @NonNull Action1<T> render) {
+    this.bindRender(selector, RenderBinding.<T>identity(), render);
+  }
+
+  /**
+   * Renders a derived sub state. The projector, eg. a sort or a filter, runs only when the input
+   * of the selector changed, by identity, and the render is called only when the result changed.
+   *
+   * @param input selects the input of the projector, called once per new state
+   * @param projector derives the sub state from the input
+   * @param render {@link Action1} called on the main thread with the new sub state
+   * @param <I> the input of the projector
+   * @param <T> the sub state
+   */
+  protected final <I, T> void bindRender(@NonNull Func1<S, I> input,
+      @NonNull Func1<? super I, T> projector, @NonNull Action1<T> render) {
+    final RenderBinding<S, I, T> binding = new RenderBinding<>(input, projector, render);
+    this.renderBindings.add(binding);
+    this.stateWorker().schedule(new Action0() {
+      @Override public void call() {
+        final S state = StateRxPresenter.this.state;
+        binding.select(state);
+        StateRxPresenter.this.post(state);
+      }
+    });
+  }
+
+  @Override public void bindView(@NonNull V mpvView) {
+    super.bindView(mpvView);
+    this.renderedState = null;
+    for (RenderBinding<S, ?, ?> binding : this.renderBindings) {
+      binding.reset();
+    }
+    this.renderState(this.state);
+  }
+
+  @Override public void destroy() {
+    super.destroy();
+    if (this.stateWorker != null) {
+      this.stateWorker.unsubscribe();
+    }
+    if (this.renderWorker != null) {
+      this.renderWorker.unsubscribe();
+    }
+    this.pending.set(null);
+  }
+
+  /**
+   * Runs on the state scheduler
+   */
+  private <R> void reduce(R input, Reducer<S, R> reducer) {
+    final S current = this.state;
+    final S next = reducer.reduce(current, input);
+    if (next == null) {
+      throw new NullPointerException(reducer.getClass().getName() + " returned a null state");
+    }
+    if (next == current || next.equals(current)) {
+      return;
+    }
+    this.state = next;
+    for (RenderBinding<S, ?, ?> binding : this.renderBindings) {
+      binding.select(next);
+    }
+    this.post(next);
+  }
+
+  /**
+   * Schedules one main thread hop for any number of states, the hop renders the latest one
+   */
+  private void post(S state) {
+    if (this.pending.getAndSet(state) == null) {
+      this.renderWorker().schedule(this.renderAction);
+    }
+  }
+
+  /**
+   * Runs on the main thread
+   */
+  private void renderState(S state) {
+    if (this.view == null) {
+      return;
+    }
+    if (this.renderedState == null || !this.renderedState.equals(state)) {
+      this.renderedState = state;
+      this.render(state);
+    }
+    for (RenderBinding<S, ?, ?> binding : this.renderBindings) {
+      binding.render();
+    }
+  }
+
+  private synchronized Scheduler.Worker stateWorker() {
+    if (this.stateWorker == null) {
+      this.stateWorker = this.stateScheduler().createWorker();
+    }
+    return this.stateWorker;
+  }
+
+  private synchronized Scheduler.Worker renderWorker() {
+    if (this.renderWorker == null) {
+      this.renderWorker = this.mainThreadScheduler().createWorker();
+    }
+    return this.renderWorker;
+  }
+
+  /**
+   * A memoized selector and its render
+   */
+  private static final class RenderBinding<S, I, T> {
+
+    private static final Object NONE = new Object();
+
+    private static final Func1<Object, Object> IDENTITY = new Func1<Object, Object>() {
+      @Override public Object call(Object o) {
+        return o;
+      }
+    };
+
+    final Func1<S, I> input;
+    final Func1<? super I, T> projector;
+    final Action1<T> render;
+
+    /**
+     * State scheduler only
+     */
+    private Object lastInput = NONE;
+
+    private volatile Object selected = NONE;
+
+    /**
+     * Main thread only
+     */
+    private Object rendered = NONE;
+
+    RenderBinding(Func1<S, I> input, Func1<? super I, T> projector, Action1<T> render) {
+      this.input = input;
+      this.projector = projector;
+      this.render = render;
+    }
+
+    @SuppressWarnings("unchecked") static <T> Func1<T, T> identity() {
+      return (Func1<T, T>) (Func1) IDENTITY;
+    }
+
+    void select(S state) {
+      final I in = this.input.call(state);
+      if (in != this.lastInput) {
+        this.lastInput = in;
+        this.selected = this.projector.call(in);
+      }
+    }
+
+    @SuppressWarnings("unchecked") void render() {
+      final Object selected = this.selected;
+      if (selected == NONE || equal(selected, this.rendered)) {
+        return;
+      }
+      this.rendered = selected;
+      this.render.call((T) selected);
+    }
+
+    void reset() {
+      this.rendered = NONE;
+    }
+
+    private static boolean equal(@Nullable Object a, @Nullable Object b) {
+      return a == b || (a != null && a.equals(b));
+    }
+  }
+}
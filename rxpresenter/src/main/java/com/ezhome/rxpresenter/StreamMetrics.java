@@ -0,0 +1,207 @@
+package com.ezhome.rxpresenter;
+
+import android.os.Looper;
+import android.support.annotation.Nullable;
+import com.ezhome.rxpresenter.reactive.Backpressure;
+import com.ezhome.rxpresenter.reactive.OperatorObserveOnMainThread;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.functions.Action0;
+import rx.functions.Func0;
+import rx.subscriptions.Subscriptions;
+
+/**
+ * Operators which report the bound streams of a presenter to a {@link PresenterMetrics}
+ */
+final class StreamMetrics {
+
+  private final RxPresenter<?> presenter;
+  private final PresenterMetrics metrics;
+  private final AtomicInteger liveSubscriptions;
+  private final TrackOperator<Object> trackOperator;
+
+  /**
+   * @param presenter the {@link RxPresenter} which binds the streams
+   * @param metrics {@link PresenterMetrics}
+   * @param liveSubscriptions the live streams counter of the presenter
+   */
+  StreamMetrics(RxPresenter<?> presenter, PresenterMetrics metrics,
+      AtomicInteger liveSubscriptions) {
+    this.presenter = presenter;
+    this.metrics = metrics;
+    this.liveSubscriptions = liveSubscriptions;
+    this.trackOperator = new TrackOperator<>();
+  }
+
+  PresenterMetrics metrics() {
+    return this.metrics;
+  }
+
+  /**
+   * @return an operator which reports the subscription, the error and the un-subscription
+   */
+  @SuppressWarnings("unchecked") <T> Observable.Operator<T, T> track() {
+    return (Observable.Operator<T, T>) (Observable.Operator<?, ?>) this.trackOperator;
+  }
+
+  /**
+   * @param scheduler the scheduler which runs the stream
+   * @param mainThread the scheduler which delivers the items
+   * @param backpressure [OPTIONAL] {@link Backpressure} policy of the hop
+   * @return a transformer which moves the stream like the presenter does and reports the hop
+   * latency and the queue depth of every item
+   */
+  Observable.Transformer hop(Scheduler scheduler, Scheduler mainThread,
+      @Nullable Backpressure backpressure) {
+    return new HopTransformer(scheduler, mainThread, backpressure);
+  }
+
+  /**
+   * @param lifecycle the lifecycle transformer of the stream
+   * @return a transformer which applies the lifecycle transformer to a stream which is delivered on
+   * the thread which emits it, and reports the latency and the queue depth of every item like
+   * {@link #hop(Scheduler, Scheduler, Backpressure)} does
+   */
+  Observable.Transformer inPlace(Observable.Transformer lifecycle) {
+    return new InPlaceTransformer(lifecycle);
+  }
+
+  private final class TrackOperator<T> implements Observable.Operator<T, T> {
+
+    private final Action0 unsubscribe = new Action0() {
+      @Override public void call() {
+        metrics.onUnsubscribe(presenter, liveSubscriptions.decrementAndGet());
+      }
+    };
+
+    @Override public Subscriber<? super T> call(final Subscriber<? super T> child) {
+      metrics.onSubscribe(presenter, liveSubscriptions.incrementAndGet());
+      child.add(Subscriptions.create(this.unsubscribe));
+      return new Subscriber<T>(child) {
+        @Override public void onCompleted() {
+          child.onCompleted();
+        }
+
+        @Override public void onError(Throwable e) {
+          metrics.onError(presenter, e);
+          child.onError(e);
+        }
+
+        @Override public void onNext(T t) {
+          child.onNext(t);
+        }
+      };
+    }
+  }
+
+  private final class HopTransformer implements Observable.Transformer {
+
+    private final Scheduler scheduler;
+    private final Scheduler mainThread;
+    private final Backpressure backpressure;
+    private final OperatorObserveOnMainThread<Object> observeOnMainThread;
+
+    HopTransformer(Scheduler scheduler, Scheduler mainThread, Backpressure backpressure) {
+      this.scheduler = scheduler;
+      this.mainThread = mainThread;
+      this.backpressure = backpressure;
+      this.observeOnMainThread = OperatorObserveOnMainThread.isMainThreadScheduler(mainThread)
+          ? new OperatorObserveOnMainThread<>(mainThread, Looper.getMainLooper()) : null;
+    }
+
+    @SuppressWarnings("unchecked") @Override public Object call(Object observable) {
+      final Observable<Object> source = (Observable<Object>) observable;
+      return Observable.defer(new Func0<Observable<Object>>() {
+        @Override public Observable<Object> call() {
+          final Hop hop = new Hop();
+          if (backpressure == null) {
+            final Observable<Object> emitted = source.lift(hop.emit).subscribeOn(scheduler);
+            return (observeOnMainThread != null ? emitted.lift(observeOnMainThread)
+                : emitted.observeOn(mainThread)).lift(hop.deliver);
+          }
+          //the items dropped by the policy never reach the hop
+          final Observable<Object> emitted =
+              backpressure.apply(source.subscribeOn(scheduler)).lift(hop.emit);
+          return (backpressure.bufferSize() > 0 ? emitted.observeOn(mainThread,
+              backpressure.bufferSize()) : emitted.observeOn(mainThread)).lift(hop.deliver);
+        }
+      });
+    }
+  }
+
+  private final class InPlaceTransformer implements Observable.Transformer {
+
+    private final Observable.Transformer lifecycle;
+
+    InPlaceTransformer(Observable.Transformer lifecycle) {
+      this.lifecycle = lifecycle;
+    }
+
+    @SuppressWarnings("unchecked") @Override public Object call(Object observable) {
+      final Observable<Object> source = (Observable<Object>) observable;
+      return Observable.defer(new Func0<Observable<Object>>() {
+        @Override public Observable<Object> call() {
+          final Hop hop = new Hop();
+          return source.lift(hop.emit).compose(lifecycle).lift(hop.deliver);
+        }
+      });
+    }
+  }
+
+  /**
+   * The emission times of the items of one subscription which are not delivered yet, observeOn
+   * keeps the order so the head is the time of the next delivered item
+   */
+  private final class Hop {
+
+    private final Queue<Long> emissions = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+
+    private final Observable.Operator<Object, Object> emit =
+        new Observable.Operator<Object, Object>() {
+          @Override public Subscriber<? super Object> call(final Subscriber<? super Object> child) {
+            return new Subscriber<Object>(child) {
+              @Override public void onCompleted() {
+                child.onCompleted();
+              }
+
+              @Override public void onError(Throwable e) {
+                child.onError(e);
+              }
+
+              @Override public void onNext(Object o) {
+                emissions.offer(System.nanoTime());
+                depth.incrementAndGet();
+                child.onNext(o);
+              }
+            };
+          }
+        };
+
+    private final Observable.Operator<Object, Object> deliver =
+        new Observable.Operator<Object, Object>() {
+          @Override public Subscriber<? super Object> call(final Subscriber<? super Object> child) {
+            return new Subscriber<Object>(child) {
+              @Override public void onCompleted() {
+                child.onCompleted();
+              }
+
+              @Override public void onError(Throwable e) {
+                child.onError(e);
+              }
+
+              @Override public void onNext(Object o) {
+                final Long emittedAt = emissions.poll();
+                final long latency = emittedAt != null ? System.nanoTime() - emittedAt : 0L;
+                metrics.onNext(presenter, latency, depth.decrementAndGet());
+                child.onNext(o);
+              }
+            };
+          }
+        };
+  }
+}
@@ -0,0 +1,116 @@
+package com.ezhome.rxpresenter.reactive;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import rx.BackpressureOverflow;
+import rx.Observable;
+import rx.exceptions.MissingBackpressureException;
+import rx.functions.Action0;
+
+/**
+ * Policy which decides what happens to the items of a bound stream when its producer is faster
+ * than the main thread, together with the buffer size of the main thread hop. The policy is
+ * applied between the scheduler which runs the stream and the main thread.
+ */
+public final class Backpressure {
+
+  enum Mode {
+    LATEST, DROP, BUFFER, ERROR
+  }
+
+  private static final Backpressure LATEST = new Backpressure(Mode.LATEST, 0, null, 0);
+  private static final Backpressure DROP = new Backpressure(Mode.DROP, 0, null, 0);
+  private static final Backpressure ERROR = new Backpressure(Mode.ERROR, 0, null, 0);
+
+  final Mode mode;
+  final int capacity;
+  final Action0 onOverflow;
+  final int bufferSize;
+
+  private Backpressure(Mode mode, int capacity, Action0 onOverflow, int bufferSize) {
+    this.mode = mode;
+    this.capacity = capacity;
+    this.onOverflow = onOverflow;
+    this.bufferSize = bufferSize;
+  }
+
+  /**
+   * Keeps only the latest item which the main thread could not take yet
+   *
+   * @return {@link Backpressure}
+   */
+  public static Backpressure latest() {
+    return LATEST;
+  }
+
+  /**
+   * Drops the items which the main thread could not take yet
+   *
+   * @return {@link Backpressure}
+   */
+  public static Backpressure drop() {
+    return DROP;
+  }
+
+  /**
+   * Buffers up to the given number of items, dropping the oldest ones when it is full
+   *
+   * @param capacity the maximum number of buffered items
+   * @param onOverflow [OPTIONAL] {@link Action0} called every time an item is dropped
+   * @return {@link Backpressure}
+   */
+  public static Backpressure buffer(int capacity, @Nullable Action0 onOverflow) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    return new Backpressure(Mode.BUFFER, capacity, onOverflow, 0);
+  }
+
+  /**
+   * Fails the stream with a {@link MissingBackpressureException} once the main thread hop buffer
+   * is full, like an unbounded producer does without a policy
+   *
+   * @return {@link Backpressure}
+   */
+  public static Backpressure error() {
+    return ERROR;
+  }
+
+  /**
+   * @param size the number of items the main thread hop can queue, the RxJava default
+   * (16 on Android) is used if it is not set
+   * @return a copy of this policy with the given hop buffer size
+   */
+  public Backpressure observeOnBufferSize(int size) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("size must be positive");
+    }
+    return new Backpressure(this.mode, this.capacity, this.onOverflow, size);
+  }
+
+  /**
+   * @return the buffer size of the main thread hop or 0 for the RxJava default
+   */
+  public int bufferSize() {
+    return this.bufferSize;
+  }
+
+  /**
+   * @param observable {@link Observable} which is subscribed on the scheduler of the stream
+   * @param <T> any object for {@link rx.Observable}
+   * @return the {@link Observable} with the backpressure operator of the policy
+   */
+  @NonNull public <T> Observable<T> apply(@NonNull Observable<T> observable) {
+    switch (this.mode) {
+      case LATEST:
+        return observable.onBackpressureLatest();
+      case DROP:
+        return observable.onBackpressureDrop();
+      case BUFFER:
+        return observable.onBackpressureBuffer(this.capacity, this.onOverflow,
+            BackpressureOverflow.ON_OVERFLOW_DROP_OLDEST);
+      default:
+        return observable;
+    }
+  }
+}
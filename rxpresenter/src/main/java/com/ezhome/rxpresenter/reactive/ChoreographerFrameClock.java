@@ -0,0 +1,56 @@
+package com.ezhome.rxpresenter.reactive;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.view.Choreographer;
+
+/**
+ * {@link FrameClock} backed by the {@link Choreographer} of the main thread
+ */
+public final class ChoreographerFrameClock implements FrameClock {
+
+  private static final ChoreographerFrameClock INSTANCE = new ChoreographerFrameClock();
+
+  private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+  /**
+   * {@link Choreographer} is thread local, so it is resolved the first time we are called on the
+   * main thread
+   */
+  private volatile Choreographer choreographer;
+
+  private ChoreographerFrameClock() {
+  }
+
+  /**
+   * @return the main thread {@link ChoreographerFrameClock}
+   */
+  public static ChoreographerFrameClock get() {
+    return INSTANCE;
+  }
+
+  @Override public void postFrameCallback(@NonNull final Choreographer.FrameCallback callback) {
+    Choreographer current = this.choreographer;
+    if (current == null && Looper.myLooper() == Looper.getMainLooper()) {
+      current = Choreographer.getInstance();
+      this.choreographer = current;
+    }
+    if (current != null) {
+      current.postFrameCallback(callback);
+      return;
+    }
+    this.mainHandler.post(new Runnable() {
+      @Override public void run() {
+        ChoreographerFrameClock.this.postFrameCallback(callback);
+      }
+    });
+  }
+
+  @Override public void removeFrameCallback(@NonNull Choreographer.FrameCallback callback) {
+    final Choreographer current = this.choreographer;
+    if (current != null) {
+      current.removeFrameCallback(callback);
+    }
+  }
+}
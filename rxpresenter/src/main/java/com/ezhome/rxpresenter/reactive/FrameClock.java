@@ -0,0 +1,24 @@
+package com.ezhome.rxpresenter.reactive;
+
+import android.support.annotation.NonNull;
+import android.view.Choreographer;
+
+/**
+ * Source of display frames (vsync) used to conflate main thread deliveries
+ */
+public interface FrameClock {
+
+  /**
+   * Posts a callback to run on the next frame
+   *
+   * @param callback {@link Choreographer.FrameCallback}
+   */
+  void postFrameCallback(@NonNull Choreographer.FrameCallback callback);
+
+  /**
+   * Removes a previously posted callback
+   *
+   * @param callback {@link Choreographer.FrameCallback}
+   */
+  void removeFrameCallback(@NonNull Choreographer.FrameCallback callback);
+}
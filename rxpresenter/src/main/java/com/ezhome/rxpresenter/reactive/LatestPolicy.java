@@ -0,0 +1,88 @@
+package com.ezhome.rxpresenter.reactive;
+
+import android.support.annotation.NonNull;
+import java.util.concurrent.TimeUnit;
+import rx.Observable;
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
+
+/**
+ * Policy of the triggers of a switch-latest binding, eg. the queries of a search as you type. The
+ * triggers can be debounced and the repeated ones skipped before they start a new stream, the
+ * policy is applied before the scheduler which runs the streams.
+ *
+ * <pre>
+ * LatestPolicy.debounce(300, TimeUnit.MILLISECONDS).distinct();
+ * </pre>
+ */
+public final class LatestPolicy {
+
+  private static final LatestPolicy NONE = new LatestPolicy(0, null, false);
+
+  final long debounceMillis;
+  final Scheduler debounceScheduler;
+  final boolean distinct;
+
+  private LatestPolicy(long debounceMillis, Scheduler debounceScheduler, boolean distinct) {
+    this.debounceMillis = debounceMillis;
+    this.debounceScheduler = debounceScheduler;
+    this.distinct = distinct;
+  }
+
+  /**
+   * Every trigger starts a new stream
+   *
+   * @return {@link LatestPolicy}
+   */
+  public static LatestPolicy none() {
+    return NONE;
+  }
+
+  /**
+   * A trigger starts a new stream once no other trigger followed it for the given timeout
+   *
+   * @param timeout the quiet time after a trigger
+   * @param unit {@link TimeUnit} of the timeout
+   * @return {@link LatestPolicy}
+   */
+  public static LatestPolicy debounce(long timeout, @NonNull TimeUnit unit) {
+    return debounce(timeout, unit, Schedulers.computation());
+  }
+
+  /**
+   * Same as {@link #debounce(long, TimeUnit)} timing the triggers on the given scheduler
+   *
+   * @param timeout the quiet time after a trigger
+   * @param unit {@link TimeUnit} of the timeout
+   * @param scheduler the scheduler of the debounce timer
+   * @return {@link LatestPolicy}
+   */
+  public static LatestPolicy debounce(long timeout, @NonNull TimeUnit unit,
+      @NonNull Scheduler scheduler) {
+    if (timeout <= 0) {
+      throw new IllegalArgumentException("timeout must be positive");
+    }
+    return new LatestPolicy(unit.toMillis(timeout), scheduler, false);
+  }
+
+  /**
+   * @return a copy of this policy which skips a trigger equal to the previous one
+   */
+  public LatestPolicy distinct() {
+    return new LatestPolicy(this.debounceMillis, this.debounceScheduler, true);
+  }
+
+  /**
+   * @param triggers {@link Observable} of the triggers
+   * @param <T> any object for {@link rx.Observable}
+   * @return the {@link Observable} with the debounce and distinct operators of the policy
+   */
+  @NonNull public <T> Observable<T> apply(@NonNull Observable<T> triggers) {
+    Observable<T> applied = triggers;
+    if (this.debounceMillis > 0) {
+      applied = applied.debounce(this.debounceMillis, TimeUnit.MILLISECONDS,
+          this.debounceScheduler);
+    }
+    return this.distinct ? applied.distinctUntilChanged() : applied;
+  }
+}
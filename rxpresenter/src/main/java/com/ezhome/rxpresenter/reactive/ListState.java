@@ -0,0 +1,216 @@
+package com.ezhome.rxpresenter.reactive;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.util.DiffUtil;
+import android.support.v7.util.ListUpdateCallback;
+import android.support.v7.widget.RecyclerView;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+/**
+ * A list delivered to the view together with the {@link DiffUtil.DiffResult} against the list
+ * which was delivered before it, so the view only dispatches the updates on the main thread
+ *
+ * <pre>
+ * public void render(ListState&lt;Item&gt; state) {
+ *   adapter.setItems(state.list());
+ *   state.dispatchUpdatesTo(adapter);
+ * }
+ * </pre>
+ *
+ * @param <T> the items of the list
+ */
+public final class ListState<T> {
+
+  /**
+   * Decides how two items of the lists compare, the same contract as the
+   * {@code DiffUtil.ItemCallback} of the newer support libraries. It is called on the scheduler
+   * which computes the diff.
+   *
+   * @param <T> the items of the list
+   */
+  public abstract static class ItemCallback<T> {
+
+    /**
+     * @return true if the two items represent the same entity, eg. they have the same id
+     */
+    public abstract boolean areItemsTheSame(@NonNull T oldItem, @NonNull T newItem);
+
+    /**
+     * Called only when {@link #areItemsTheSame(Object, Object)} returns true
+     *
+     * @return true if the two items render the same
+     */
+    public abstract boolean areContentsTheSame(@NonNull T oldItem, @NonNull T newItem);
+
+    /**
+     * @return [OPTIONAL] the payload of a changed item which is passed to the adapter
+     */
+    @Nullable public Object getChangePayload(@NonNull T oldItem, @NonNull T newItem) {
+      return null;
+    }
+  }
+
+  private final List<T> previous;
+  private final List<T> list;
+  private final DiffUtil.DiffResult diff;
+
+  private ListState(List<T> previous, List<T> list, DiffUtil.DiffResult diff) {
+    this.previous = previous;
+    this.list = list;
+    this.diff = diff;
+  }
+
+  /**
+   * @return the new list
+   */
+  @NonNull public List<T> list() {
+    return this.list;
+  }
+
+  /**
+   * @return {@link DiffUtil.DiffResult} from the previously delivered list to {@link #list()}
+   */
+  @NonNull public DiffUtil.DiffResult diff() {
+    return this.diff;
+  }
+
+  /**
+   * Dispatches the updates to the adapter, it must already return the items of {@link #list()}
+   *
+   * @param adapter {@link RecyclerView.Adapter}
+   */
+  public void dispatchUpdatesTo(@NonNull RecyclerView.Adapter adapter) {
+    this.diff.dispatchUpdatesTo(adapter);
+  }
+
+  /**
+   * Dispatches the updates to the given callback
+   *
+   * @param callback {@link ListUpdateCallback}
+   */
+  public void dispatchUpdatesTo(@NonNull ListUpdateCallback callback) {
+    this.diff.dispatchUpdatesTo(callback);
+  }
+
+  /**
+   * Diffs every list against the previous one on the given scheduler. A list which arrives while
+   * the previous diff is running cancels it, the result of the stale diff is never emitted and the
+   * next diff starts from the last emitted list. The first list is diffed against an empty list.
+   *
+   * @param callback {@link ItemCallback}
+   * @param scheduler the scheduler which computes the diffs
+   * @param <T> the items of the list
+   * @return {@link Observable.Transformer}
+   */
+  public static <T> Observable.Transformer<List<T>, ListState<T>> diffing(
+      @NonNull ItemCallback<T> callback, @NonNull Scheduler scheduler) {
+    return new Differ<>(callback, scheduler);
+  }
+
+  private static <T> ListState<T> diff(List<T> previous, List<T> list, ItemCallback<T> callback) {
+    return new ListState<>(previous, list,
+        DiffUtil.calculateDiff(new ListCallback<>(previous, list, callback)));
+  }
+
+  /**
+   * Keeps the last emitted list per subscription, the diff of a list is computed against it
+   */
+  private static final class Differ<T> implements Observable.Transformer<List<T>, ListState<T>> {
+
+    final ItemCallback<T> callback;
+    final Scheduler scheduler;
+
+    Differ(ItemCallback<T> callback, Scheduler scheduler) {
+      this.callback = callback;
+      this.scheduler = scheduler;
+    }
+
+    @Override public Observable<ListState<T>> call(final Observable<List<T>> lists) {
+      return Observable.defer(new Func0<Observable<ListState<T>>>() {
+        @Override public Observable<ListState<T>> call() {
+          final Latest<T> latest = new Latest<>(Differ.this.callback);
+          return lists.switchMap(new Func1<List<T>, Observable<ListState<T>>>() {
+            @Override public Observable<ListState<T>> call(final List<T> list) {
+              return Differ.this.diff(latest, list);
+            }
+          }).map(latest);
+        }
+      });
+    }
+
+    Observable<ListState<T>> diff(final Latest<T> latest, final List<T> list) {
+      return Observable.fromCallable(new Callable<ListState<T>>() {
+        @Override public ListState<T> call() throws Exception {
+          return ListState.diff(latest.list, list, Differ.this.callback);
+        }
+      }).subscribeOn(this.scheduler);
+    }
+  }
+
+  /**
+   * The last emitted list. A diff which started before the previous list was emitted is computed
+   * again against it, which happens only when a diff is cancelled while it is emitting.
+   */
+  private static final class Latest<T> implements Func1<ListState<T>, ListState<T>> {
+
+    final ItemCallback<T> callback;
+    volatile List<T> list = Collections.emptyList();
+
+    Latest(ItemCallback<T> callback) {
+      this.callback = callback;
+    }
+
+    @Override public ListState<T> call(ListState<T> state) {
+      final ListState<T> result =
+          state.previous == this.list ? state : diff(this.list, state.list, this.callback);
+      this.list = result.list;
+      return result;
+    }
+  }
+
+  /**
+   * {@link DiffUtil.Callback} over the two lists
+   */
+  private static final class ListCallback<T> extends DiffUtil.Callback {
+
+    private final List<T> oldList;
+    private final List<T> newList;
+    private final ItemCallback<T> callback;
+
+    ListCallback(List<T> oldList, List<T> newList, ItemCallback<T> callback) {
+      this.oldList = oldList;
+      this.newList = newList;
+      this.callback = callback;
+    }
+
+    @Override public int getOldListSize() {
+      return this.oldList.size();
+    }
+
+    @Override public int getNewListSize() {
+      return this.newList.size();
+    }
+
+    @Override public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+      return this.callback.areItemsTheSame(this.oldList.get(oldItemPosition),
+          this.newList.get(newItemPosition));
+    }
+
+    @Override public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+      return this.callback.areContentsTheSame(this.oldList.get(oldItemPosition),
+          this.newList.get(newItemPosition));
+    }
+
+    @Override public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+      return this.callback.getChangePayload(this.oldList.get(oldItemPosition),
+          this.newList.get(newItemPosition));
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package com.ezhome.rxpresenter.reactive;
+
+import android.support.annotation.NonNull;
+import android.view.Choreographer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import rx.Observable;
+import rx.Subscriber;
+import rx.functions.Action0;
+import rx.subscriptions.Subscriptions;
+
+/**
+ * Conflates the emissions of an {@link Observable} so that the downstream receives at most one
+ * onNext per frame, always the latest value. Terminal events are delivered on the frame following
+ * the last value.
+ *
+ * @param <T> any object for {@link rx.Observable}
+ */
+public final class OperatorLatestPerFrame<T> implements Observable.Operator<T, T> {
+
+  private final FrameClock frameClock;
+
+  public OperatorLatestPerFrame(@NonNull FrameClock frameClock) {
+    this.frameClock = frameClock;
+  }
+
+  @Override public Subscriber<? super T> call(Subscriber<? super T> child) {
+    final LatestPerFrameSubscriber<T> parent = new LatestPerFrameSubscriber<>(child, frameClock);
+    child.add(parent);
+    child.add(Subscriptions.create(new Action0() {
+      @Override public void call() {
+        frameClock.removeFrameCallback(parent);
+      }
+    }));
+    return parent;
+  }
+
+  static final class LatestPerFrameSubscriber<T> extends Subscriber<T>
+      implements Choreographer.FrameCallback {
+
+    private static final Object EMPTY = new Object();
+
+    private final Subscriber<? super T> child;
+    private final FrameClock frameClock;
+    private final AtomicReference<Object> latest = new AtomicReference<>(EMPTY);
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private Throwable error;
+    private volatile boolean done;
+
+    /**
+     * Accessed only from the frame callback
+     */
+    private boolean terminated;
+
+    LatestPerFrameSubscriber(Subscriber<? super T> child, FrameClock frameClock) {
+      this.child = child;
+      this.frameClock = frameClock;
+    }
+
+    @Override public void onStart() {
+      request(Long.MAX_VALUE);
+    }
+
+    @Override public void onNext(T t) {
+      this.latest.set(t);
+      this.schedule();
+    }
+
+    @Override public void onError(Throwable e) {
+      this.error = e;
+      this.done = true;
+      this.schedule();
+    }
+
+    @Override public void onCompleted() {
+      this.done = true;
+      this.schedule();
+    }
+
+    @SuppressWarnings("unchecked") @Override public void doFrame(long frameTimeNanos) {
+      this.scheduled.set(false);
+      if (this.terminated || this.child.isUnsubscribed()) {
+        return;
+      }
+      final boolean isDone = this.done;
+      final Object value = this.latest.getAndSet(EMPTY);
+      if (value != EMPTY) {
+        this.child.onNext((T) value);
+      }
+      if (isDone) {
+        this.terminated = true;
+        if (this.error != null) {
+          this.child.onError(this.error);
+        } else {
+          this.child.onCompleted();
+        }
+      }
+    }
+
+    private void schedule() {
+      if (this.scheduled.compareAndSet(false, true)) {
+        this.frameClock.postFrameCallback(this);
+      }
+    }
+  }
+}
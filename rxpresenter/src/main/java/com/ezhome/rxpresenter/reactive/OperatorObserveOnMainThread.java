@@ -0,0 +1,263 @@
+package com.ezhome.rxpresenter.reactive;
+
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import rx.Observable;
+import rx.Producer;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.android.schedulers.AndroidSchedulers;
+import rx.exceptions.MissingBackpressureException;
+import rx.functions.Action0;
+import rx.plugins.RxJavaHooks;
+
+/**
+ * Same as {@link Observable#observeOn(Scheduler)} for a scheduler which runs on the given
+ * {@link Looper}, except that an emission which already arrives on that looper, while nothing is
+ * queued or being delivered ahead of it, is delivered synchronously instead of being posted. Cached
+ * values and UI event streams are rendered in the same frame, everything else is queued and
+ * delivered in order exactly like observeOn. It is built on the public RxJava API and
+ * {@link java.util.concurrent} only.
+ *
+ * @param <T> any object for {@link rx.Observable}
+ */
+public final class OperatorObserveOnMainThread<T> implements Observable.Operator<T, T> {
+
+  /**
+   * The number of items requested ahead from the source, like the default buffer of observeOn
+   */
+  static final int BUFFER_SIZE = 128;
+
+  /**
+   * Stands for a null item in the queue
+   */
+  private static final Object NULL = new Object();
+
+  private final Scheduler scheduler;
+  private final Looper looper;
+
+  /**
+   * @param scheduler the {@link Scheduler} which runs its actions on the looper
+   * @param looper the {@link Looper} of the scheduler
+   */
+  public OperatorObserveOnMainThread(@NonNull Scheduler scheduler, @NonNull Looper looper) {
+    this.scheduler = scheduler;
+    this.looper = looper;
+  }
+
+  /**
+   * @param scheduler {@link Scheduler}
+   * @return true if the scheduler is known to run its actions on the main looper
+   */
+  public static boolean isMainThreadScheduler(Scheduler scheduler) {
+    return scheduler == AndroidSchedulers.mainThread()
+        || scheduler == PresenterMainDispatcher.get();
+  }
+
+  @Override public Subscriber<? super T> call(Subscriber<? super T> child) {
+    final ObserveOnMainThreadSubscriber<T> parent =
+        new ObserveOnMainThreadSubscriber<>(child, scheduler.createWorker(), looper);
+    parent.init();
+    return parent;
+  }
+
+  static final class ObserveOnMainThreadSubscriber<T> extends Subscriber<T> implements Action0 {
+
+    private final Subscriber<? super T> child;
+    private final Scheduler.Worker worker;
+    private final Looper looper;
+    private final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int limit;
+    private final AtomicLong requested = new AtomicLong();
+
+    /**
+     * Number of drain requests, the drain runs while it is not zero
+     */
+    private final AtomicLong counter = new AtomicLong();
+
+    private volatile boolean finished;
+    private Throwable error;
+
+    /**
+     * Accessed only by the drain
+     */
+    private long emitted;
+
+    ObserveOnMainThreadSubscriber(Subscriber<? super T> child, Scheduler.Worker worker,
+        Looper looper) {
+      this.child = child;
+      this.worker = worker;
+      this.looper = looper;
+      this.limit = BUFFER_SIZE - (BUFFER_SIZE >> 2);
+      request(BUFFER_SIZE);
+    }
+
+    void init() {
+      this.child.setProducer(new Producer() {
+        @Override public void request(long n) {
+          if (n > 0L) {
+            addRequest(n);
+            schedule();
+          }
+        }
+      });
+      this.child.add(this.worker);
+      this.child.add(this);
+    }
+
+    @Override public void onNext(T t) {
+      if (isUnsubscribed() || this.finished) {
+        return;
+      }
+      //the source must honor the requests, like the bounded queue of observeOn
+      if (this.queued.incrementAndGet() > BUFFER_SIZE) {
+        onError(new MissingBackpressureException());
+        return;
+      }
+      this.queue.offer(t != null ? t : NULL);
+      schedule();
+    }
+
+    @Override public void onCompleted() {
+      if (isUnsubscribed() || this.finished) {
+        return;
+      }
+      this.finished = true;
+      schedule();
+    }
+
+    @Override public void onError(Throwable e) {
+      if (isUnsubscribed() || this.finished) {
+        RxJavaHooks.onError(e);
+        return;
+      }
+      this.error = e;
+      this.finished = true;
+      schedule();
+    }
+
+    /**
+     * Drains right away on the looper thread when no drain is pending, a pending drain already
+     * delivers everything queued in order
+     */
+    private void schedule() {
+      if (this.counter.getAndIncrement() == 0L) {
+        if (Looper.myLooper() == this.looper) {
+          call();
+        } else {
+          this.worker.schedule(this);
+        }
+      }
+    }
+
+    @SuppressWarnings("unchecked") @Override public void call() {
+      long missed = 1L;
+      long currentEmission = this.emitted;
+      final Queue<Object> q = this.queue;
+      final Subscriber<? super T> localChild = this.child;
+
+      for (;;) {
+        long requestAmount = this.requested.get();
+
+        while (requestAmount != currentEmission) {
+          final boolean done = this.finished;
+          final Object v = q.poll();
+          final boolean empty = v == null;
+
+          if (checkTerminated(done, empty, localChild, q)) {
+            return;
+          }
+          if (empty) {
+            break;
+          }
+          this.queued.decrementAndGet();
+          localChild.onNext(v == NULL ? null : (T) v);
+
+          currentEmission++;
+          if (currentEmission == this.limit) {
+            requestAmount = produced(currentEmission);
+            request(currentEmission);
+            currentEmission = 0L;
+          }
+        }
+
+        if (requestAmount == currentEmission
+            && checkTerminated(this.finished, q.isEmpty(), localChild, q)) {
+          return;
+        }
+
+        this.emitted = currentEmission;
+        missed = this.counter.addAndGet(-missed);
+        if (missed == 0L) {
+          break;
+        }
+      }
+    }
+
+    /**
+     * Adds the request of the child, capped at {@link Long#MAX_VALUE} which means unbounded
+     */
+    private void addRequest(long n) {
+      while (true) {
+        final long current = this.requested.get();
+        if (current == Long.MAX_VALUE) {
+          return;
+        }
+        final long next = current + n < 0L ? Long.MAX_VALUE : current + n;
+        if (this.requested.compareAndSet(current, next)) {
+          return;
+        }
+      }
+    }
+
+    /**
+     * @return the remaining request after the given items were delivered
+     */
+    private long produced(long n) {
+      while (true) {
+        final long current = this.requested.get();
+        if (current == Long.MAX_VALUE) {
+          return Long.MAX_VALUE;
+        }
+        if (this.requested.compareAndSet(current, current - n)) {
+          return current - n;
+        }
+      }
+    }
+
+    private boolean checkTerminated(boolean done, boolean isEmpty, Subscriber<? super T> a,
+        Queue<Object> q) {
+      if (a.isUnsubscribed()) {
+        q.clear();
+        return true;
+      }
+      if (!done) {
+        return false;
+      }
+      final Throwable e = this.error;
+      if (e != null) {
+        q.clear();
+        try {
+          a.onError(e);
+        } finally {
+          this.worker.unsubscribe();
+        }
+        return true;
+      }
+      if (isEmpty) {
+        try {
+          a.onCompleted();
+        } finally {
+          this.worker.unsubscribe();
+        }
+        return true;
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,182 @@
+package com.ezhome.rxpresenter.reactive;
+
+import android.support.annotation.NonNull;
+import java.util.ArrayDeque;
+import rx.Observable;
+import rx.Subscriber;
+import rx.functions.Action1;
+
+/**
+ * Holds the emissions of an {@link Observable} while the paused state is true according to a
+ * {@link PauseDelivery} policy and flushes everything held, followed by any held terminal event,
+ * in one batch when the paused state turns false
+ *
+ * @param <T> any object for {@link rx.Observable}
+ */
+public final class OperatorPauseDelivery<T> implements Observable.Operator<T, T> {
+
+  /**
+   * Stands for a null item in the queues
+   */
+  private static final Object NULL = new Object();
+
+  private final Observable<Boolean> pausedState;
+  private final PauseDelivery delivery;
+
+  /**
+   * @param pausedState {@link Observable} which emits true when paused and false when resumed
+   * @param delivery {@link PauseDelivery} policy
+   */
+  public OperatorPauseDelivery(@NonNull Observable<Boolean> pausedState,
+      @NonNull PauseDelivery delivery) {
+    this.pausedState = pausedState;
+    this.delivery = delivery;
+  }
+
+  @Override public Subscriber<? super T> call(Subscriber<? super T> child) {
+    final PauseSubscriber<T> parent = new PauseSubscriber<>(child, delivery);
+    child.add(parent);
+    child.add(pausedState.subscribe(new Action1<Boolean>() {
+      @Override public void call(Boolean paused) {
+        parent.setPaused(paused);
+      }
+    }));
+    return parent;
+  }
+
+  /**
+   * Emits outside of its lock with an emitter loop, the thread which finds the loop idle delivers
+   * the items queued by the others, so a slow or re-entrant child never blocks the upstream
+   */
+  static final class PauseSubscriber<T> extends Subscriber<T> {
+
+    private final Subscriber<? super T> child;
+    private final PauseDelivery delivery;
+    /**
+     * Items ready to be delivered, guarded by this
+     */
+    private final ArrayDeque<Object> queue = new ArrayDeque<>();
+    /**
+     * Items held while paused, guarded by this
+     */
+    private final ArrayDeque<Object> held = new ArrayDeque<>();
+
+    private boolean paused;
+    private boolean done;
+    private boolean terminated;
+    private boolean emitting;
+    private Throwable error;
+
+    PauseSubscriber(Subscriber<? super T> child, PauseDelivery delivery) {
+      this.child = child;
+      this.delivery = delivery;
+    }
+
+    @Override public void onStart() {
+      request(Long.MAX_VALUE);
+    }
+
+    @Override public void onNext(T t) {
+      synchronized (this) {
+        if (this.paused) {
+          this.hold(t != null ? t : NULL);
+          return;
+        }
+        this.queue.offer(t != null ? t : NULL);
+        if (this.emitting) {
+          return;
+        }
+        this.emitting = true;
+      }
+      this.drain();
+    }
+
+    @Override public void onError(Throwable e) {
+      synchronized (this) {
+        this.error = e;
+        this.done = true;
+        if (this.emitting) {
+          return;
+        }
+        this.emitting = true;
+      }
+      this.drain();
+    }
+
+    @Override public void onCompleted() {
+      synchronized (this) {
+        this.done = true;
+        if (this.emitting) {
+          return;
+        }
+        this.emitting = true;
+      }
+      this.drain();
+    }
+
+    void setPaused(boolean paused) {
+      synchronized (this) {
+        if (this.paused == paused) {
+          return;
+        }
+        this.paused = paused;
+        if (paused) {
+          return;
+        }
+        this.queue.addAll(this.held);
+        this.held.clear();
+        if (this.emitting) {
+          return;
+        }
+        this.emitting = true;
+      }
+      this.drain();
+    }
+
+    private void hold(Object item) {
+      switch (this.delivery.mode) {
+        case BUFFER:
+          if (this.held.size() == this.delivery.capacity) {
+            this.held.poll();
+          }
+          this.held.offer(item);
+          break;
+        case LATEST:
+          this.held.clear();
+          this.held.offer(item);
+          break;
+        default:
+          break;
+      }
+    }
+
+    /**
+     * Delivers the queued items and then the terminal event, until it is paused or nothing is
+     * left. Only the thread which set emitting runs it.
+     */
+    @SuppressWarnings("unchecked") private void drain() {
+      for (;;) {
+        final Object item;
+        synchronized (this) {
+          item = this.paused ? null : this.queue.poll();
+          if (item == null) {
+            if (this.paused || !this.done || this.terminated) {
+              this.emitting = false;
+              return;
+            }
+            this.terminated = true;
+          }
+        }
+        if (item == null) {
+          if (this.error != null) {
+            this.child.onError(this.error);
+          } else {
+            this.child.onCompleted();
+          }
+          return;
+        }
+        this.child.onNext(item == NULL ? null : (T) item);
+      }
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package com.ezhome.rxpresenter.reactive;
+
+/**
+ * Policy which decides what happens to the items of a bound stream while the component is
+ * paused. Held items are flushed in one batch on resume.
+ */
+public final class PauseDelivery {
+
+  enum Mode {
+    BUFFER, LATEST, DROP
+  }
+
+  private static final PauseDelivery LATEST = new PauseDelivery(Mode.LATEST, 1);
+  private static final PauseDelivery DROP = new PauseDelivery(Mode.DROP, 0);
+
+  final Mode mode;
+  final int capacity;
+
+  private PauseDelivery(Mode mode, int capacity) {
+    this.mode = mode;
+    this.capacity = capacity;
+  }
+
+  /**
+   * Holds up to the given number of items, dropping the oldest ones when it is full
+   *
+   * @param capacity the maximum number of held items
+   * @return {@link PauseDelivery}
+   */
+  public static PauseDelivery buffer(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    return new PauseDelivery(Mode.BUFFER, capacity);
+  }
+
+  /**
+   * Holds only the latest item
+   *
+   * @return {@link PauseDelivery}
+   */
+  public static PauseDelivery latest() {
+    return LATEST;
+  }
+
+  /**
+   * Drops all the items emitted while paused
+   *
+   * @return {@link PauseDelivery}
+   */
+  public static PauseDelivery drop() {
+    return DROP;
+  }
+}
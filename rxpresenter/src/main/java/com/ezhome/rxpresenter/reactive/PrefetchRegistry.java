@@ -0,0 +1,143 @@
+package com.ezhome.rxpresenter.reactive;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Action0;
+import rx.schedulers.Schedulers;
+import rx.subjects.ReplaySubject;
+import rx.subscriptions.SerialSubscription;
+
+/**
+ * A registry of the streams which are started ahead of the screen which needs them, keyed by a
+ * request key. The presenter of the current screen prefetches the stream when a navigation is
+ * likely, and the presenter of the next screen takes it over at bind, in flight or completed,
+ * instead of starting it again. A stream which is not taken expires and is unsubscribed.
+ *
+ * <p>Streams registered with the same key must emit the same type of items.
+ */
+public final class PrefetchRegistry {
+
+  private static final PrefetchRegistry INSTANCE = new PrefetchRegistry(Schedulers.computation());
+
+  private final ConcurrentMap<Object, Prefetch<?>> prefetches = new ConcurrentHashMap<>();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong expirations = new AtomicLong();
+  private final Scheduler timer;
+
+  /**
+   * @param timer the scheduler of the expirations, apart from the one running the streams which
+   * may be an immediate one
+   */
+  @VisibleForTesting PrefetchRegistry(@NonNull Scheduler timer) {
+    this.timer = timer;
+  }
+
+  /**
+   * @return the process wide {@link PrefetchRegistry}
+   */
+  public static PrefetchRegistry get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Starts the stream of the key on the given scheduler, unless it is already prefetched
+   *
+   * @param key the request key
+   * @param observable {@link rx.Observable} which is started now
+   * @param scheduler the scheduler to run the stream, usually a low priority one
+   * @param ttl the time after which a stream which is not taken is unsubscribed
+   * @param unit {@link TimeUnit} of the ttl
+   * @param <T> any object for {@link rx.Observable}
+   * @return true if the stream was started
+   */
+  public <T> boolean prefetch(@NonNull final Object key, @NonNull Observable<T> observable,
+      @NonNull Scheduler scheduler, long ttl, @NonNull TimeUnit unit) {
+    final Scheduler.Worker expiry = this.timer.createWorker();
+    final Prefetch<T> prefetch = new Prefetch<>(expiry);
+    if (this.prefetches.putIfAbsent(key, prefetch) != null) {
+      expiry.unsubscribe();
+      return false;
+    }
+    expiry.schedule(new Action0() {
+      @Override public void call() {
+        if (PrefetchRegistry.this.prefetches.remove(key, prefetch)) {
+          PrefetchRegistry.this.expirations.incrementAndGet();
+          prefetch.upstream.unsubscribe();
+        }
+        expiry.unsubscribe();
+      }
+    }, ttl, unit);
+    prefetch.upstream.set(observable.subscribeOn(scheduler).subscribe(prefetch.results));
+    return true;
+  }
+
+  /**
+   * Takes over the prefetched stream of the key, a stream is taken only once. It replays the items
+   * which were already emitted and it is unsubscribed with its last subscriber.
+   *
+   * @param key the request key
+   * @param <T> any object for {@link rx.Observable}
+   * @return the prefetched {@link rx.Observable} or null if there is none
+   */
+  @Nullable @SuppressWarnings("unchecked") public <T> Observable<T> take(@NonNull Object key) {
+    final Prefetch<T> prefetch = (Prefetch<T>) this.prefetches.remove(key);
+    if (prefetch == null) {
+      this.misses.incrementAndGet();
+      return null;
+    }
+    this.hits.incrementAndGet();
+    prefetch.expiry.unsubscribe();
+    return prefetch.results.doOnUnsubscribe(new Action0() {
+      @Override public void call() {
+        prefetch.upstream.unsubscribe();
+      }
+    });
+  }
+
+  /**
+   * @return the number of prefetched streams which were taken
+   */
+  public long hits() {
+    return this.hits.get();
+  }
+
+  /**
+   * @return the number of takes which found no prefetched stream
+   */
+  public long misses() {
+    return this.misses.get();
+  }
+
+  /**
+   * @return the number of prefetched streams which expired before they were taken
+   */
+  public long expirations() {
+    return this.expirations.get();
+  }
+
+  /**
+   * @return the number of prefetched streams which are not taken yet
+   */
+  public int size() {
+    return this.prefetches.size();
+  }
+
+  private static final class Prefetch<T> {
+
+    final ReplaySubject<T> results = ReplaySubject.create();
+    final SerialSubscription upstream = new SerialSubscription();
+    final Scheduler.Worker expiry;
+
+    Prefetch(Scheduler.Worker expiry) {
+      this.expiry = expiry;
+    }
+  }
+}
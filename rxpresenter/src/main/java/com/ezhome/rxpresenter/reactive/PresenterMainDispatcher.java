@@ -0,0 +1,266 @@
+package com.ezhome.rxpresenter.reactive;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import rx.Scheduler;
+import rx.Subscription;
+import rx.functions.Action0;
+import rx.plugins.RxJavaHooks;
+import rx.subscriptions.CompositeSubscription;
+import rx.subscriptions.Subscriptions;
+
+/**
+ * A process wide main thread {@link Scheduler} shared by all the presenter streams. Pending
+ * actions of every worker are collected in a single multi-producer queue and drained in batches,
+ * posting only one {@link Message} per batch instead of one per stream. The messages can be
+ * asynchronous so they are not delayed by sync barriers.
+ *
+ * <p>A dispatcher can also batch on a main thread which is not an Android {@link Looper}, eg. in
+ * JVM tests and benchmarks, see {@link #from(ScheduledExecutorService)}.
+ */
+public final class PresenterMainDispatcher extends Scheduler {
+
+  private final MainThread mainThread;
+  private final Queue<DispatchAction> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pending = new AtomicInteger();
+  private final AtomicLong postedMessages = new AtomicLong();
+
+  private final Runnable drain = new Runnable() {
+    @Override public void run() {
+      PresenterMainDispatcher.this.drain();
+    }
+  };
+
+  @VisibleForTesting PresenterMainDispatcher(@NonNull Looper looper, boolean async) {
+    this(new LooperMainThread(looper, async));
+  }
+
+  private PresenterMainDispatcher(MainThread mainThread) {
+    this.mainThread = mainThread;
+  }
+
+  /**
+   * @return the shared main thread {@link PresenterMainDispatcher}
+   */
+  public static PresenterMainDispatcher get() {
+    return MainHolder.INSTANCE;
+  }
+
+  /**
+   * Creates a dispatcher which posts its batches to the given single threaded executor instead of
+   * a {@link Looper}, one task per batch
+   *
+   * @param executor {@link ScheduledExecutorService} which stands for the main thread
+   * @return {@link PresenterMainDispatcher}
+   */
+  public static PresenterMainDispatcher from(@NonNull ScheduledExecutorService executor) {
+    return new PresenterMainDispatcher(new ExecutorMainThread(executor));
+  }
+
+  /**
+   * @return the number of {@link Message} posted to the main thread so far, one per batch
+   */
+  public long postedMessages() {
+    return this.postedMessages.get();
+  }
+
+  @Override public Worker createWorker() {
+    return new DispatchWorker(this);
+  }
+
+  private void enqueue(DispatchAction action) {
+    this.queue.offer(action);
+    if (this.pending.getAndIncrement() == 0) {
+      this.post();
+    }
+  }
+
+  private void post() {
+    this.postedMessages.incrementAndGet();
+    this.mainThread.post(this.drain);
+  }
+
+  /**
+   * Runs the actions which were pending when the message arrived, anything enqueued meanwhile is
+   * left for the next message so other looper messages are not starved
+   */
+  private void drain() {
+    final int batch = this.pending.get();
+    for (int i = 0; i < batch; i++) {
+      this.queue.poll().run();
+    }
+    if (this.pending.addAndGet(-batch) != 0) {
+      this.post();
+    }
+  }
+
+  private static final class DispatchWorker extends Worker {
+
+    private final PresenterMainDispatcher dispatcher;
+    private final CompositeSubscription tracked = new CompositeSubscription();
+
+    DispatchWorker(PresenterMainDispatcher dispatcher) {
+      this.dispatcher = dispatcher;
+    }
+
+    @Override public Subscription schedule(Action0 action) {
+      return this.schedule(action, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Override public Subscription schedule(Action0 action, long delayTime, TimeUnit unit) {
+      if (this.tracked.isUnsubscribed()) {
+        return Subscriptions.unsubscribed();
+      }
+      final DispatchAction scheduled =
+          new DispatchAction(RxJavaHooks.onScheduledAction(action), this.tracked,
+              this.dispatcher.mainThread);
+      this.tracked.add(scheduled);
+
+      final long delayMillis = unit.toMillis(delayTime);
+      if (delayMillis <= 0) {
+        this.dispatcher.enqueue(scheduled);
+      } else {
+        scheduled.delayed = new Runnable() {
+          @Override public void run() {
+            dispatcher.enqueue(scheduled);
+          }
+        };
+        this.dispatcher.mainThread.postDelayed(scheduled.delayed, delayMillis);
+      }
+      return scheduled;
+    }
+
+    @Override public void unsubscribe() {
+      this.tracked.unsubscribe();
+    }
+
+    @Override public boolean isUnsubscribed() {
+      return this.tracked.isUnsubscribed();
+    }
+  }
+
+  private static final class DispatchAction implements Runnable, Subscription {
+
+    private final Action0 action;
+    private final CompositeSubscription parent;
+    private final MainThread mainThread;
+    private volatile boolean unsubscribed;
+    private volatile Runnable delayed;
+
+    DispatchAction(Action0 action, CompositeSubscription parent, MainThread mainThread) {
+      this.action = action;
+      this.parent = parent;
+      this.mainThread = mainThread;
+    }
+
+    @Override public void run() {
+      if (this.unsubscribed) {
+        return;
+      }
+      try {
+        this.action.call();
+      } catch (Throwable e) {
+        final IllegalStateException fatal =
+            new IllegalStateException("Fatal Exception thrown on PresenterMainDispatcher.", e);
+        RxJavaHooks.onError(fatal);
+        final Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, fatal);
+      } finally {
+        this.unsubscribe();
+      }
+    }
+
+    @Override public void unsubscribe() {
+      if (this.unsubscribed) {
+        return;
+      }
+      this.unsubscribed = true;
+      if (this.delayed != null) {
+        this.mainThread.removeCallbacks(this.delayed);
+      }
+      this.parent.remove(this);
+    }
+
+    @Override public boolean isUnsubscribed() {
+      return this.unsubscribed;
+    }
+  }
+
+  /**
+   * The main {@link Looper} is looked up only when the shared dispatcher is used
+   */
+  private static final class MainHolder {
+    static final PresenterMainDispatcher INSTANCE =
+        new PresenterMainDispatcher(Looper.getMainLooper(), true);
+  }
+
+  /**
+   * Runs the batches and the delayed actions of the dispatcher
+   */
+  private interface MainThread {
+
+    void post(Runnable runnable);
+
+    void postDelayed(Runnable runnable, long delayMillis);
+
+    void removeCallbacks(Runnable runnable);
+  }
+
+  private static final class LooperMainThread implements MainThread {
+
+    private final Handler handler;
+    private final boolean async;
+
+    LooperMainThread(Looper looper, boolean async) {
+      this.handler = new Handler(looper);
+      this.async = async;
+    }
+
+    @Override public void post(Runnable runnable) {
+      final Message message = Message.obtain(this.handler, runnable);
+      if (this.async && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP_MR1) {
+        message.setAsynchronous(true);
+      }
+      this.handler.sendMessage(message);
+    }
+
+    @Override public void postDelayed(Runnable runnable, long delayMillis) {
+      this.handler.postDelayed(runnable, delayMillis);
+    }
+
+    @Override public void removeCallbacks(Runnable runnable) {
+      this.handler.removeCallbacks(runnable);
+    }
+  }
+
+  private static final class ExecutorMainThread implements MainThread {
+
+    private final ScheduledExecutorService executor;
+
+    ExecutorMainThread(ScheduledExecutorService executor) {
+      this.executor = executor;
+    }
+
+    @Override public void post(Runnable runnable) {
+      this.executor.execute(runnable);
+    }
+
+    @Override public void postDelayed(Runnable runnable, long delayMillis) {
+      this.executor.schedule(runnable, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override public void removeCallbacks(Runnable runnable) {
+      //an unsubscribed action is skipped when its delayed task runs
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package com.ezhome.rxpresenter.reactive;
+
+import android.os.Process;
+import android.support.annotation.NonNull;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
+
+/**
+ * Default scheduler lanes for the presenter streams. The {@link Lane#VISIBLE},
+ * {@link Lane#PREFETCH} and {@link Lane#CPU} lanes have their own bounded thread pool, thread
+ * priority and work queue, so prefetch work does not compete with user visible loads and CPU bound
+ * work does not run on the IO pool. The {@link Lane#IO} lane, the default one, is
+ * {@link Schedulers#io()} so blocking calls never queue behind each other.
+ */
+public final class PresenterSchedulers {
+
+  /**
+   * The available lanes
+   */
+  public enum Lane {
+    /**
+     * Loads whose result is rendered right away
+     */
+    VISIBLE,
+    /**
+     * Speculative work, runs with the lowest priority
+     */
+    PREFETCH,
+    /**
+     * CPU bound work like parsing, sized to the number of cores
+     */
+    CPU,
+    /**
+     * Blocking IO like network and database, runs on the unbounded {@link Schedulers#io()}
+     */
+    IO
+  }
+
+  private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
+  private static final long KEEP_ALIVE_SECONDS = 30;
+
+  private PresenterSchedulers() {
+    throw new AssertionError("No instances.");
+  }
+
+  /**
+   * @param lane {@link Lane}
+   * @return the default {@link Scheduler} of the given lane
+   */
+  public static Scheduler lane(@NonNull Lane lane) {
+    switch (lane) {
+      case VISIBLE:
+        return VisibleHolder.SCHEDULER;
+      case PREFETCH:
+        return PrefetchHolder.SCHEDULER;
+      case CPU:
+        return CpuHolder.SCHEDULER;
+      default:
+        return Schedulers.io();
+    }
+  }
+
+  private static Scheduler newLane(String name, int threads, int priority) {
+    final ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(), new LaneThreadFactory(name, priority));
+    executor.allowCoreThreadTimeOut(true);
+    return Schedulers.from(executor);
+  }
+
+  private static final class VisibleHolder {
+    static final Scheduler SCHEDULER = newLane("RxPresenter-visible", Math.max(2, CPU_COUNT),
+        Process.THREAD_PRIORITY_BACKGROUND + Process.THREAD_PRIORITY_MORE_FAVORABLE);
+  }
+
+  private static final class PrefetchHolder {
+    static final Scheduler SCHEDULER =
+        newLane("RxPresenter-prefetch", 2, Process.THREAD_PRIORITY_LOWEST);
+  }
+
+  private static final class CpuHolder {
+    static final Scheduler SCHEDULER =
+        newLane("RxPresenter-cpu", CPU_COUNT, Process.THREAD_PRIORITY_BACKGROUND);
+  }
+
+  /**
+   * Creates daemon threads which run with the priority of their lane
+   */
+  private static final class LaneThreadFactory implements ThreadFactory {
+
+    private final String name;
+    private final int priority;
+    private final AtomicInteger count = new AtomicInteger();
+
+    LaneThreadFactory(String name, int priority) {
+      this.name = name;
+      this.priority = priority;
+    }
+
+    @Override public Thread newThread(@NonNull final Runnable runnable) {
+      final Thread thread = new Thread(new Runnable() {
+        @Override public void run() {
+          Process.setThreadPriority(priority);
+          runnable.run();
+        }
+      }, this.name + "-" + this.count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package com.ezhome.rxpresenter.reactive;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Action0;
+import rx.functions.Func0;
+
+/**
+ * A reference counted registry of in-flight streams keyed by a request key. Callers which share
+ * a stream with the same key join the running upstream instead of subscribing it again. The entry
+ * is removed when the upstream terminates or the last subscriber unsubscribes.
+ *
+ * <p>Streams registered with the same key must emit the same type of items.
+ */
+public final class SharedStreamRegistry {
+
+  private static final SharedStreamRegistry INSTANCE = new SharedStreamRegistry();
+
+  private final ConcurrentMap<Object, Observable<?>> streams = new ConcurrentHashMap<>();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  @VisibleForTesting SharedStreamRegistry() {
+  }
+
+  /**
+   * @return the process wide {@link SharedStreamRegistry}
+   */
+  public static SharedStreamRegistry get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns a stream which, when subscribed, joins the in-flight stream of the given key or
+   * registers the given observable as the stream of this key. Nothing is registered until the
+   * returned stream is subscribed, so a stream which is never subscribed is never handed to
+   * other callers.
+   *
+   * @param key the request key
+   * @param observable {@link rx.Observable} which runs when there is no in-flight stream
+   * @param scheduler the scheduler to run the stream
+   * @param <T> any object for {@link rx.Observable}
+   * @return {@link rx.Observable} shared by all the subscribers of this key
+   */
+  public <T> Observable<T> share(@NonNull final Object key, @NonNull final Observable<T> observable,
+      @NonNull final Scheduler scheduler) {
+    return Observable.defer(new Func0<Observable<T>>() {
+      @Override public Observable<T> call() {
+        return join(key, observable, scheduler);
+      }
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> Observable<T> join(final Object key, Observable<T> observable, Scheduler scheduler) {
+    final Observable<T> existing = (Observable<T>) this.streams.get(key);
+    if (existing != null) {
+      this.hits.incrementAndGet();
+      return existing;
+    }
+
+    final AtomicReference<Observable<T>> entry = new AtomicReference<>();
+    final Action0 release = new Action0() {
+      @Override public void call() {
+        streams.remove(key, entry.get());
+      }
+    };
+    final Observable<T> shared = observable.subscribeOn(scheduler)
+        .doAfterTerminate(release)
+        .doOnUnsubscribe(release)
+        .publish()
+        .refCount();
+    entry.set(shared);
+
+    final Observable<T> raced = (Observable<T>) this.streams.putIfAbsent(key, shared);
+    if (raced != null) {
+      this.hits.incrementAndGet();
+      return raced;
+    }
+    this.misses.incrementAndGet();
+    return shared;
+  }
+
+  /**
+   * @return the number of subscribers which joined an in-flight stream
+   */
+  public long hits() {
+    return this.hits.get();
+  }
+
+  /**
+   * @return the number of subscribers which started a new stream
+   */
+  public long misses() {
+    return this.misses.get();
+  }
+
+  /**
+   * @return the number of in-flight streams
+   */
+  public int size() {
+    return this.streams.size();
+  }
+}
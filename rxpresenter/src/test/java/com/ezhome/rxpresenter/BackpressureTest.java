@@ -0,0 +1,131 @@
+package com.ezhome.rxpresenter;
+
+import com.ezhome.rxpresenter.reactive.Backpressure;
+import com.ezhome.rxpresenter.reactive.PresenterSchedulers.Lane;
+import com.trello.navi.component.NaviActivity;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+import rx.exceptions.MissingBackpressureException;
+import rx.functions.Action0;
+import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+import rx.subjects.PublishSubject;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class BackpressureTest {
+
+  private static final int ITEMS = 100000;
+
+  private TestRxPresenter presenter;
+  private PublishSubject<Integer> subject;
+  private TestSubscriber<Integer> slowSubscriber;
+
+  @Before public void setUp() throws Exception {
+    //the stream emits on the test thread, a slow main thread receives it on another one
+    RxPresenterPlugins.setLaneScheduler(Lane.IO, Schedulers.immediate());
+    RxPresenterPlugins.setMainThreadScheduler(Schedulers.newThread());
+    final ActivityController controller =
+        Robolectric.buildActivity(RxPresenterTest.TestActivity.class).create().start();
+    this.presenter = new TestRxPresenter();
+    this.presenter.bind((NaviActivity) controller.get());
+    this.subject = PublishSubject.create();
+    this.slowSubscriber = new TestSubscriber<Integer>() {
+      @Override public void onNext(Integer value) {
+        if (value % 100 == 0) {
+          sleep();
+        }
+        super.onNext(value);
+      }
+    };
+  }
+
+  @After public void tearDown() throws Exception {
+    RxPresenterPlugins.reset();
+  }
+
+  @Test public void testLatestDeliversTheLastItem() throws Exception {
+    this.emit(Backpressure.latest());
+
+    this.slowSubscriber.assertNoErrors();
+    this.slowSubscriber.assertCompleted();
+    final List<Integer> values = this.slowSubscriber.getOnNextEvents();
+    assertTrue(values.size() < ITEMS);
+    assertEquals(ITEMS - 1, (int) values.get(values.size() - 1));
+  }
+
+  @Test public void testDropDeliversSomeItemsInOrder() throws Exception {
+    this.emit(Backpressure.drop());
+
+    this.slowSubscriber.assertNoErrors();
+    this.slowSubscriber.assertCompleted();
+    final List<Integer> values = this.slowSubscriber.getOnNextEvents();
+    assertTrue(values.size() < ITEMS);
+    for (int i = 1; i < values.size(); i++) {
+      assertTrue(values.get(i - 1) < values.get(i));
+    }
+  }
+
+  @Test public void testBufferDropsTheOldestItemsOnOverflow() throws Exception {
+    final AtomicInteger overflows = new AtomicInteger();
+    this.emit(Backpressure.buffer(16, new Action0() {
+      @Override public void call() {
+        overflows.incrementAndGet();
+      }
+    }));
+
+    this.slowSubscriber.assertNoErrors();
+    this.slowSubscriber.assertCompleted();
+    final List<Integer> values = this.slowSubscriber.getOnNextEvents();
+    assertTrue(overflows.get() > 0);
+    assertEquals(ITEMS, values.size() + overflows.get());
+    assertEquals(ITEMS - 1, (int) values.get(values.size() - 1));
+  }
+
+  @Test public void testErrorFailsWhenTheBufferIsFull() throws Exception {
+    this.emit(Backpressure.error().observeOnBufferSize(16));
+
+    this.slowSubscriber.assertError(MissingBackpressureException.class);
+  }
+
+  @Test public void testObserveOnBufferSizeHoldsEveryItem() throws Exception {
+    this.emit(Backpressure.error().observeOnBufferSize(ITEMS));
+
+    this.slowSubscriber.assertNoErrors();
+    this.slowSubscriber.assertCompleted();
+    this.slowSubscriber.assertValueCount(ITEMS);
+  }
+
+  /**
+   * Binds the stream with the given policy and emits every item from the test thread as fast as
+   * possible while the subscriber receives them on the slow main thread
+   */
+  private void emit(Backpressure backpressure) {
+    this.presenter.bindLifecycle(this.subject, backpressure, this.slowSubscriber);
+    for (int i = 0; i < ITEMS; i++) {
+      this.subject.onNext(i);
+    }
+    this.subject.onCompleted();
+    this.slowSubscriber.awaitTerminalEvent(30, TimeUnit.SECONDS);
+  }
+
+  private static void sleep() {
+    try {
+      Thread.sleep(1);
+    } catch (InterruptedException e) {
+      throw new AssertionError(e);
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package com.ezhome.rxpresenter;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import com.ezhome.rxpresenter.reactive.PresenterSchedulers.Lane;
+import com.trello.navi.component.NaviActivity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+import rx.subjects.PublishSubject;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class ItemPresenterPoolTest {
+
+  private static final int ROWS = 10000;
+  private static final int HOLDERS = 12;
+
+  private final TestMvpView rowView = new TestMvpView() {
+  };
+
+  private ActivityController controller;
+  private ItemPresenterPool<TestMvpView, TestItemRxPresenter> pool;
+
+  @Before public void setUp() throws Exception {
+    RxPresenterPlugins.setLaneScheduler(Lane.IO, Schedulers.immediate());
+    this.controller = Robolectric.buildActivity(RxPresenterTest.TestActivity.class);
+    final TestRxPresenter parent = new TestRxPresenter();
+    parent.bind((NaviActivity) this.controller.get());
+    this.controller.create().start();
+    this.pool = parent.itemPresenterPool(new ItemPresenterPool.Factory<TestItemRxPresenter>() {
+      @Override public TestItemRxPresenter create() {
+        return new TestItemRxPresenter();
+      }
+    });
+  }
+
+  @After public void tearDown() throws Exception {
+    RxPresenterPlugins.reset();
+  }
+
+  @Test public void testRecycledRowCancelsItsStreamsAndReturnsThePresenter() throws Exception {
+    final RecyclerView.ViewHolder first = newHolder();
+    final PublishSubject<Integer> subject = PublishSubject.create();
+    final TestSubscriber<Integer> testSubscriber = TestSubscriber.create();
+
+    final TestItemRxPresenter presenter = this.pool.bind(first, this.rowView);
+    presenter.show(subject, testSubscriber);
+    subject.onNext(1);
+    testSubscriber.assertValue(1);
+
+    this.pool.onViewRecycled(first);
+    assertFalse(subject.hasObservers());
+    assertNull(presenter.view);
+    assertNull(presenter.holder());
+    assertEquals(1, presenter.unbindCount);
+
+    assertSame(presenter, this.pool.bind(newHolder(), this.rowView));
+    assertEquals(1, this.pool.created());
+  }
+
+  @Test public void testDetachedRowCancelsItsStreams() throws Exception {
+    final RecyclerView.ViewHolder holder = newHolder();
+    final PublishSubject<Integer> subject = PublishSubject.create();
+
+    final TestItemRxPresenter presenter = this.pool.bind(holder, this.rowView);
+    presenter.show(subject, TestSubscriber.<Integer>create());
+    this.pool.onViewDetachedFromWindow(holder);
+    assertFalse(subject.hasObservers());
+    assertSame(this.rowView, presenter.view);
+
+    this.pool.onViewAttachedToWindow(holder);
+    assertEquals(1, presenter.attachCount);
+  }
+
+  @Test public void testReboundRowKeepsItsPresenter() throws Exception {
+    final RecyclerView.ViewHolder holder = newHolder();
+    final PublishSubject<Integer> previousItem = PublishSubject.create();
+
+    final TestItemRxPresenter presenter = this.pool.bind(holder, this.rowView);
+    presenter.show(previousItem, TestSubscriber.<Integer>create());
+
+    assertSame(presenter, this.pool.bind(holder, this.rowView));
+    assertFalse(previousItem.hasObservers());
+    assertEquals(1, this.pool.boundCount());
+  }
+
+  @Test public void testParentLifecycleEndUnbindsEveryRow() throws Exception {
+    final PublishSubject<Integer> subject = PublishSubject.create();
+    for (int i = 0; i < HOLDERS; i++) {
+      this.pool.bind(newHolder(), this.rowView).show(subject, TestSubscriber.<Integer>create());
+    }
+    assertTrue(subject.hasObservers());
+
+    this.controller.stop().destroy();
+    assertFalse(subject.hasObservers());
+    assertEquals(0, this.pool.boundCount());
+  }
+
+  @Test public void testPoolsAreReleasedWhenTheViewIsDestroyedTwice() throws Exception {
+    final TestRxPresenter parent = new TestRxPresenter();
+    final ItemPresenterPool.Factory<TestItemRxPresenter> factory =
+        new ItemPresenterPool.Factory<TestItemRxPresenter>() {
+          @Override public TestItemRxPresenter create() {
+            return new TestItemRxPresenter();
+          }
+        };
+    final ItemPresenterPool<TestMvpView, TestItemRxPresenter> kept =
+        parent.itemPresenterPool(factory);
+    for (int i = 0; i < 2; i++) {
+      final ActivityController activity =
+          Robolectric.buildActivity(RxPresenterTest.TestActivity.class);
+      parent.bind((NaviActivity) activity.get());
+      activity.create().start();
+      final PublishSubject<Integer> subject = PublishSubject.create();
+      parent.itemPresenterPool(factory)
+          .bind(newHolder(), this.rowView)
+          .show(subject, TestSubscriber.<Integer>create());
+      kept.bind(newHolder(), this.rowView).show(subject, TestSubscriber.<Integer>create());
+      assertEquals(2, parent.itemPoolCount());
+
+      activity.stop().destroy();
+      assertEquals(0, parent.itemPoolCount());
+      assertFalse(subject.hasObservers());
+      assertEquals(0, kept.boundCount());
+    }
+  }
+
+  @Test public void testScrollingReusesThePresenters() throws Exception {
+    final RecyclerView.ViewHolder[] holders = new RecyclerView.ViewHolder[HOLDERS];
+    for (int i = 0; i < HOLDERS; i++) {
+      holders[i] = newHolder();
+    }
+    for (int row = 0; row < ROWS; row++) {
+      final RecyclerView.ViewHolder holder = holders[row % HOLDERS];
+      this.pool.onViewRecycled(holder);
+      this.pool.bind(holder, this.rowView);
+    }
+    assertEquals(HOLDERS, this.pool.created());
+  }
+
+  private static RecyclerView.ViewHolder newHolder() {
+    return new RecyclerView.ViewHolder(new View(RuntimeEnvironment.application)) {
+    };
+  }
+}
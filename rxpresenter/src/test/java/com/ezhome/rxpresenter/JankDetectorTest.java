@@ -0,0 +1,126 @@
+package com.ezhome.rxpresenter;
+
+import com.ezhome.rxpresenter.reactive.DefaultSubscriber;
+import com.ezhome.rxpresenter.reactive.PresenterSchedulers.Lane;
+import com.trello.navi.component.NaviActivity;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import rx.schedulers.Schedulers;
+import rx.subjects.PublishSubject;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class JankDetectorTest {
+
+  private static final long SLOW_MILLIS = 20;
+
+  private JankDetector detector;
+
+  @Before public void setUp() throws Exception {
+    this.detector = new JankDetector(8, TimeUnit.MILLISECONDS, 2);
+  }
+
+  @After public void tearDown() throws Exception {
+    RxPresenterPlugins.reset();
+  }
+
+  @Test public void testSlowDeliveriesAreAttributedToThePresenterAndTheTag() throws Exception {
+    RxPresenterPlugins.setLaneScheduler(Lane.IO, Schedulers.immediate());
+    RxPresenterPlugins.setMainThreadScheduler(Schedulers.immediate());
+    RxPresenterPlugins.setJankDetector(this.detector);
+    final TestRxPresenter presenter = new TestRxPresenter();
+    presenter.bind((NaviActivity) Robolectric.buildActivity(RxPresenterTest.TestActivity.class)
+        .create()
+        .start()
+        .get());
+
+    final PublishSubject<Integer> feed = PublishSubject.create();
+    presenter.bindLifecycle("feed", feed, new DefaultSubscriber<Integer>() {
+      @Override public void onNext(Integer integer) {
+        if (integer > 1) {
+          sleep(SLOW_MILLIS);
+        }
+      }
+    });
+    feed.onNext(1);
+    feed.onNext(2);
+    feed.onNext(3);
+
+    final List<JankDetector.Offender> offenders = this.detector.offenders();
+    assertEquals(1, offenders.size());
+    assertEquals(TestRxPresenter.class.getName(), offenders.get(0).presenter());
+    assertEquals("feed", offenders.get(0).tag());
+    assertEquals(2, offenders.get(0).count());
+    assertTrue(offenders.get(0).worstNanos() >= TimeUnit.MILLISECONDS.toNanos(SLOW_MILLIS));
+    assertTrue(this.detector.dump().contains("[feed] slow deliveries: 2"));
+  }
+
+  @Test public void testDeliveriesOffTheMainThreadAreNotTimed() throws Exception {
+    RxPresenterPlugins.setLaneScheduler(Lane.IO, Schedulers.immediate());
+    RxPresenterPlugins.setMainThreadScheduler(Schedulers.immediate());
+    RxPresenterPlugins.setJankDetector(this.detector);
+    final TestRxPresenter presenter = new TestRxPresenter();
+    presenter.bind((NaviActivity) Robolectric.buildActivity(RxPresenterTest.TestActivity.class)
+        .create()
+        .start()
+        .get());
+
+    final PublishSubject<Integer> feed = PublishSubject.create();
+    presenter.bindLifecycle("feed", feed, new DefaultSubscriber<Integer>() {
+      @Override public void onNext(Integer integer) {
+        sleep(SLOW_MILLIS);
+      }
+    });
+    final Thread worker = new Thread(new Runnable() {
+      @Override public void run() {
+        feed.onNext(1);
+      }
+    });
+    worker.start();
+    worker.join();
+
+    assertTrue(this.detector.offenders().isEmpty());
+  }
+
+  @Test public void testOnlyTheWorstOffendersAreKept() throws Exception {
+    this.deliver("a", 10);
+    this.deliver("b", 30);
+    this.deliver("c", 20);
+    this.deliver("d", 5);
+    this.deliver("e", 1);
+
+    final List<JankDetector.Offender> offenders = this.detector.offenders();
+    assertEquals(2, offenders.size());
+    assertEquals("b", offenders.get(0).tag());
+    assertEquals("c", offenders.get(1).tag());
+  }
+
+  @Test public void testClear() throws Exception {
+    this.deliver("a", 10);
+    this.detector.clear();
+    assertTrue(this.detector.offenders().isEmpty());
+  }
+
+  private void deliver(String tag, long millis) {
+    this.detector.onDelivery(TestRxPresenter.class, tag,
+        System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(millis));
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      throw new AssertionError(e);
+    }
+  }
+}
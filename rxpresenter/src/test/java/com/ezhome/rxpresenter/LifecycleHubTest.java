@@ -0,0 +1,95 @@
+package com.ezhome.rxpresenter;
+
+import android.support.v4.app.FragmentActivity;
+import com.trello.navi.component.NaviActivity;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+import rx.subjects.PublishSubject;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNotSame;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class LifecycleHubTest {
+
+  private static final int PRESENTERS = 8;
+
+  @Test public void testPresentersOfOneComponentShareTheHub() throws Exception {
+    final ActivityController controller =
+        Robolectric.buildActivity(RxPresenterTest.TestActivity.class);
+    final NaviActivity activity = (NaviActivity) controller.get();
+    final PublishSubject<Object> subject = PublishSubject.create();
+
+    final List<TestRxPresenter> presenters = new ArrayList<>();
+    final List<TestSubscriber<Object>> subscribers = new ArrayList<>();
+    for (int i = 0; i < PRESENTERS; i++) {
+      final TestRxPresenter presenter = new TestRxPresenter();
+      presenter.bind(activity);
+      final TestSubscriber<Object> testSubscriber = TestSubscriber.create();
+      presenter.bindLifecycle(subject, Schedulers.immediate(), testSubscriber);
+      presenters.add(presenter);
+      subscribers.add(testSubscriber);
+    }
+    final LifecycleHub hub = LifecycleHub.of(activity, false);
+    assertEquals(PRESENTERS, hub.size());
+
+    controller.create().start().resume();
+    for (TestRxPresenter presenter : presenters) {
+      assertNotNull(presenter.view);
+    }
+
+    controller.pause().stop().destroy();
+    for (int i = 0; i < PRESENTERS; i++) {
+      assertNull(presenters.get(i).view);
+      assertEquals(1, presenters.get(i).destroyCount);
+      subscribers.get(i).assertCompleted();
+    }
+    assertEquals(0, hub.size());
+  }
+
+  @Test public void testRebindMovesThePresenterToTheNewComponent() throws Exception {
+    final NaviActivity first =
+        (NaviActivity) Robolectric.buildActivity(RxPresenterTest.TestActivity.class).get();
+    final ActivityController second =
+        Robolectric.buildActivity(RxPresenterTest.TestActivity.class);
+    final TestRxPresenter presenter = new TestRxPresenter();
+
+    presenter.bind(first);
+    presenter.bind((NaviActivity) second.get());
+
+    assertEquals(0, LifecycleHub.of(first, false).size());
+    assertEquals(1, LifecycleHub.of((NaviActivity) second.get(), false).size());
+    assertNotSame(LifecycleHub.of(first, false),
+        LifecycleHub.of((NaviActivity) second.get(), false));
+
+    second.create().start();
+    assertNotNull(presenter.view);
+  }
+
+  @Test public void testFragmentHubIsCreatedOnce() throws Exception {
+    final RxPresenterTest.TestFragment fragment = new RxPresenterTest.TestFragment();
+    Robolectric.setupActivity(FragmentActivity.class)
+        .getSupportFragmentManager()
+        .beginTransaction()
+        .add(fragment, null)
+        .commit();
+
+    new TestRxPresenter().bind(fragment);
+    new TestRxPresenter().bind(fragment);
+
+    assertSame(LifecycleHub.of(fragment, true), LifecycleHub.of(fragment, true));
+    assertEquals(2, LifecycleHub.of(fragment, true).size());
+  }
+}
@@ -0,0 +1,167 @@
+package com.ezhome.rxpresenter;
+
+import android.support.annotation.Nullable;
+import com.ezhome.rxpresenter.reactive.DefaultSubscriber;
+import com.ezhome.rxpresenter.reactive.PresenterSchedulers.Lane;
+import com.trello.navi.component.NaviActivity;
+import java.io.File;
+import java.io.StringWriter;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+import rx.schedulers.Schedulers;
+import rx.subjects.PublishSubject;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class LifecycleTraceTest {
+
+  private final List<String> sunk = new ArrayList<>();
+  private LifecycleTrace trace;
+
+  @Before public void setUp() throws Exception {
+    RxPresenterPlugins.setLaneScheduler(Lane.IO, Schedulers.immediate());
+    RxPresenterPlugins.setMainThreadScheduler(Schedulers.immediate());
+    this.trace = new LifecycleTrace(64, new LifecycleTrace.Sink() {
+      @Override public void onEvent(int presenterId, int kind, @Nullable String tag,
+          long timestampNanos) {
+        sunk.add(LifecycleTrace.kindName(kind));
+      }
+    });
+    RxPresenterPlugins.setTrace(this.trace);
+  }
+
+  @After public void tearDown() throws Exception {
+    RxPresenterPlugins.reset();
+  }
+
+  @Test public void testTracesThePresenterLifecycle() throws Exception {
+    final ActivityController controller =
+        Robolectric.buildActivity(RxPresenterTest.TestActivity.class);
+    final TestRxPresenter presenter = new TestRxPresenter();
+    presenter.bind((NaviActivity) controller.get());
+    controller.create().start().resume();
+    presenter.bindLifecycle("feed", PublishSubject.<Integer>create(),
+        new DefaultSubscriber<Integer>());
+    controller.pause().stop().destroy();
+
+    final String id = "#" + presenter.id + ' ';
+    assertEquals(Arrays.asList(
+        id + "BIND " + TestRxPresenter.class.getName(),
+        id + "VIEW_BOUND",
+        id + "RESUME",
+        id + "SUBSCRIBE feed",
+        id + "PAUSE",
+        id + "UNSUBSCRIBE feed",
+        id + "DESTROY"), events(this.trace));
+    assertEquals(Arrays.asList("BIND", "VIEW_BOUND", "RESUME", "SUBSCRIBE", "PAUSE",
+        "UNSUBSCRIBE", "DESTROY"), this.sunk);
+  }
+
+  @Test public void testKeepsTheLatestEvents() throws Exception {
+    final LifecycleTrace small = new LifecycleTrace(3);
+    assertEquals(4, small.capacity());
+    for (int i = 0; i < 10; i++) {
+      small.record(i, LifecycleTrace.SUBSCRIBE, "stream" + i % 2);
+    }
+
+    assertEquals(Arrays.asList("#6 SUBSCRIBE stream0", "#7 SUBSCRIBE stream1",
+        "#8 SUBSCRIBE stream0", "#9 SUBSCRIBE stream1"), events(small));
+    assertEquals(0, small.dropped());
+  }
+
+  @Test(timeout = 5000) public void testWriterDropsItsEventInsteadOfWaitingForASlowerOne()
+      throws Exception {
+    final LifecycleTrace small = new LifecycleTrace(1);
+    small.record(0, LifecycleTrace.RESUME, null);
+    //the slot looks held by the writer of the sequence 1, which never publishes it
+    final Field field = LifecycleTrace.class.getDeclaredField("sequences");
+    field.setAccessible(true);
+    ((AtomicLongArray) field.get(small)).set(0, -1 - 2);
+    small.record(1, LifecycleTrace.PAUSE, null);
+    small.record(2, LifecycleTrace.DETACH, null);
+
+    assertEquals(2, small.dropped());
+  }
+
+  @Test public void testConcurrentWritersAndDumpToFile() throws Exception {
+    final LifecycleTrace shared = new LifecycleTrace(64);
+    final int threads = 4;
+    final int events = 10000;
+    final CountDownLatch start = new CountDownLatch(1);
+    final CountDownLatch done = new CountDownLatch(threads);
+    for (int t = 0; t < threads; t++) {
+      final int presenterId = t;
+      final String tag = "thread" + t;
+      new Thread(new Runnable() {
+        @Override public void run() {
+          try {
+            start.await();
+            for (int i = 0; i < events; i++) {
+              shared.record(presenterId, LifecycleTrace.RESUME + presenterId, tag);
+            }
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          } finally {
+            done.countDown();
+          }
+        }
+      }).start();
+    }
+    start.countDown();
+    done.await();
+
+    final File file = File.createTempFile("trace", ".txt");
+    try {
+      shared.dump(file);
+      final Scanner scanner = new Scanner(file);
+      final String[] kinds = {"RESUME", "PAUSE", "DETACH", "DESTROY"};
+      int lines = 0;
+      while (scanner.hasNextLine()) {
+        final String line = scanner.nextLine();
+        //the fields of an event are never mixed with the fields of another one
+        final Matcher matcher = Pattern.compile("\\d+us #([0-3]) (\\w+) thread([0-3])")
+            .matcher(line);
+        assertTrue(line, matcher.matches());
+        final int presenterId = Integer.parseInt(matcher.group(1));
+        assertEquals(line, kinds[presenterId], matcher.group(2));
+        assertEquals(line, presenterId, Integer.parseInt(matcher.group(3)));
+        lines++;
+      }
+      scanner.close();
+      assertTrue(String.valueOf(lines), lines > 0 && lines <= shared.capacity());
+    } finally {
+      file.delete();
+    }
+  }
+
+  /**
+   * @return the dumped events without the relative time
+   */
+  private static List<String> events(LifecycleTrace trace) throws Exception {
+    final StringWriter writer = new StringWriter();
+    trace.dump(writer);
+    final List<String> events = new ArrayList<>();
+    for (String line : writer.toString().split("\n")) {
+      events.add(line.substring(line.indexOf('#')));
+    }
+    return events;
+  }
+}
@@ -0,0 +1,156 @@
+package com.ezhome.rxpresenter;
+
+import android.support.annotation.NonNull;
+import android.support.v4.app.FragmentActivity;
+import com.trello.navi.NaviComponent;
+import com.trello.navi.component.NaviActivity;
+import com.trello.navi.component.support.NaviFragment;
+import com.trello.rxlifecycle.android.FragmentEvent;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+import rx.Subscription;
+import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+import rx.subjects.PublishSubject;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class PresenterMetricsTest {
+
+  private final RecordingMetrics metrics = new RecordingMetrics();
+  private TestRxPresenter presenter;
+  private ActivityController controller;
+
+  @Before public void setUp() throws Exception {
+    RxPresenterPlugins.setMainThreadScheduler(Schedulers.immediate());
+    RxPresenterPlugins.setMetrics(this.metrics);
+    this.presenter = new TestRxPresenter();
+    this.controller = Robolectric.buildActivity(RxPresenterTest.TestActivity.class);
+    this.presenter.bind((NaviActivity) this.controller.get());
+    this.controller.create().start();
+  }
+
+  @After public void tearDown() throws Exception {
+    RxPresenterPlugins.reset();
+  }
+
+  @Test public void testMetricsFollowTheBoundStreams() throws Exception {
+    final PublishSubject<Integer> first = PublishSubject.create();
+    final PublishSubject<Integer> second = PublishSubject.create();
+    final TestSubscriber<Integer> firstSubscriber = TestSubscriber.create();
+    final TestSubscriber<Integer> secondSubscriber = TestSubscriber.create();
+
+    this.presenter.bindLifecycle(first, Schedulers.immediate(), firstSubscriber);
+    this.presenter.bindLifecycle(second, Schedulers.immediate(), secondSubscriber);
+    first.onNext(1);
+    first.onNext(2);
+    second.onError(new IllegalStateException());
+
+    firstSubscriber.assertValues(1, 2);
+    secondSubscriber.assertError(IllegalStateException.class);
+    assertEquals(1, this.metrics.binds);
+    assertEquals("[1, 2, 1]", this.metrics.live.toString());
+    assertEquals(2, this.metrics.latencies.size());
+    assertTrue(this.metrics.latencies.get(0) >= 0);
+    assertEquals("[0, 0]", this.metrics.depths.toString());
+    assertEquals(1, this.metrics.errors);
+
+    this.controller.destroy();
+    assertEquals("[1, 2, 1, 0]", this.metrics.live.toString());
+    assertEquals(0, this.metrics.liveOnDestroy);
+  }
+
+  @Test public void testBindUntilEventReportsTheItems() throws Exception {
+    final NaviFragment fragment = new RxPresenterTest.TestFragment();
+    Robolectric.setupActivity(FragmentActivity.class)
+        .getSupportFragmentManager()
+        .beginTransaction()
+        .add(fragment, null)
+        .commit();
+    final TestRxPresenter fragmentPresenter = new TestRxPresenter();
+    fragmentPresenter.bind(fragment);
+    final PublishSubject<Integer> subject = PublishSubject.create();
+    final TestSubscriber<Integer> subscriber = TestSubscriber.create();
+
+    fragmentPresenter.bindUntilEvent(subject, FragmentEvent.STOP, subscriber);
+    subject.onNext(1);
+    subject.onNext(2);
+
+    subscriber.assertValues(1, 2);
+    assertEquals("[1]", this.metrics.live.toString());
+    assertEquals(2, this.metrics.latencies.size());
+    assertTrue(this.metrics.latencies.get(0) >= 0);
+    assertEquals("[0, 0]", this.metrics.depths.toString());
+
+    subscriber.unsubscribe();
+    assertEquals("[1, 0]", this.metrics.live.toString());
+  }
+
+  @Test public void testDestroyReportsLeakedStreams() throws Exception {
+    final Subscription subscription =
+        this.presenter.bindLifecycle(PublishSubject.<Integer>create(), Schedulers.immediate(),
+            TestSubscriber.<Integer>create());
+    this.presenter.destroy();
+    assertEquals(1, this.metrics.liveOnDestroy);
+    subscription.unsubscribe();
+  }
+
+  @Test public void testNoneIsNotCalled() throws Exception {
+    RxPresenterPlugins.setMetrics(null);
+    final PublishSubject<Integer> subject = PublishSubject.create();
+    this.presenter.bindLifecycle(subject, Schedulers.immediate(), TestSubscriber.<Integer>create());
+    subject.onNext(1);
+    this.controller.destroy();
+    assertEquals("[]", this.metrics.live.toString());
+    assertEquals(0, this.metrics.latencies.size());
+    assertEquals(-1, this.metrics.liveOnDestroy);
+  }
+
+  private static class RecordingMetrics implements PresenterMetrics {
+
+    int binds;
+    int errors;
+    int liveOnDestroy = -1;
+    final List<Integer> live = new ArrayList<>();
+    final List<Long> latencies = new ArrayList<>();
+    final List<Integer> depths = new ArrayList<>();
+
+    @Override public void onBind(@NonNull RxPresenter<?> presenter,
+        @NonNull NaviComponent component) {
+      this.binds++;
+    }
+
+    @Override public void onSubscribe(@NonNull RxPresenter<?> presenter, int liveSubscriptions) {
+      this.live.add(liveSubscriptions);
+    }
+
+    @Override public void onNext(@NonNull RxPresenter<?> presenter, long hopLatencyNanos,
+        int queueDepth) {
+      this.latencies.add(hopLatencyNanos);
+      this.depths.add(queueDepth);
+    }
+
+    @Override public void onError(@NonNull RxPresenter<?> presenter, @NonNull Throwable error) {
+      this.errors++;
+    }
+
+    @Override public void onUnsubscribe(@NonNull RxPresenter<?> presenter, int liveSubscriptions) {
+      this.live.add(liveSubscriptions);
+    }
+
+    @Override public void onDestroy(@NonNull RxPresenter<?> presenter, int liveSubscriptions) {
+      this.liveOnDestroy = liveSubscriptions;
+    }
+  }
+}
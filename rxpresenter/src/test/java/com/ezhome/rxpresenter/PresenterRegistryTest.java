@@ -0,0 +1,120 @@
+package com.ezhome.rxpresenter;
+
+import android.support.annotation.NonNull;
+import com.ezhome.rxpresenter.reactive.DefaultSubscriber;
+import com.ezhome.rxpresenter.reactive.PresenterSchedulers.Lane;
+import com.trello.navi.component.NaviActivity;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+import rx.Observable;
+import rx.Subscription;
+import rx.functions.Action1;
+import rx.schedulers.Schedulers;
+import rx.subjects.PublishSubject;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class PresenterRegistryTest {
+
+  private static final int CYCLES = 1000;
+
+  private final List<PresenterRegistry.Leak> reported = new ArrayList<>();
+  private PresenterRegistry registry;
+
+  @Before public void setUp() throws Exception {
+    RxPresenterPlugins.setLaneScheduler(Lane.IO, Schedulers.immediate());
+    RxPresenterPlugins.setMainThreadScheduler(Schedulers.immediate());
+    this.registry = new PresenterRegistry(new PresenterRegistry.LeakListener() {
+      @Override public void onLeak(@NonNull PresenterRegistry.Leak leak) {
+        reported.add(leak);
+      }
+    });
+    RxPresenterPlugins.setRegistry(this.registry);
+  }
+
+  @After public void tearDown() throws Exception {
+    RxPresenterPlugins.reset();
+  }
+
+  @Test public void testNoLeaksAcrossCreateDestroyCycles() throws Exception {
+    final PublishSubject<Integer> shared = PublishSubject.create();
+    for (int i = 0; i < CYCLES; i++) {
+      final ActivityController controller =
+          Robolectric.buildActivity(RxPresenterTest.TestActivity.class);
+      final TestRxPresenter presenter = new TestRxPresenter();
+      presenter.bind((NaviActivity) controller.get());
+      controller.create().start().resume();
+
+      presenter.bindLifecycle("shared", shared, new DefaultSubscriber<Integer>());
+      presenter.bindLifecycle(Observable.<Integer>never(), new Action1<Integer>() {
+        @Override public void call(Integer integer) {
+        }
+      });
+      shared.onNext(i);
+
+      assertEquals(1, this.registry.size());
+      controller.pause().stop().destroy();
+      assertEquals(1, presenter.destroyCount);
+    }
+
+    assertEquals(Collections.emptyList(), this.reported);
+    assertTrue(this.registry.leaks().isEmpty());
+    assertEquals(0, this.registry.size());
+    assertFalse(shared.hasObservers());
+  }
+
+  @Test public void testDestroyFlagsActiveStreams() throws Exception {
+    final TestRxPresenter presenter = new TestRxPresenter();
+    presenter.bind((NaviActivity) Robolectric.buildActivity(RxPresenterTest.TestActivity.class)
+        .create()
+        .start()
+        .get());
+    final Subscription feed =
+        presenter.bindLifecycle("feed", PublishSubject.<Integer>create(),
+            new DefaultSubscriber<Integer>());
+
+    //destroyed while the component is still alive, the lifecycle event never fires
+    presenter.destroy();
+
+    assertEquals(1, this.reported.size());
+    assertEquals(Collections.singletonList("feed"), this.reported.get(0).activeStreams());
+    assertFalse(this.reported.get(0).isViewReferenced());
+    assertEquals(1, this.registry.leaks().size());
+    assertTrue(this.registry.dump().contains("feed: active"));
+
+    feed.unsubscribe();
+    assertTrue(this.registry.leaks().isEmpty());
+    assertEquals(0, this.registry.size());
+  }
+
+  @Test public void testDumpListsThePresentersAndTheirStreams() throws Exception {
+    final ActivityController controller =
+        Robolectric.buildActivity(RxPresenterTest.TestActivity.class);
+    final TestRxPresenter presenter = new TestRxPresenter();
+    presenter.bind((NaviActivity) controller.get());
+    controller.create().start();
+    presenter.bindLifecycle("feed", PublishSubject.<Integer>create(),
+        new DefaultSubscriber<Integer>());
+
+    final String dump = this.registry.dump();
+    assertTrue(dump, dump.startsWith("Presenters: 1"));
+    assertTrue(dump, dump.contains(TestRxPresenter.class.getName()));
+    assertTrue(dump, dump.contains(
+        " live, component: " + RxPresenterTest.TestActivity.class.getName() + '@'));
+    assertTrue(dump, dump.contains("view: bound"));
+    assertTrue(dump, dump.contains("feed: active"));
+  }
+}
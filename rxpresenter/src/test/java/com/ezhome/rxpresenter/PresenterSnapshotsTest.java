@@ -0,0 +1,139 @@
+package com.ezhome.rxpresenter;
+
+import com.ezhome.rxpresenter.reactive.PresenterSchedulers.Lane;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+public class PresenterSnapshotsTest {
+
+  static final PresenterSnapshots.Codec<int[]> INTS = new PresenterSnapshots.Codec<int[]>() {
+    @Override public void write(int[] state, DataOutput output) throws IOException {
+      output.writeInt(state.length);
+      for (int value : state) {
+        output.writeInt(value);
+      }
+    }
+
+    @Override public int[] read(DataInput input) throws IOException {
+      final int[] state = new int[input.readInt()];
+      for (int i = 0; i < state.length; i++) {
+        state[i] = input.readInt();
+      }
+      return state;
+    }
+  };
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private File directory;
+
+  @Before public void setUp() throws Exception {
+    RxPresenterPlugins.setLaneScheduler(Lane.IO, Schedulers.immediate());
+    this.directory = this.folder.newFolder("snapshots");
+  }
+
+  @After public void tearDown() throws Exception {
+    RxPresenterPlugins.reset();
+  }
+
+  @Test public void testSnapshotIsReadFromTheMappedFile() throws Exception {
+    final int[] state = new int[100000];
+    for (int i = 0; i < state.length; i++) {
+      state[i] = i;
+    }
+    this.snapshots().write("key", state, INTS);
+
+    final TestSubscriber<int[]> testSubscriber = TestSubscriber.create();
+    //a new store after process death
+    this.snapshots().read("key", INTS).subscribe(testSubscriber);
+
+    testSubscriber.assertValueCount(1);
+    assertTrue(Arrays.equals(state, testSubscriber.getOnNextEvents().get(0)));
+  }
+
+  @Test public void testMissingOrCorruptedSnapshotIsEmpty() throws Exception {
+    final PresenterSnapshots snapshots = this.snapshots();
+    final File corrupted = new File(this.directory, "corrupted.snapshot");
+    final FileOutputStream output = new FileOutputStream(corrupted);
+    output.write(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9});
+    output.close();
+
+    final TestSubscriber<int[]> missing = TestSubscriber.create();
+    snapshots.read("missing", INTS).subscribe(missing);
+    final TestSubscriber<int[]> invalid = TestSubscriber.create();
+    snapshots.read("corrupted", INTS).subscribe(invalid);
+
+    missing.assertNoValues();
+    missing.assertCompleted();
+    invalid.assertNoValues();
+    invalid.assertCompleted();
+    assertFalse(corrupted.exists());
+  }
+
+  @Test public void testLongerTemporaryFileOfAKilledProcessIsTruncated() throws Exception {
+    final PresenterSnapshots snapshots = this.snapshots();
+    final FileOutputStream leftover =
+        new FileOutputStream(new File(this.directory, "key.snapshot.tmp"));
+    leftover.write(new byte[4096]);
+    leftover.close();
+    snapshots.write("key", new int[] {1, 2, 3}, INTS);
+
+    final TestSubscriber<int[]> testSubscriber = TestSubscriber.create();
+    this.snapshots().read("key", INTS).subscribe(testSubscriber);
+
+    testSubscriber.assertValueCount(1);
+    assertTrue(Arrays.equals(new int[] {1, 2, 3}, testSubscriber.getOnNextEvents().get(0)));
+  }
+
+  @Test public void testDeletedSnapshotIsEmpty() throws Exception {
+    final PresenterSnapshots snapshots = this.snapshots();
+    snapshots.write("key", new int[] {1}, INTS);
+    snapshots.delete("key");
+
+    final TestSubscriber<int[]> testSubscriber = TestSubscriber.create();
+    snapshots.read("key", INTS).subscribe(testSubscriber);
+    testSubscriber.assertNoValues();
+  }
+
+  @Test public void testTrimDeletesTheStaleAndTheOldestSnapshots() throws Exception {
+    final PresenterSnapshots snapshots = this.snapshots();
+    final long now = System.currentTimeMillis();
+    for (int i = 0; i < 5; i++) {
+      snapshots.write("key" + i, new int[] {i}, INTS);
+      new File(this.directory, "key" + i + ".snapshot")
+          .setLastModified(now - TimeUnit.MINUTES.toMillis(i));
+    }
+    new File(this.directory, "key4.snapshot").setLastModified(now - TimeUnit.DAYS.toMillis(2));
+
+    snapshots.trim();
+
+    assertEquals(Arrays.asList("key0.snapshot", "key1.snapshot", "key2.snapshot"),
+        sorted(this.directory.list()));
+  }
+
+  private PresenterSnapshots snapshots() {
+    return new PresenterSnapshots(this.directory, 1, TimeUnit.DAYS, 3);
+  }
+
+  private static List<String> sorted(String[] names) {
+    Arrays.sort(names);
+    return Arrays.asList(names);
+  }
+}
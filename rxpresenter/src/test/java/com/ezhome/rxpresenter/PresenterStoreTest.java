@@ -0,0 +1,115 @@
+package com.ezhome.rxpresenter;
+
+import android.app.Activity;
+import android.support.v4.app.FragmentActivity;
+import com.ezhome.rxpresenter.RxPresenterTest.TestFragment;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.util.ReflectionHelpers;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class PresenterStoreTest {
+
+  private static final String PRESENTER_ID = "presenter";
+
+  private FragmentActivity activity;
+  private int created;
+
+  private final PresenterStore.Factory<TestRxPresenter> factory =
+      new PresenterStore.Factory<TestRxPresenter>() {
+        @Override public TestRxPresenter create() {
+          created++;
+          return new TestRxPresenter();
+        }
+      };
+
+  @Before public void setUp() throws Exception {
+    this.activity = Robolectric.setupActivity(FragmentActivity.class);
+    this.created = 0;
+  }
+
+  @Test public void testGetReturnsTheSamePresenter() throws Exception {
+    final TestRxPresenter first = PresenterStore.of(this.activity).get(PRESENTER_ID, this.factory);
+    final TestRxPresenter second =
+        PresenterStore.of(this.activity).get(PRESENTER_ID, this.factory);
+
+    assertSame(first, second);
+    assertEquals(1, this.created);
+  }
+
+  @Test public void testRetainedPresenterSurvivesConfigurationChange() throws Exception {
+    final PresenterStore store = PresenterStore.of(this.activity);
+    final TestRxPresenter presenter = store.get(PRESENTER_ID, this.factory);
+
+    final TestFragment fragment = new TestFragment();
+    addFragment(fragment);
+    presenter.bind(fragment);
+    fragment.onViewCreated(null, null);
+    assertNotNull(presenter.view);
+
+    setChangingConfigurations(this.activity, true);
+    fragment.onDestroy();
+
+    //the view is released but the presenter stays alive in the store
+    assertNull(presenter.view);
+    assertEquals(0, presenter.destroyCount);
+    assertSame(presenter, store.get(PRESENTER_ID, this.factory));
+
+    //the recreated fragment binds the same presenter
+    setChangingConfigurations(this.activity, false);
+    final TestFragment recreated = new TestFragment();
+    addFragment(recreated);
+    presenter.bind(recreated);
+    recreated.onViewCreated(null, null);
+    assertNotNull(presenter.view);
+
+    //a real destroy releases the presenter
+    recreated.onDestroy();
+    assertEquals(1, presenter.destroyCount);
+    assertFalse(store.contains(PRESENTER_ID));
+    assertEquals(1, this.created);
+  }
+
+  @Test public void testNotRetainedPresenterIsDestroyed() throws Exception {
+    final TestRxPresenter presenter = new TestRxPresenter();
+    final TestFragment fragment = new TestFragment();
+    addFragment(fragment);
+    presenter.bind(fragment);
+
+    setChangingConfigurations(this.activity, true);
+    fragment.onDestroy();
+
+    assertEquals(1, presenter.destroyCount);
+  }
+
+  @Test public void testFinishingActivityDestroysStoredPresenters() throws Exception {
+    final TestRxPresenter presenter =
+        PresenterStore.of(this.activity).get(PRESENTER_ID, this.factory);
+
+    this.activity.getSupportFragmentManager()
+        .findFragmentByTag(PresenterStore.FRAGMENT_TAG)
+        .onDestroy();
+
+    assertTrue(presenter.destroyCount > 0);
+  }
+
+  private void addFragment(TestFragment fragment) {
+    this.activity.getSupportFragmentManager().beginTransaction().add(fragment, null).commitNow();
+  }
+
+  private static void setChangingConfigurations(Activity activity, boolean changing) {
+    ReflectionHelpers.setField(activity, "mChangingConfigurations", changing);
+  }
+}
@@ -0,0 +1,184 @@
+package com.ezhome.rxpresenter;
+
+import com.ezhome.rxpresenter.reactive.PresenterSchedulers.Lane;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import rx.Observable;
+import rx.functions.Action0;
+import rx.functions.Func0;
+import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+import static junit.framework.Assert.assertEquals;
+
+public class ResultCacheTest {
+
+  private static final CachePolicy<int[]> FIVE_MINUTES = CachePolicy.ttl(5, TimeUnit.MINUTES);
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private TestScheduler clock;
+  private AtomicInteger subscriptions;
+  private int next;
+
+  @Before public void setUp() throws Exception {
+    this.clock = new TestScheduler();
+    this.subscriptions = new AtomicInteger();
+    RxPresenterPlugins.setLaneScheduler(Lane.IO, Schedulers.immediate());
+  }
+
+  @After public void tearDown() throws Exception {
+    RxPresenterPlugins.reset();
+  }
+
+  @Test public void testFreshResultSkipsTheSource() throws Exception {
+    final ResultCache cache = new ResultCache(1024 * 1024, null, 0, this.clock);
+
+    assertEquals(1, this.get(cache, "key", FIVE_MINUTES).getOnNextEvents().get(0)[0]);
+    assertEquals(1, this.get(cache, "key", FIVE_MINUTES).getOnNextEvents().get(0)[0]);
+    assertEquals(1, this.subscriptions.get());
+
+    this.clock.advanceTimeBy(6, TimeUnit.MINUTES);
+    assertEquals(2, this.get(cache, "key", FIVE_MINUTES).getOnNextEvents().get(0)[0]);
+    assertEquals(2, this.subscriptions.get());
+
+    assertEquals(1, cache.hits());
+    assertEquals(2, cache.misses());
+    assertEquals(1d / 3, cache.hitRate());
+  }
+
+  @Test public void testStaleResultIsEmittedBeforeTheFreshOne() throws Exception {
+    final ResultCache cache = new ResultCache(1024 * 1024, null, 0, this.clock);
+    final CachePolicy<int[]> policy = FIVE_MINUTES.staleWhileRevalidate(1, TimeUnit.HOURS);
+    this.get(cache, "key", policy);
+
+    this.clock.advanceTimeBy(6, TimeUnit.MINUTES);
+    final TestSubscriber<int[]> stale = this.get(cache, "key", policy);
+    assertEquals(2, stale.getOnNextEvents().size());
+    assertEquals(1, stale.getOnNextEvents().get(0)[0]);
+    assertEquals(2, stale.getOnNextEvents().get(1)[0]);
+
+    this.clock.advanceTimeBy(2, TimeUnit.HOURS);
+    final TestSubscriber<int[]> expired = this.get(cache, "key", policy);
+    assertEquals(1, expired.getOnNextEvents().size());
+    assertEquals(3, expired.getOnNextEvents().get(0)[0]);
+
+    assertEquals(1, cache.staleHits());
+    assertEquals(2, cache.misses());
+  }
+
+  @Test public void testLeastRecentlyUsedResultsAreEvicted() throws Exception {
+    final ResultCache cache = new ResultCache(3000, null, 0, this.clock);
+    final CachePolicy<int[]> policy = FIVE_MINUTES.sizeOf(new CachePolicy.Sizer<int[]>() {
+      @Override public int sizeOf(int[] value) {
+        return 1000;
+      }
+    });
+
+    this.get(cache, "a", policy);
+    this.get(cache, "b", policy);
+    this.get(cache, "c", policy);
+    this.get(cache, "a", policy);
+    this.get(cache, "d", policy);
+    assertEquals(3000, cache.sizeBytes());
+    assertEquals(1, cache.evictions());
+
+    //b was the least recently used
+    this.get(cache, "a", policy);
+    this.get(cache, "b", policy);
+    assertEquals(5, this.subscriptions.get());
+  }
+
+  @Test public void testPersistedResultIsReadFromDisk() throws Exception {
+    final File directory = this.folder.newFolder("results");
+    final CachePolicy<int[]> policy = FIVE_MINUTES.persisted(PresenterSnapshotsTest.INTS);
+    this.get(new ResultCache(1024 * 1024, directory, 1024 * 1024, this.clock), "key", policy);
+
+    //a new process
+    final ResultCache cache = new ResultCache(1024 * 1024, directory, 1024 * 1024, this.clock);
+    assertEquals(1, this.get(cache, "key", policy).getOnNextEvents().get(0)[0]);
+    assertEquals(1, this.get(cache, "key", policy).getOnNextEvents().get(0)[0]);
+
+    assertEquals(1, this.subscriptions.get());
+    assertEquals(1, cache.diskHits());
+    assertEquals(2, cache.hits());
+    assertEquals(8, cache.sizeBytes());
+  }
+
+  @Test public void testKeysWithTheSameHashKeepTheirOwnFile() throws Exception {
+    final File directory = this.folder.newFolder("results");
+    final CachePolicy<int[]> policy = FIVE_MINUTES.persisted(PresenterSnapshotsTest.INTS);
+    assertEquals("Aa".hashCode(), "BB".hashCode());
+    final ResultCache first = new ResultCache(1024 * 1024, directory, 1024 * 1024, this.clock);
+    this.get(first, "Aa", policy);
+    this.get(first, "BB", policy);
+
+    //a new process
+    final ResultCache cache = new ResultCache(1024 * 1024, directory, 1024 * 1024, this.clock);
+    assertEquals(1, this.get(cache, "Aa", policy).getOnNextEvents().get(0)[0]);
+    assertEquals(2, this.get(cache, "BB", policy).getOnNextEvents().get(0)[0]);
+    assertEquals(2, cache.diskHits());
+  }
+
+  @Test public void testPersistedResultIsWrittenOnTheIoLane() throws Exception {
+    final TestScheduler io = new TestScheduler();
+    RxPresenterPlugins.setLaneScheduler(Lane.IO, io);
+    final File directory = this.folder.newFolder("results");
+    final CachePolicy<int[]> policy = FIVE_MINUTES.persisted(PresenterSnapshotsTest.INTS);
+
+    //the result is delivered and kept in memory before the file is written
+    this.get(new ResultCache(1024 * 1024, directory, 1024 * 1024, this.clock), "key", policy);
+    assertEquals(0, directory.list().length);
+
+    io.triggerActions();
+    final ResultCache cache = new ResultCache(1024 * 1024, directory, 1024 * 1024, this.clock);
+    assertEquals(1, this.get(cache, "key", policy).getOnNextEvents().get(0)[0]);
+    assertEquals(1, cache.diskHits());
+  }
+
+  @Test public void testConcurrentLoadsShareTheSource() throws Exception {
+    final ResultCache cache = new ResultCache(1024 * 1024, null, 0, this.clock);
+    final PublishSubject<int[]> subject = PublishSubject.create();
+    final Observable<int[]> source = subject.doOnSubscribe(new Action0() {
+      @Override public void call() {
+        ResultCacheTest.this.subscriptions.incrementAndGet();
+      }
+    });
+    final TestSubscriber<int[]> first = TestSubscriber.create();
+    final TestSubscriber<int[]> second = TestSubscriber.create();
+
+    cache.get("key", source, FIVE_MINUTES, Schedulers.immediate()).subscribe(first);
+    cache.get("key", source, FIVE_MINUTES, Schedulers.immediate()).subscribe(second);
+    subject.onNext(new int[] {1});
+    subject.onCompleted();
+
+    assertEquals(1, this.subscriptions.get());
+    first.assertValueCount(1);
+    second.assertValueCount(1);
+    assertEquals(1, cache.size());
+  }
+
+  /**
+   * Gets the key with a source which emits the next number
+   */
+  private TestSubscriber<int[]> get(ResultCache cache, String key, CachePolicy<int[]> policy) {
+    final Observable<int[]> source = Observable.defer(new Func0<Observable<int[]>>() {
+      @Override public Observable<int[]> call() {
+        ResultCacheTest.this.subscriptions.incrementAndGet();
+        return Observable.just(new int[] {++ResultCacheTest.this.next});
+      }
+    });
+    final TestSubscriber<int[]> testSubscriber = TestSubscriber.create();
+    cache.get(key, source, policy, Schedulers.immediate()).subscribe(testSubscriber);
+    testSubscriber.assertCompleted();
+    return testSubscriber;
+  }
+}
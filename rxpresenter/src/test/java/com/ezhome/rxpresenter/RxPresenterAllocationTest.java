@@ -0,0 +1,223 @@
+package com.ezhome.rxpresenter;
+
+import android.support.v4.app.FragmentActivity;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import com.ezhome.rxpresenter.reactive.DefaultSubscriber;
+import com.trello.navi.component.NaviActivity;
+import com.trello.navi.component.support.NaviFragment;
+import com.trello.rxlifecycle.LifecycleProvider;
+import com.trello.rxlifecycle.android.ActivityEvent;
+import com.trello.rxlifecycle.android.FragmentEvent;
+import com.trello.rxlifecycle.navi.NaviLifecycle;
+import java.lang.management.ManagementFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import rx.Observable;
+import rx.Single;
+import rx.SingleSubscriber;
+import rx.functions.Action0;
+import rx.schedulers.Schedulers;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Counts the bytes allocated by every bind with the thread allocation counter of the JVM. Every
+ * bind must stay under its budget and allocate less than the transformers created per call, the
+ * steady state scroll of a pooled list must not allocate at all
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class RxPresenterAllocationTest {
+
+  private static final int WARM_UP = 5000;
+  private static final int BINDS = 10000;
+  private static final int ROW_HOLDERS = 12;
+
+  /**
+   * Bytes per bind of the Rx operators and the subscriber, ~1450 bytes for bindSubscriber and
+   * ~1050 bytes for bindSubscriberUntilEvent on HotSpot 17, with headroom for other JVMs
+   */
+  private static final long BIND_LIFECYCLE_BUDGET = 1750;
+  private static final long BIND_UNTIL_EVENT_BUDGET = 1400;
+
+  /**
+   * The unsubscribe logging action which every bind added before the transformers were cached
+   */
+  private static final Action0 LOGGING_UNSUBSCRIBE = new Action0() {
+    @Override public void call() {
+    }
+  };
+
+  private com.sun.management.ThreadMXBean threadBean;
+  private TestRxPresenter presenter;
+
+  @Before public void setUp() throws Exception {
+    assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+    this.threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    assumeTrue(this.threadBean.isThreadAllocatedMemorySupported());
+    this.threadBean.setThreadAllocatedMemoryEnabled(true);
+
+    RxPresenterPlugins.setMainThreadScheduler(Schedulers.immediate());
+    this.presenter = new TestRxPresenter();
+  }
+
+  @After public void tearDown() throws Exception {
+    RxPresenterPlugins.reset();
+  }
+
+  @Test public void testBindSubscriberAllocations() throws Exception {
+    final NaviActivity activity = Robolectric.buildActivity(RxPresenterTest.TestActivity.class)
+        .create()
+        .start()
+        .get();
+    this.presenter.bind(activity);
+    final LifecycleProvider<ActivityEvent> provider =
+        NaviLifecycle.createActivityLifecycleProvider(activity);
+    final Bind bind = new Bind() {
+      @Override public void run() {
+        presenter.bindSubscriber(Observable.never(), Schedulers.immediate(),
+            new DefaultSubscriber<Object>()).unsubscribe();
+      }
+    };
+    final Bind uncached = new Bind() {
+      @Override public void run() {
+        Observable.never()
+            .doOnUnsubscribe(LOGGING_UNSUBSCRIBE)
+            .compose(new Observable.Transformer<Object, Object>() {
+              @Override public Observable<Object> call(Observable<Object> observable) {
+                return observable.subscribeOn(Schedulers.immediate())
+                    .observeOn(RxPresenterPlugins.mainThreadScheduler());
+              }
+            })
+            .compose(provider.bindUntilEvent(ActivityEvent.DESTROY))
+            .subscribe(new DefaultSubscriber<Object>())
+            .unsubscribe();
+      }
+    };
+    final long bytes = this.bytesPerBind(bind);
+    final long uncachedBytes = this.bytesPerBind(uncached);
+    assertTrue("bindSubscriber allocates " + bytes + " bytes", bytes <= BIND_LIFECYCLE_BUDGET);
+    assertTrue("bindSubscriber allocates " + bytes + " bytes, uncached " + uncachedBytes,
+        bytes < uncachedBytes);
+  }
+
+  @Test public void testBindSubscriberUntilEventAllocations() throws Exception {
+    final NaviFragment fragment = new RxPresenterTest.TestFragment();
+    Robolectric.setupActivity(FragmentActivity.class)
+        .getSupportFragmentManager()
+        .beginTransaction()
+        .add(fragment, null)
+        .commit();
+    this.presenter.bind(fragment);
+    final LifecycleProvider<FragmentEvent> provider =
+        NaviLifecycle.createFragmentLifecycleProvider(fragment);
+    final Bind bind = new Bind() {
+      @Override public void run() {
+        presenter.bindSubscriberUntilEvent(Observable.never(), FragmentEvent.STOP,
+            new DefaultSubscriber<Object>()).unsubscribe();
+      }
+    };
+    final Bind uncached = new Bind() {
+      @Override public void run() {
+        Observable.never()
+            .doOnUnsubscribe(LOGGING_UNSUBSCRIBE)
+            .compose(provider.bindUntilEvent(FragmentEvent.STOP))
+            .subscribe(new DefaultSubscriber<Object>())
+            .unsubscribe();
+      }
+    };
+    final long bytes = this.bytesPerBind(bind);
+    final long uncachedBytes = this.bytesPerBind(uncached);
+    assertTrue("bindSubscriberUntilEvent allocates " + bytes + " bytes",
+        bytes <= BIND_UNTIL_EVENT_BUDGET);
+    assertTrue("bindSubscriberUntilEvent allocates " + bytes + " bytes, uncached "
+        + uncachedBytes, bytes < uncachedBytes);
+  }
+
+  @Test public void testBindSingleAllocatesLessThanAnObservable() throws Exception {
+    this.presenter.bind((NaviActivity) Robolectric.buildActivity(RxPresenterTest.TestActivity.class)
+        .create()
+        .start()
+        .get());
+    final Single<Object> single = Observable.never().toSingle();
+    final Bind bindSingle = new Bind() {
+      @Override public void run() {
+        presenter.bindLifecycle(single, Schedulers.immediate(), new SingleSubscriber<Object>() {
+          @Override public void onSuccess(Object value) {
+          }
+
+          @Override public void onError(Throwable error) {
+          }
+        }).unsubscribe();
+      }
+    };
+    final Bind bindObservable = new Bind() {
+      @Override public void run() {
+        presenter.bindLifecycle(single.toObservable(), Schedulers.immediate(),
+            new DefaultSubscriber<Object>()).unsubscribe();
+      }
+    };
+    final long singleBytes = this.bytesPerBind(bindSingle);
+    final long observableBytes = this.bytesPerBind(bindObservable);
+    assertTrue("single allocates " + singleBytes + " bytes, observable " + observableBytes,
+        singleBytes < observableBytes);
+  }
+
+  @Test public void testItemPresenterScrollAllocations() throws Exception {
+    this.presenter.bind((NaviActivity) Robolectric.buildActivity(RxPresenterTest.TestActivity.class)
+        .create()
+        .start()
+        .get());
+    final ItemPresenterPool<TestMvpView, TestItemRxPresenter> pool =
+        this.presenter.itemPresenterPool(new ItemPresenterPool.Factory<TestItemRxPresenter>() {
+          @Override public TestItemRxPresenter create() {
+            return new TestItemRxPresenter();
+          }
+        });
+    final TestMvpView rowView = new TestMvpView() {
+    };
+    final RecyclerView.ViewHolder[] holders = new RecyclerView.ViewHolder[ROW_HOLDERS];
+    for (int i = 0; i < ROW_HOLDERS; i++) {
+      holders[i] = new RecyclerView.ViewHolder(new View(RuntimeEnvironment.application)) {
+      };
+    }
+    final Bind scroll = new Bind() {
+      private int row;
+
+      @Override public void run() {
+        final RecyclerView.ViewHolder holder = holders[this.row++ % ROW_HOLDERS];
+        pool.onViewDetachedFromWindow(holder);
+        pool.onViewRecycled(holder);
+        pool.bind(holder, rowView);
+        pool.onViewAttachedToWindow(holder);
+      }
+    };
+    final long bytes = this.bytesPerBind(scroll);
+    assertEquals("a scrolled row allocates " + bytes + " bytes", 0, bytes);
+  }
+
+  private long bytesPerBind(Bind bind) {
+    for (int i = 0; i < WARM_UP; i++) {
+      bind.run();
+    }
+    final long threadId = Thread.currentThread().getId();
+    final long start = this.threadBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < BINDS; i++) {
+      bind.run();
+    }
+    return (this.threadBean.getThreadAllocatedBytes(threadId) - start) / BINDS;
+  }
+
+  private interface Bind {
+    void run();
+  }
+}
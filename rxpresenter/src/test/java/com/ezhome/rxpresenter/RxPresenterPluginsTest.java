@@ -0,0 +1,54 @@
+package com.ezhome.rxpresenter;
+
+import com.ezhome.rxpresenter.reactive.PresenterSchedulers;
+import com.ezhome.rxpresenter.reactive.PresenterSchedulers.Lane;
+import org.junit.After;
+import org.junit.Test;
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
+
+import static junit.framework.Assert.assertNotSame;
+import static junit.framework.Assert.assertSame;
+
+public class RxPresenterPluginsTest {
+
+  @After public void tearDown() throws Exception {
+    RxPresenterPlugins.reset();
+  }
+
+  @Test public void testLanesHaveTheirOwnSchedulers() throws Exception {
+    assertNotSame(PresenterSchedulers.lane(Lane.VISIBLE), PresenterSchedulers.lane(Lane.IO));
+    assertNotSame(PresenterSchedulers.lane(Lane.CPU), PresenterSchedulers.lane(Lane.IO));
+    assertNotSame(PresenterSchedulers.lane(Lane.PREFETCH), PresenterSchedulers.lane(Lane.IO));
+    assertSame(PresenterSchedulers.lane(Lane.IO), RxPresenterPlugins.defaultScheduler());
+  }
+
+  @Test public void testDefaultLaneIsTheUnboundedIoScheduler() throws Exception {
+    assertSame(Schedulers.io(), RxPresenterPlugins.defaultScheduler());
+  }
+
+  @Test public void testLaneSchedulerCanBeReplaced() throws Exception {
+    final Scheduler scheduler = Schedulers.immediate();
+
+    RxPresenterPlugins.setLaneScheduler(Lane.CPU, scheduler);
+    assertSame(scheduler, RxPresenterPlugins.laneScheduler(Lane.CPU));
+
+    RxPresenterPlugins.setLaneScheduler(Lane.CPU, null);
+    assertSame(PresenterSchedulers.lane(Lane.CPU), RxPresenterPlugins.laneScheduler(Lane.CPU));
+  }
+
+  @Test public void testDefaultLaneCanBeReplaced() throws Exception {
+    RxPresenterPlugins.setDefaultLane(Lane.VISIBLE);
+    assertSame(PresenterSchedulers.lane(Lane.VISIBLE), RxPresenterPlugins.defaultScheduler());
+
+    RxPresenterPlugins.reset();
+    assertSame(PresenterSchedulers.lane(Lane.IO), RxPresenterPlugins.defaultScheduler());
+  }
+
+  @Test public void testMainThreadSchedulerCanBeReplaced() throws Exception {
+    final Scheduler scheduler = Schedulers.immediate();
+
+    RxPresenterPlugins.setMainThreadScheduler(scheduler);
+    assertSame(scheduler, RxPresenterPlugins.mainThreadScheduler());
+  }
+}
@@ -1,9 +1,15 @@
 package com.ezhome.rxpresenter;
 
+import android.os.Bundle;
 import android.support.v4.app.Fragment;
 import android.support.v4.app.FragmentActivity;
 import com.ezhome.rxpresenter.mvp.MvpView;
+import com.ezhome.rxpresenter.reactive.Backpressure;
 import com.ezhome.rxpresenter.reactive.DefaultSubscriber;
+import com.ezhome.rxpresenter.reactive.LatestPolicy;
+import com.ezhome.rxpresenter.reactive.ListState;
+import com.ezhome.rxpresenter.reactive.PauseDelivery;
+import com.ezhome.rxpresenter.reactive.PresenterSchedulers.Lane;
 import com.trello.navi.component.NaviActivity;
 import com.trello.navi.component.support.NaviDialogFragment;
 import com.trello.navi.component.support.NaviFragment;
@@ -14,13 +20,33 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
 import org.robolectric.android.controller.ActivityController;
 import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import rx.Completable;
+import rx.CompletableSubscriber;
 import rx.Observable;
+import rx.Single;
+import rx.SingleSubscriber;
+import rx.Subscription;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.functions.Func0;
+import rx.functions.Func1;
 import rx.observers.TestSubscriber;
 import rx.schedulers.Schedulers;
+import rx.schedulers.TestScheduler;
 import rx.subjects.PublishSubject;
 
+import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertTrue;
 
@@ -156,6 +182,489 @@ public class RxPresenterTest {
     testSubscriber.assertUnsubscribed();
   }
 
+  @Test public void testNullActionIsBoundWithADefaultSubscriber() throws Exception {
+    RxPresenterPlugins.setLaneScheduler(Lane.IO, Schedulers.immediate());
+    final PublishSubject<Integer> subject = PublishSubject.create();
+    NaviFragment fragment = new TestFragment();
+    this.presenter.bind(fragment);
+    startFragment(fragment);
+    try {
+      final Action1<Integer> action = null;
+      final Subscription lifecycle = this.presenter.bindLifecycle(subject, action);
+      final Subscription untilEvent =
+          this.presenter.bindUntilEvent(subject, FragmentEvent.STOP, action);
+
+      assertTrue(subject.hasObservers());
+      assertFalse(lifecycle.isUnsubscribed());
+      assertFalse(untilEvent.isUnsubscribed());
+    } finally {
+      RxPresenterPlugins.reset();
+    }
+  }
+
+  @Test public void testPauseDeliveryHoldsTheItemsUntilResume() throws Exception {
+    RxPresenterPlugins.setLaneScheduler(Lane.IO, Schedulers.immediate());
+    final PublishSubject<Integer> subject = PublishSubject.create();
+    final TestSubscriber<Integer> testSubscriber = TestSubscriber.create();
+    ActivityController controller =
+        Robolectric.buildActivity(TestActivity.class).create().start().resume();
+    this.presenter.bind((NaviActivity) controller.get());
+    try {
+      this.presenter.bindLifecycle(subject, PauseDelivery.buffer(2), testSubscriber);
+      subject.onNext(1);
+
+      controller.pause();
+      subject.onNext(2);
+      subject.onNext(3);
+      subject.onNext(4);
+      testSubscriber.assertValues(1);
+
+      controller.resume();
+      testSubscriber.assertValues(1, 3, 4);
+      subject.onNext(5);
+      testSubscriber.assertValues(1, 3, 4, 5);
+    } finally {
+      RxPresenterPlugins.reset();
+    }
+  }
+
+  @Test public void testBindLatestPerFrameDeliversOncePerFrame() throws Exception {
+    final PublishSubject<Integer> subject = PublishSubject.create();
+    final TestFrameClock frameClock = new TestFrameClock();
+
+    TestSubscriber<Integer> testSubscriber = TestSubscriber.create();
+
+    ActivityController controller = Robolectric.buildActivity(TestActivity.class).create().start();
+    NaviActivity activity = (NaviActivity) controller.get();
+    this.presenter.bind(activity);
+    this.presenter.setFrameClock(frameClock);
+
+    this.presenter.bindLatestPerFrame(subject, Schedulers.immediate(), testSubscriber);
+
+    for (int i = 0; i < 100; i++) {
+      subject.onNext(i);
+    }
+    //nothing delivered before the frame and only one frame requested
+    testSubscriber.assertNoValues();
+    assertEquals(1, frameClock.pendingCallbacks());
+
+    frameClock.doFrame();
+    testSubscriber.assertValues(99);
+
+    //idle frames deliver nothing
+    frameClock.doFrame();
+    testSubscriber.assertValueCount(1);
+
+    subject.onNext(100);
+    subject.onNext(101);
+    frameClock.doFrame();
+    testSubscriber.assertValues(99, 101);
+
+    controller.destroy();
+    testSubscriber.assertCompleted();
+    testSubscriber.assertUnsubscribed();
+    assertEquals(0, frameClock.pendingCallbacks());
+  }
+
+  @Test public void testRestartableBoundAgainStopsThePreviousOne() throws Exception {
+    final PublishSubject<Integer> first = PublishSubject.create();
+    final PublishSubject<Integer> second = PublishSubject.create();
+    final List<Integer> delivered = new ArrayList<>();
+    final Action1<Integer> onNext = new Action1<Integer>() {
+      @Override public void call(Integer value) {
+        delivered.add(value);
+      }
+    };
+
+    this.presenter.bindRestartable("restartable", new Func0<Observable<Integer>>() {
+      @Override public Observable<Integer> call() {
+        return first;
+      }
+    }, onNext, null);
+
+    NaviFragment fragment = new TestFragment();
+    this.presenter.bind(fragment);
+    startFragment(fragment);
+    fragment.onCreateView(null, null, null);
+    fragment.onViewCreated(null, null);
+
+    this.presenter.startRestartable("restartable", Schedulers.immediate());
+    assertTrue(first.hasObservers());
+
+    this.presenter.bindRestartable("restartable", new Func0<Observable<Integer>>() {
+      @Override public Observable<Integer> call() {
+        return second;
+      }
+    }, onNext, null);
+    assertFalse(first.hasObservers());
+    assertFalse(this.presenter.isRestartableStarted("restartable"));
+
+    this.presenter.startRestartable("restartable", Schedulers.immediate());
+    first.onNext(1);
+    second.onNext(2);
+    assertEquals(Arrays.asList(2), delivered);
+  }
+
+  @Test public void testRestartableCachesResultWhileViewIsDetached() throws Exception {
+    final PublishSubject<Integer> subject = PublishSubject.create();
+    final List<Integer> delivered = new ArrayList<>();
+
+    this.presenter.bindDeliverLatest("restartable", new Func0<Observable<Integer>>() {
+      @Override public Observable<Integer> call() {
+        return subject;
+      }
+    }, new Action1<Integer>() {
+      @Override public void call(Integer value) {
+        delivered.add(value);
+      }
+    }, null);
+
+    NaviFragment fragment = new TestFragment();
+    this.presenter.bind(fragment);
+    startFragment(fragment);
+    fragment.onCreateView(null, null, null);
+    fragment.onViewCreated(null, null);
+
+    this.presenter.startRestartable("restartable", Schedulers.immediate());
+    subject.onNext(1);
+    assertEquals(Arrays.asList(1), delivered);
+
+    //the upstream keeps running without a view
+    fragment.onDestroyView();
+    subject.onNext(2);
+    subject.onNext(3);
+    assertEquals(Arrays.asList(1), delivered);
+    assertTrue(this.presenter.isRestartableStarted("restartable"));
+
+    //the latest result is delivered to the next view
+    fragment.onCreateView(null, null, null);
+    fragment.onViewCreated(null, null);
+    assertEquals(Arrays.asList(1, 3), delivered);
+  }
+
+  @Test public void testBindLifecycleWithBackpressureKeepsUpWithAFastProducer() throws Exception {
+    final PublishSubject<Integer> subject = PublishSubject.create();
+    final TestSubscriber<Integer> testSubscriber = new TestSubscriber<Integer>() {
+      @Override public void onNext(Integer value) {
+        if (value % 100 == 0) {
+          try {
+            Thread.sleep(1);
+          } catch (InterruptedException e) {
+            throw new AssertionError(e);
+          }
+        }
+        super.onNext(value);
+      }
+    };
+
+    ActivityController controller = Robolectric.buildActivity(TestActivity.class).create().start();
+    this.presenter.bind((NaviActivity) controller.get());
+    //a slow main thread
+    RxPresenterPlugins.setMainThreadScheduler(Schedulers.newThread());
+    try {
+      this.presenter.bindLifecycle(subject, Schedulers.immediate(), Backpressure.latest(),
+          testSubscriber);
+      for (int i = 0; i < 100000; i++) {
+        subject.onNext(i);
+      }
+      subject.onCompleted();
+      testSubscriber.awaitTerminalEvent(30, TimeUnit.SECONDS);
+    } finally {
+      RxPresenterPlugins.reset();
+    }
+
+    testSubscriber.assertNoErrors();
+    testSubscriber.assertCompleted();
+    final List<Integer> values = testSubscriber.getOnNextEvents();
+    assertTrue(values.size() < 100000);
+    assertEquals(99999, (int) values.get(values.size() - 1));
+  }
+
+  @Test public void testMainThreadEmissionIsRenderedWithoutALooperMessage() throws Exception {
+    final TestSubscriber<Integer> testSubscriber = TestSubscriber.create();
+
+    ActivityController controller = Robolectric.buildActivity(TestActivity.class).create().start();
+    this.presenter.bind((NaviActivity) controller.get());
+
+    ShadowLooper.pauseMainLooper();
+    try {
+      this.presenter.bindLifecycle(Observable.just(1), Schedulers.immediate(), testSubscriber);
+      testSubscriber.assertValue(1);
+      testSubscriber.assertCompleted();
+    } finally {
+      ShadowLooper.unPauseMainLooper();
+    }
+  }
+
+  @Test public void testResolvedValueIsRenderedWithoutALooperMessage() throws Exception {
+    final TestSubscriber<Integer> testSubscriber = TestSubscriber.create();
+
+    ActivityController controller = Robolectric.buildActivity(TestActivity.class).create().start();
+    this.presenter.bind((NaviActivity) controller.get());
+
+    ShadowLooper.pauseMainLooper();
+    try {
+      this.presenter.bindResolved(1, testSubscriber);
+      testSubscriber.assertValue(1);
+      testSubscriber.assertCompleted();
+    } finally {
+      ShadowLooper.unPauseMainLooper();
+    }
+  }
+
+  @Test public void testActivityBindListState() throws Exception {
+    final PublishSubject<List<Integer>> subject = PublishSubject.create();
+    final TestSubscriber<ListState<Integer>> testSubscriber = TestSubscriber.create();
+    final ListState.ItemCallback<Integer> callback = new ListState.ItemCallback<Integer>() {
+      @Override public boolean areItemsTheSame(Integer oldItem, Integer newItem) {
+        return oldItem.equals(newItem);
+      }
+
+      @Override public boolean areContentsTheSame(Integer oldItem, Integer newItem) {
+        return true;
+      }
+    };
+
+    ActivityController controller = Robolectric.buildActivity(TestActivity.class).create().start();
+    this.presenter.bind((NaviActivity) controller.get());
+    this.presenter.bindListState(subject, callback, Schedulers.immediate(), testSubscriber);
+
+    subject.onNext(Arrays.asList(1, 2));
+    subject.onNext(Arrays.asList(1, 2, 3));
+    testSubscriber.assertValueCount(2);
+    assertEquals(Arrays.asList(1, 2, 3), testSubscriber.getOnNextEvents().get(1).list());
+
+    controller.pause().stop().destroy();
+    testSubscriber.assertCompleted();
+    assertFalse(subject.hasObservers());
+  }
+
+  @Test public void testSnapshotIsRestoredAfterProcessDeath() throws Exception {
+    RxPresenterPlugins.setLaneScheduler(Lane.IO, Schedulers.immediate());
+    RxPresenterPlugins.setSnapshots(new PresenterSnapshots(RuntimeEnvironment.application));
+    final int[] state = {1, 2, 3};
+    final List<int[]> restored = new ArrayList<>();
+    final Func0<int[]> save = new Func0<int[]>() {
+      @Override public int[] call() {
+        return state;
+      }
+    };
+    final Action1<int[]> restore = new Action1<int[]>() {
+      @Override public void call(int[] value) {
+        restored.add(value);
+      }
+    };
+    try {
+      final ActivityController first = Robolectric.buildActivity(TestActivity.class);
+      this.presenter.bindSnapshot("state", PresenterSnapshotsTest.INTS, save, restore);
+      this.presenter.bind((NaviActivity) first.get());
+      first.create().start().resume().pause();
+      final Bundle outState = new Bundle();
+      first.saveInstanceState(outState);
+      assertTrue(restored.isEmpty());
+
+      //a new process with a new store
+      RxPresenterPlugins.setSnapshots(new PresenterSnapshots(RuntimeEnvironment.application));
+      final RxPresenter<TestMvpView> second = new TestRxPresenter();
+      second.bindSnapshot("state", PresenterSnapshotsTest.INTS, save, restore);
+      final ActivityController controller = Robolectric.buildActivity(TestActivity.class);
+      second.bind((NaviActivity) controller.get());
+      controller.create(outState).start().postCreate(outState);
+
+      assertEquals(1, restored.size());
+      assertTrue(Arrays.equals(state, restored.get(0)));
+    } finally {
+      RxPresenterPlugins.reset();
+    }
+  }
+
+  @Test public void testCachedResultIsDeliveredWithoutALooperMessage() throws Exception {
+    RxPresenterPlugins.setResultCache(new ResultCache(1024));
+    final CachePolicy<String> policy = CachePolicy.ttl(1, TimeUnit.MINUTES);
+    ActivityController controller = Robolectric.buildActivity(TestActivity.class).create().start();
+    this.presenter.bind((NaviActivity) controller.get());
+    try {
+      final TestSubscriber<String> loaded = TestSubscriber.create();
+      this.presenter.bindCached("key", Observable.just("result"), policy, Schedulers.immediate(),
+          loaded);
+      loaded.assertValue("result");
+
+      ShadowLooper.pauseMainLooper();
+      final TestSubscriber<String> cached = TestSubscriber.create();
+      this.presenter.bindCached("key", Observable.<String>never(), policy, cached);
+      cached.assertValue("result");
+      cached.assertCompleted();
+      assertEquals(0, Robolectric.getForegroundThreadScheduler().size());
+    } finally {
+      ShadowLooper.unPauseMainLooper();
+      RxPresenterPlugins.reset();
+    }
+  }
+
+  @Test public void testPrefetchedStreamIsTakenOverAtBind() throws Exception {
+    RxPresenterPlugins.setLaneScheduler(Lane.PREFETCH, Schedulers.immediate());
+    final PublishSubject<String> subject = PublishSubject.create();
+    final AtomicInteger subscriptions = new AtomicInteger();
+    final Observable<String> load = subject.doOnSubscribe(new Action0() {
+      @Override public void call() {
+        subscriptions.incrementAndGet();
+      }
+    });
+    ActivityController controller = Robolectric.buildActivity(TestActivity.class).create().start();
+    this.presenter.bind((NaviActivity) controller.get());
+    try {
+      this.presenter.prefetch("next-screen", load);
+
+      final RxPresenter<TestMvpView> next = new TestRxPresenter();
+      next.bind((NaviActivity) Robolectric.buildActivity(TestActivity.class).create().start()
+          .get());
+      final TestSubscriber<String> testSubscriber = TestSubscriber.create();
+      next.bindPrefetched("next-screen", load, testSubscriber);
+      subject.onNext("data");
+
+      testSubscriber.assertValue("data");
+      assertEquals(1, subscriptions.get());
+    } finally {
+      RxPresenterPlugins.reset();
+    }
+  }
+
+  @Test public void testBindLatestNeverDeliversASupersededStream() throws Exception {
+    final PublishSubject<String> first = PublishSubject.create();
+    final PublishSubject<String> second = PublishSubject.create();
+    final TestSubscriber<String> firstSubscriber = TestSubscriber.create();
+    final TestSubscriber<String> secondSubscriber = TestSubscriber.create();
+
+    ActivityController controller = Robolectric.buildActivity(TestActivity.class).create().start();
+    this.presenter.bind((NaviActivity) controller.get());
+
+    ShadowLooper.pauseMainLooper();
+    try {
+      this.presenter.bindLatest("search", first, Schedulers.immediate(), firstSubscriber);
+      //queued on the main thread before the new bind
+      final Thread producer = new Thread(new Runnable() {
+        @Override public void run() {
+          first.onNext("stale");
+        }
+      });
+      producer.start();
+      producer.join();
+      this.presenter.bindLatest("search", second, Schedulers.immediate(), secondSubscriber);
+      assertFalse(first.hasObservers());
+    } finally {
+      ShadowLooper.unPauseMainLooper();
+    }
+    second.onNext("latest");
+
+    firstSubscriber.assertNoValues();
+    secondSubscriber.assertValue("latest");
+  }
+
+  @Test public void testBindLatestSwitchesToTheLatestTrigger() throws Exception {
+    final TestScheduler scheduler = new TestScheduler();
+    final PublishSubject<String> queries = PublishSubject.create();
+    final Map<String, PublishSubject<String>> results = new HashMap<>();
+    final TestSubscriber<String> testSubscriber = TestSubscriber.create();
+
+    ActivityController controller = Robolectric.buildActivity(TestActivity.class).create().start();
+    this.presenter.bind((NaviActivity) controller.get());
+    this.presenter.bindLatest(queries,
+        LatestPolicy.debounce(300, TimeUnit.MILLISECONDS, scheduler).distinct(),
+        new Func1<String, Observable<String>>() {
+          @Override public Observable<String> call(String query) {
+            final PublishSubject<String> result = PublishSubject.create();
+            results.put(query, result);
+            return result;
+          }
+        }, Schedulers.immediate(), testSubscriber);
+
+    queries.onNext("a");
+    scheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS);
+    queries.onNext("ab");
+    queries.onNext("abc");
+    scheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS);
+    queries.onNext("abc");
+    scheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS);
+
+    assertEquals(2, results.size());
+    assertFalse(results.get("a").hasObservers());
+    results.get("a").onNext("a result");
+    results.get("abc").onNext("abc result");
+    testSubscriber.assertValue("abc result");
+  }
+
+  @Test public void testActivitySingleBindLifecycle() throws Exception {
+    final PublishSubject<Integer> subject = PublishSubject.create();
+    final List<Object> results = new ArrayList<>();
+    final SingleSubscriber<Integer> subscriber = new SingleSubscriber<Integer>() {
+      @Override public void onSuccess(Integer value) {
+        results.add(value);
+      }
+
+      @Override public void onError(Throwable error) {
+        results.add(error);
+      }
+    };
+
+    ActivityController controller = Robolectric.buildActivity(TestActivity.class).create().start();
+    this.presenter.bind((NaviActivity) controller.get());
+
+    final Subscription delivered =
+        this.presenter.bindLifecycle(Single.just(1), Schedulers.immediate(), subscriber);
+    assertEquals(Arrays.<Object>asList(1), results);
+    assertTrue(delivered.isUnsubscribed());
+
+    final SingleSubscriber<Integer> pending = new SingleSubscriber<Integer>() {
+      @Override public void onSuccess(Integer value) {
+        results.add(value);
+      }
+
+      @Override public void onError(Throwable error) {
+        results.add(error);
+      }
+    };
+    this.presenter.bindLifecycle(subject.toSingle(), Schedulers.immediate(), pending);
+    controller.resume().pause().stop();
+    assertTrue(subject.hasObservers());
+    controller.destroy();
+    assertFalse(subject.hasObservers());
+    assertTrue(pending.isUnsubscribed());
+    assertEquals(Arrays.<Object>asList(1), results);
+  }
+
+  @Test public void testFragmentCompletableBindLifecycle() throws Exception {
+    final PublishSubject<Object> subject = PublishSubject.create();
+    final AtomicInteger completions = new AtomicInteger();
+    final CompletableSubscriber subscriber = new CompletableSubscriber() {
+      @Override public void onCompleted() {
+        completions.incrementAndGet();
+      }
+
+      @Override public void onError(Throwable e) {
+        throw new AssertionError(e);
+      }
+
+      @Override public void onSubscribe(Subscription d) {
+      }
+    };
+
+    NaviFragment fragment = new TestFragment();
+    this.presenter.bind(fragment);
+    startFragment(fragment);
+
+    this.presenter.bindLifecycle(Completable.complete(), Schedulers.immediate(), subscriber);
+    assertEquals(1, completions.get());
+
+    final Subscription pending = this.presenter.bindLifecycle(subject.toCompletable(),
+        Schedulers.immediate(), subscriber);
+    fragment.onStop();
+    assertTrue(subject.hasObservers());
+    fragment.onDestroyView();
+    assertFalse(subject.hasObservers());
+    assertTrue(pending.isUnsubscribed());
+    assertEquals(1, completions.get());
+  }
+
   @SuppressWarnings("unchecked") @Test(expected = IllegalArgumentException.class)
   public void testObservableBindLifecycleEmptySubscribersArray() throws Exception {
     final Observable<Object> observable = PublishSubject.create().asObservable();
@@ -0,0 +1,175 @@
+package com.ezhome.rxpresenter;
+
+import com.ezhome.rxpresenter.reactive.PresenterSchedulers.Lane;
+import com.trello.navi.component.NaviActivity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+import rx.Scheduler;
+import rx.functions.Action1;
+import rx.functions.Func1;
+import rx.schedulers.Schedulers;
+import rx.subjects.PublishSubject;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class StateRxPresenterTest {
+
+  private static final int RESULTS = 100;
+
+  private static final StateRxPresenter.Reducer<CounterState, Integer> ADD =
+      new StateRxPresenter.Reducer<CounterState, Integer>() {
+        @Override public CounterState reduce(CounterState state, Integer value) {
+          return new CounterState(state.count + value, state.title);
+        }
+      };
+
+  private static final StateRxPresenter.Reducer<CounterState, String> TITLE =
+      new StateRxPresenter.Reducer<CounterState, String>() {
+        @Override public CounterState reduce(CounterState state, String title) {
+          return new CounterState(state.count, title);
+        }
+      };
+
+  private TestStateRxPresenter presenter;
+  private ActivityController controller;
+
+  @Before public void setUp() throws Exception {
+    RxPresenterPlugins.setLaneScheduler(Lane.IO, Schedulers.immediate());
+    ShadowLooper.pauseMainLooper();
+    this.presenter = new TestStateRxPresenter();
+    this.controller = Robolectric.buildActivity(RxPresenterTest.TestActivity.class);
+    this.presenter.bind((NaviActivity) this.controller.get());
+    this.controller.create().start();
+    ShadowLooper.runUiThreadTasks();
+    this.presenter.states.clear();
+  }
+
+  @After public void tearDown() throws Exception {
+    ShadowLooper.unPauseMainLooper();
+    RxPresenterPlugins.reset();
+  }
+
+  @Test public void testResultsAreRenderedOncePerMainThreadHop() throws Exception {
+    final PublishSubject<Integer> results = PublishSubject.create();
+    this.presenter.bindState(results, ADD);
+
+    for (int i = 0; i < RESULTS; i++) {
+      results.onNext(1);
+    }
+    assertEquals(0, this.presenter.states.size());
+
+    ShadowLooper.runUiThreadTasks();
+    assertEquals(Arrays.asList(new CounterState(RESULTS, "")), this.presenter.states);
+
+    this.controller.pause().stop().destroy();
+    assertFalse(results.hasObservers());
+  }
+
+  @Test public void testEqualStateIsNotRendered() throws Exception {
+    this.presenter.dispatch("title", TITLE);
+    ShadowLooper.runUiThreadTasks();
+    this.presenter.dispatch("title", TITLE);
+    ShadowLooper.runUiThreadTasks();
+
+    assertEquals(Arrays.asList(new CounterState(0, "title")), this.presenter.states);
+  }
+
+  @Test public void testSelectorsAreMemoized() throws Exception {
+    final List<String> titles = new ArrayList<>();
+    final int[] projections = new int[1];
+    this.presenter.bindRender(new Func1<CounterState, String>() {
+      @Override public String call(CounterState state) {
+        return state.title;
+      }
+    }, new Func1<String, String>() {
+      @Override public String call(String title) {
+        projections[0]++;
+        return title.toUpperCase();
+      }
+    }, new Action1<String>() {
+      @Override public void call(String title) {
+        titles.add(title);
+      }
+    });
+    ShadowLooper.runUiThreadTasks();
+
+    this.presenter.dispatch("title", TITLE);
+    ShadowLooper.runUiThreadTasks();
+    for (int i = 0; i < RESULTS; i++) {
+      this.presenter.dispatch(1, ADD);
+      ShadowLooper.runUiThreadTasks();
+    }
+
+    assertEquals(Arrays.asList("", "TITLE"), titles);
+    assertEquals(2, projections[0]);
+    assertEquals(RESULTS + 1, this.presenter.states.size());
+  }
+
+  @Test public void testBoundViewRendersTheCurrentState() throws Exception {
+    this.presenter.dispatch(1, ADD);
+    ShadowLooper.runUiThreadTasks();
+    this.presenter.states.clear();
+
+    this.presenter.bindView(new TestMvpView() {
+    });
+
+    assertEquals(Arrays.asList(new CounterState(1, "")), this.presenter.states);
+  }
+
+  static final class CounterState {
+
+    final int count;
+    final String title;
+
+    CounterState(int count, String title) {
+      this.count = count;
+      this.title = title;
+    }
+
+    @Override public boolean equals(Object o) {
+      if (!(o instanceof CounterState)) {
+        return false;
+      }
+      final CounterState other = (CounterState) o;
+      return this.count == other.count && this.title.equals(other.title);
+    }
+
+    @Override public int hashCode() {
+      return 31 * this.count + this.title.hashCode();
+    }
+
+    @Override public String toString() {
+      return this.count + " " + this.title;
+    }
+  }
+
+  static final class TestStateRxPresenter extends StateRxPresenter<TestMvpView, CounterState> {
+
+    final List<CounterState> states = new ArrayList<>();
+
+    TestStateRxPresenter() {
+      super(new CounterState(0, ""));
+    }
+
+    @Override protected Scheduler stateScheduler() {
+      return Schedulers.immediate();
+    }
+
+    @Override protected void render(CounterState state) {
+      this.states.add(state);
+    }
+  }
+}
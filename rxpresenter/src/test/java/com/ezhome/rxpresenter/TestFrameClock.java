@@ -0,0 +1,39 @@
+package com.ezhome.rxpresenter;
+
+import android.support.annotation.NonNull;
+import android.view.Choreographer;
+import com.ezhome.rxpresenter.reactive.FrameClock;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test frame clock which emits frames on demand
+ */
+class TestFrameClock implements FrameClock {
+
+  private static final long FRAME_INTERVAL_NANOS = 16666667L;
+
+  private final List<Choreographer.FrameCallback> callbacks = new ArrayList<>();
+  private long frameTimeNanos;
+
+  @Override public void postFrameCallback(@NonNull Choreographer.FrameCallback callback) {
+    this.callbacks.add(callback);
+  }
+
+  @Override public void removeFrameCallback(@NonNull Choreographer.FrameCallback callback) {
+    this.callbacks.remove(callback);
+  }
+
+  int pendingCallbacks() {
+    return this.callbacks.size();
+  }
+
+  void doFrame() {
+    this.frameTimeNanos += FRAME_INTERVAL_NANOS;
+    final List<Choreographer.FrameCallback> frameCallbacks = new ArrayList<>(this.callbacks);
+    this.callbacks.clear();
+    for (Choreographer.FrameCallback callback : frameCallbacks) {
+      callback.doFrame(this.frameTimeNanos);
+    }
+  }
+}
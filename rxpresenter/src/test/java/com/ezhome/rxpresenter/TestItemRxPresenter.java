@@ -0,0 +1,26 @@
+package com.ezhome.rxpresenter;
+
+import rx.Observable;
+import rx.Subscription;
+import rx.observers.TestSubscriber;
+
+/**
+ * Test item presenter
+ */
+class TestItemRxPresenter extends ItemRxPresenter<TestMvpView> {
+
+  int attachCount;
+  int unbindCount;
+
+  <T> Subscription show(Observable<T> observable, TestSubscriber<T> subscriber) {
+    return this.bindItem(observable, subscriber);
+  }
+
+  @Override protected void onAttach() {
+    this.attachCount++;
+  }
+
+  @Override protected void onUnbind() {
+    this.unbindCount++;
+  }
+}
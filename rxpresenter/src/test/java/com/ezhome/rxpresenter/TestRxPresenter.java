@@ -4,4 +4,11 @@ package com.ezhome.rxpresenter;
  * Test presenter
  */
 class TestRxPresenter extends RxPresenter<TestMvpView> {
-}
\ No newline at end of file
+
+  int destroyCount;
+
+  @Override public void destroy() {
+    super.destroy();
+    this.destroyCount++;
+  }
+}
@@ -0,0 +1,50 @@
+package com.ezhome.rxpresenter.reactive;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+public class LatestPolicyTest {
+
+  private PublishSubject<String> triggers;
+  private TestSubscriber<String> testSubscriber;
+
+  @Before public void setUp() throws Exception {
+    this.triggers = PublishSubject.create();
+    this.testSubscriber = TestSubscriber.create();
+  }
+
+  @Test public void testNoneKeepsEveryTrigger() throws Exception {
+    LatestPolicy.none().apply(this.triggers).subscribe(this.testSubscriber);
+
+    this.triggers.onNext("a");
+    this.triggers.onNext("a");
+
+    this.testSubscriber.assertValues("a", "a");
+  }
+
+  @Test public void testDebouncedDistinctTriggers() throws Exception {
+    final TestScheduler scheduler = new TestScheduler();
+    LatestPolicy.debounce(300, TimeUnit.MILLISECONDS, scheduler).distinct()
+        .apply(this.triggers)
+        .subscribe(this.testSubscriber);
+
+    this.triggers.onNext("a");
+    this.triggers.onNext("ab");
+    scheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS);
+    this.triggers.onNext("abc");
+    scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS);
+    this.triggers.onNext("ab");
+    scheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS);
+
+    this.testSubscriber.assertValue("ab");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDebounceTimeoutMustBePositive() throws Exception {
+    LatestPolicy.debounce(0, TimeUnit.MILLISECONDS);
+  }
+}
@@ -0,0 +1,104 @@
+package com.ezhome.rxpresenter.reactive;
+
+import android.support.v7.util.ListUpdateCallback;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+public class ListStateTest {
+
+  private static final ListState.ItemCallback<String> BY_FIRST_LETTER =
+      new ListState.ItemCallback<String>() {
+        @Override public boolean areItemsTheSame(String oldItem, String newItem) {
+          return oldItem.charAt(0) == newItem.charAt(0);
+        }
+
+        @Override public boolean areContentsTheSame(String oldItem, String newItem) {
+          return oldItem.equals(newItem);
+        }
+      };
+
+  private PublishSubject<List<String>> subject;
+  private TestSubscriber<ListState<String>> testSubscriber;
+
+  @Before public void setUp() throws Exception {
+    this.subject = PublishSubject.create();
+    this.testSubscriber = TestSubscriber.create();
+  }
+
+  @Test public void testFirstListIsDiffedAgainstAnEmptyList() throws Exception {
+    this.subject.compose(ListState.diffing(BY_FIRST_LETTER, Schedulers.immediate()))
+        .subscribe(this.testSubscriber);
+
+    this.subject.onNext(Arrays.asList("a", "b", "c"));
+
+    this.testSubscriber.assertValueCount(1);
+    assertEquals(Arrays.asList("inserted 0 3"), updates(this.testSubscriber, 0));
+  }
+
+  @Test public void testListIsDiffedAgainstThePreviousList() throws Exception {
+    this.subject.compose(ListState.diffing(BY_FIRST_LETTER, Schedulers.immediate()))
+        .subscribe(this.testSubscriber);
+
+    this.subject.onNext(Arrays.asList("a", "b", "c"));
+    this.subject.onNext(Arrays.asList("a", "b2", "c", "d"));
+
+    this.testSubscriber.assertValueCount(2);
+    assertEquals(Arrays.asList("a", "b2", "c", "d"),
+        this.testSubscriber.getOnNextEvents().get(1).list());
+    final List<String> updates = updates(this.testSubscriber, 1);
+    assertEquals(2, updates.size());
+    assertTrue(updates.contains("changed 1 1"));
+    assertTrue(updates.contains("inserted 3 1"));
+  }
+
+  @Test public void testNewListCancelsTheStaleDiff() throws Exception {
+    final TestScheduler scheduler = new TestScheduler();
+    this.subject.compose(ListState.diffing(BY_FIRST_LETTER, scheduler))
+        .subscribe(this.testSubscriber);
+
+    this.subject.onNext(Arrays.asList("a"));
+    this.subject.onNext(Arrays.asList("a", "b"));
+    scheduler.triggerActions();
+
+    //the stale diff is never emitted so the latest list is diffed against the empty list
+    this.testSubscriber.assertValueCount(1);
+    assertEquals(Arrays.asList("inserted 0 2"), updates(this.testSubscriber, 0));
+
+    this.subject.onNext(Arrays.asList("a", "b", "c"));
+    scheduler.triggerActions();
+    this.testSubscriber.assertValueCount(2);
+    assertEquals(Arrays.asList("inserted 2 1"), updates(this.testSubscriber, 1));
+  }
+
+  private static List<String> updates(TestSubscriber<ListState<String>> subscriber, int index) {
+    final List<String> updates = new ArrayList<>();
+    subscriber.getOnNextEvents().get(index).dispatchUpdatesTo(new ListUpdateCallback() {
+      @Override public void onInserted(int position, int count) {
+        updates.add("inserted " + position + " " + count);
+      }
+
+      @Override public void onRemoved(int position, int count) {
+        updates.add("removed " + position + " " + count);
+      }
+
+      @Override public void onMoved(int fromPosition, int toPosition) {
+        updates.add("moved " + fromPosition + " " + toPosition);
+      }
+
+      @Override public void onChanged(int position, int count, Object payload) {
+        updates.add("changed " + position + " " + count);
+      }
+    });
+    return updates;
+  }
+}
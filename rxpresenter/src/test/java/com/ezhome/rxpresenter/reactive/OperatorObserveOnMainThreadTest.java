@@ -0,0 +1,103 @@
+package com.ezhome.rxpresenter.reactive;
+
+import android.os.Looper;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+import rx.Observable;
+import rx.android.schedulers.AndroidSchedulers;
+import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
+
+import static junit.framework.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class OperatorObserveOnMainThreadTest {
+
+  private OperatorObserveOnMainThread<Integer> operator;
+
+  @Before public void setUp() throws Exception {
+    ShadowLooper.pauseMainLooper();
+    this.operator = new OperatorObserveOnMainThread<>(
+        AndroidSchedulers.from(Looper.getMainLooper()), Looper.getMainLooper());
+  }
+
+  @After public void tearDown() throws Exception {
+    ShadowLooper.unPauseMainLooper();
+  }
+
+  @Test public void testMainThreadEmissionIsDeliveredSynchronously() throws Exception {
+    final TestSubscriber<Integer> testSubscriber = TestSubscriber.create();
+
+    Observable.just(1, 2).lift(this.operator).subscribe(testSubscriber);
+
+    testSubscriber.assertValues(1, 2);
+    testSubscriber.assertCompleted();
+    assertEquals(0, Robolectric.getForegroundThreadScheduler().size());
+  }
+
+  @Test public void testBackgroundEmissionIsPosted() throws Exception {
+    final PublishSubject<Integer> subject = PublishSubject.create();
+    final TestSubscriber<Integer> testSubscriber = TestSubscriber.create();
+    subject.lift(this.operator).subscribe(testSubscriber);
+
+    emitInBackground(subject, 0, 3);
+    testSubscriber.assertNoValues();
+
+    ShadowLooper.runUiThreadTasks();
+    testSubscriber.assertValues(0, 1, 2);
+  }
+
+  @Test public void testMixedThreadEmissionKeepsTheOrder() throws Exception {
+    final PublishSubject<Integer> subject = PublishSubject.create();
+    final TestSubscriber<Integer> testSubscriber = TestSubscriber.create();
+    //a hot subject outruns the requests of the small android queue like with observeOn
+    subject.onBackpressureBuffer().lift(this.operator).subscribe(testSubscriber);
+
+    int next = 0;
+    for (int round = 0; round < 20; round++) {
+      next = emitInBackground(subject, next, 5);
+      //queued behind the background items which are not delivered yet
+      subject.onNext(next++);
+      assertEquals(round * 7, testSubscriber.getOnNextEvents().size());
+
+      ShadowLooper.runUiThreadTasks();
+      //nothing is queued anymore so it is delivered right away
+      subject.onNext(next++);
+      assertEquals(next, testSubscriber.getOnNextEvents().size());
+    }
+
+    final List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < next; i++) {
+      expected.add(i);
+    }
+    assertEquals(expected, testSubscriber.getOnNextEvents());
+  }
+
+  /**
+   * Emits count items from another thread and waits for them
+   *
+   * @return the next item
+   */
+  private static int emitInBackground(final PublishSubject<Integer> subject, final int from,
+      final int count) throws InterruptedException {
+    final Thread thread = new Thread(new Runnable() {
+      @Override public void run() {
+        for (int i = from; i < from + count; i++) {
+          subject.onNext(i);
+        }
+      }
+    });
+    thread.start();
+    thread.join();
+    return from + count;
+  }
+}
@@ -0,0 +1,94 @@
+package com.ezhome.rxpresenter.reactive;
+
+import org.junit.Before;
+import org.junit.Test;
+import rx.observers.TestSubscriber;
+import rx.subjects.BehaviorSubject;
+import rx.subjects.PublishSubject;
+
+public class OperatorPauseDeliveryTest {
+
+  private BehaviorSubject<Boolean> pausedState;
+  private PublishSubject<Integer> subject;
+  private TestSubscriber<Integer> testSubscriber;
+
+  @Before public void setUp() throws Exception {
+    this.pausedState = BehaviorSubject.create(false);
+    this.subject = PublishSubject.create();
+    this.testSubscriber = TestSubscriber.create();
+  }
+
+  @Test public void testBufferHoldsTheNewestItemsWhilePaused() throws Exception {
+    subscribe(PauseDelivery.buffer(2));
+
+    this.subject.onNext(1);
+    this.pausedState.onNext(true);
+    this.subject.onNext(2);
+    this.subject.onNext(3);
+    this.subject.onNext(4);
+    this.testSubscriber.assertValues(1);
+
+    this.pausedState.onNext(false);
+    this.testSubscriber.assertValues(1, 3, 4);
+  }
+
+  @Test public void testLatestHoldsOnlyTheLatestItemWhilePaused() throws Exception {
+    subscribe(PauseDelivery.latest());
+
+    this.pausedState.onNext(true);
+    this.subject.onNext(1);
+    this.subject.onNext(2);
+    this.testSubscriber.assertNoValues();
+
+    this.pausedState.onNext(false);
+    this.testSubscriber.assertValues(2);
+  }
+
+  @Test public void testDropDiscardsItemsWhilePaused() throws Exception {
+    subscribe(PauseDelivery.drop());
+
+    this.pausedState.onNext(true);
+    this.subject.onNext(1);
+    this.pausedState.onNext(false);
+    this.subject.onNext(2);
+
+    this.testSubscriber.assertValues(2);
+  }
+
+  @Test public void testTerminalEventIsDeliveredAfterTheHeldItems() throws Exception {
+    subscribe(PauseDelivery.latest());
+
+    this.pausedState.onNext(true);
+    this.subject.onNext(1);
+    this.subject.onCompleted();
+    this.testSubscriber.assertNotCompleted();
+
+    this.pausedState.onNext(false);
+    this.testSubscriber.assertValues(1);
+    this.testSubscriber.assertCompleted();
+  }
+
+  @Test public void testChildWhichPausesWhileReceivingHoldsTheRest() throws Exception {
+    this.testSubscriber = new TestSubscriber<Integer>() {
+      @Override public void onNext(Integer value) {
+        super.onNext(value);
+        //re-entrant pause from the view code
+        pausedState.onNext(true);
+      }
+    };
+    subscribe(PauseDelivery.buffer(10));
+
+    this.subject.onNext(1);
+    this.subject.onNext(2);
+    this.subject.onNext(3);
+    this.testSubscriber.assertValues(1);
+
+    this.pausedState.onNext(false);
+    this.testSubscriber.assertValues(1, 2);
+  }
+
+  private void subscribe(PauseDelivery delivery) {
+    this.subject.lift(new OperatorPauseDelivery<Integer>(this.pausedState, delivery))
+        .subscribe(this.testSubscriber);
+  }
+}
@@ -0,0 +1,101 @@
+package com.ezhome.rxpresenter.reactive;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Action0;
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+
+public class PrefetchRegistryTest {
+
+  private PrefetchRegistry registry;
+  private TestScheduler scheduler;
+  private PublishSubject<Integer> subject;
+  private AtomicInteger upstreamSubscriptions;
+  private AtomicInteger upstreamUnsubscriptions;
+  private Observable<Integer> upstream;
+
+  @Before public void setUp() throws Exception {
+    this.scheduler = new TestScheduler();
+    this.registry = new PrefetchRegistry(this.scheduler);
+    this.subject = PublishSubject.create();
+    this.upstreamSubscriptions = new AtomicInteger();
+    this.upstreamUnsubscriptions = new AtomicInteger();
+    this.upstream = this.subject.doOnSubscribe(new Action0() {
+      @Override public void call() {
+        upstreamSubscriptions.incrementAndGet();
+      }
+    }).doOnUnsubscribe(new Action0() {
+      @Override public void call() {
+        upstreamUnsubscriptions.incrementAndGet();
+      }
+    });
+  }
+
+  @Test public void testInFlightStreamIsTakenOver() throws Exception {
+    assertTrue(this.registry.prefetch("key", this.upstream, this.scheduler, 1, TimeUnit.SECONDS));
+    this.scheduler.triggerActions();
+
+    final TestSubscriber<Integer> testSubscriber = TestSubscriber.create();
+    this.registry.<Integer>take("key").subscribe(testSubscriber);
+    this.subject.onNext(1);
+    this.subject.onCompleted();
+
+    testSubscriber.assertValue(1);
+    testSubscriber.assertCompleted();
+    assertEquals(1, this.upstreamSubscriptions.get());
+    assertEquals(1, this.registry.hits());
+    assertEquals(0, this.registry.size());
+  }
+
+  @Test public void testCompletedStreamIsReplayed() throws Exception {
+    this.registry.prefetch("key", this.upstream, this.scheduler, 1, TimeUnit.SECONDS);
+    this.scheduler.triggerActions();
+    this.subject.onNext(1);
+    this.subject.onNext(2);
+    this.subject.onCompleted();
+
+    //the stream is taken after it completed but before it expired
+    this.scheduler.advanceTimeBy(500, TimeUnit.MILLISECONDS);
+    final TestSubscriber<Integer> testSubscriber = TestSubscriber.create();
+    this.registry.<Integer>take("key").subscribe(testSubscriber);
+
+    testSubscriber.assertValues(1, 2);
+    testSubscriber.assertCompleted();
+    assertEquals(0, this.registry.expirations());
+  }
+
+  @Test public void testStreamWhichIsNotTakenExpires() throws Exception {
+    this.registry.prefetch("key", this.upstream, this.scheduler, 1, TimeUnit.SECONDS);
+    this.scheduler.triggerActions();
+
+    this.scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+    assertFalse(this.subject.hasObservers());
+    assertEquals(1, this.upstreamUnsubscriptions.get());
+    assertNull(this.registry.take("key"));
+    assertEquals(1, this.registry.expirations());
+    assertEquals(1, this.registry.misses());
+  }
+
+  @Test public void testTakerUnsubscribingCancelsTheStream() throws Exception {
+    this.registry.prefetch("key", this.upstream, this.scheduler, 1, TimeUnit.SECONDS);
+    this.scheduler.triggerActions();
+    assertFalse(this.registry.prefetch("key", this.upstream, this.scheduler, 1, TimeUnit.SECONDS));
+
+    this.registry.<Integer>take("key").subscribe(TestSubscriber.<Integer>create()).unsubscribe();
+
+    assertFalse(this.subject.hasObservers());
+    assertEquals(1, this.upstreamSubscriptions.get());
+    assertNull(this.registry.take("key"));
+  }
+}
@@ -0,0 +1,86 @@
+package com.ezhome.rxpresenter.reactive;
+
+import android.os.Looper;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+import rx.Observable;
+import rx.Scheduler;
+import rx.android.schedulers.AndroidSchedulers;
+import rx.observers.TestSubscriber;
+
+import static junit.framework.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class PresenterMainDispatcherTest {
+
+  private static final int STREAMS = 15;
+
+  @Before public void setUp() throws Exception {
+    ShadowLooper.pauseMainLooper();
+  }
+
+  @After public void tearDown() throws Exception {
+    ShadowLooper.unPauseMainLooper();
+  }
+
+  @Test public void testPerStreamObserveOnPostsOneMessagePerStream() throws Exception {
+    final List<TestSubscriber<Integer>> subscribers =
+        subscribeStreams(AndroidSchedulers.from(Looper.getMainLooper()));
+
+    assertEquals(STREAMS, Robolectric.getForegroundThreadScheduler().size());
+
+    ShadowLooper.runUiThreadTasks();
+    assertDelivered(subscribers);
+  }
+
+  @Test public void testSharedDispatcherPostsOneMessagePerBatch() throws Exception {
+    final PresenterMainDispatcher dispatcher =
+        new PresenterMainDispatcher(Looper.getMainLooper(), false);
+    final List<TestSubscriber<Integer>> subscribers = subscribeStreams(dispatcher);
+
+    assertEquals(1, Robolectric.getForegroundThreadScheduler().size());
+    assertEquals(1, dispatcher.postedMessages());
+
+    ShadowLooper.runUiThreadTasks();
+    assertDelivered(subscribers);
+    assertEquals(1, dispatcher.postedMessages());
+  }
+
+  @Test public void testSharedDispatcherSkipsUnsubscribedActions() throws Exception {
+    final PresenterMainDispatcher dispatcher =
+        new PresenterMainDispatcher(Looper.getMainLooper(), false);
+    final TestSubscriber<Integer> testSubscriber = TestSubscriber.create();
+
+    Observable.just(1).observeOn(dispatcher).subscribe(testSubscriber);
+    testSubscriber.unsubscribe();
+
+    ShadowLooper.runUiThreadTasks();
+    testSubscriber.assertNoValues();
+  }
+
+  private List<TestSubscriber<Integer>> subscribeStreams(Scheduler scheduler) {
+    final List<TestSubscriber<Integer>> subscribers = new ArrayList<>();
+    for (int i = 0; i < STREAMS; i++) {
+      final TestSubscriber<Integer> testSubscriber = TestSubscriber.create();
+      Observable.just(i).observeOn(scheduler).subscribe(testSubscriber);
+      subscribers.add(testSubscriber);
+    }
+    return subscribers;
+  }
+
+  private void assertDelivered(List<TestSubscriber<Integer>> subscribers) {
+    for (int i = 0; i < subscribers.size(); i++) {
+      subscribers.get(i).assertValue(i);
+      subscribers.get(i).assertCompleted();
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package com.ezhome.rxpresenter.reactive;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Action0;
+import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+import rx.subjects.PublishSubject;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+
+public class SharedStreamRegistryTest {
+
+  private SharedStreamRegistry registry;
+  private PublishSubject<Integer> subject;
+  private AtomicInteger upstreamSubscriptions;
+  private Observable<Integer> upstream;
+
+  @Before public void setUp() throws Exception {
+    this.registry = new SharedStreamRegistry();
+    this.subject = PublishSubject.create();
+    this.upstreamSubscriptions = new AtomicInteger();
+    this.upstream = this.subject.doOnSubscribe(new Action0() {
+      @Override public void call() {
+        upstreamSubscriptions.incrementAndGet();
+      }
+    });
+  }
+
+  @Test public void testSameKeyJoinsTheInFlightStream() throws Exception {
+    final TestSubscriber<Integer> first = TestSubscriber.create();
+    final TestSubscriber<Integer> second = TestSubscriber.create();
+
+    this.registry.share("key", this.upstream, Schedulers.immediate()).subscribe(first);
+    this.registry.share("key", this.upstream, Schedulers.immediate()).subscribe(second);
+    this.subject.onNext(1);
+
+    assertEquals(1, this.upstreamSubscriptions.get());
+    first.assertValue(1);
+    second.assertValue(1);
+    assertEquals(1, this.registry.misses());
+    assertEquals(1, this.registry.hits());
+  }
+
+  @Test public void testEntryIsRemovedWhenTheLastSubscriberUnsubscribes() throws Exception {
+    final TestSubscriber<Integer> first = TestSubscriber.create();
+    final TestSubscriber<Integer> second = TestSubscriber.create();
+
+    this.registry.share("key", this.upstream, Schedulers.immediate()).subscribe(first);
+    this.registry.share("key", this.upstream, Schedulers.immediate()).subscribe(second);
+
+    first.unsubscribe();
+    assertEquals(1, this.registry.size());
+    second.unsubscribe();
+    assertEquals(0, this.registry.size());
+    assertFalse(this.subject.hasObservers());
+
+    //a new caller starts the upstream again
+    this.registry.share("key", this.upstream, Schedulers.immediate())
+        .subscribe(TestSubscriber.<Integer>create());
+    assertEquals(2, this.upstreamSubscriptions.get());
+    assertEquals(2, this.registry.misses());
+  }
+
+  @Test public void testStreamIsNotRegisteredUntilSubscribed() throws Exception {
+    final TestSubscriber<Integer> testSubscriber = TestSubscriber.create();
+
+    final Observable<Integer> unused =
+        this.registry.share("key", PublishSubject.<Integer>create(), Schedulers.immediate());
+    assertEquals(0, this.registry.size());
+
+    //a later caller does not get the stream which was never subscribed
+    this.registry.share("key", this.upstream, Schedulers.immediate()).subscribe(testSubscriber);
+    this.subject.onNext(1);
+
+    testSubscriber.assertValue(1);
+    assertEquals(1, this.registry.misses());
+    assertEquals(0, this.registry.hits());
+    unused.subscribe(TestSubscriber.<Integer>create());
+    assertEquals(1, this.registry.hits());
+  }
+
+  @Test public void testEntryIsRemovedWhenTheStreamTerminates() throws Exception {
+    final TestSubscriber<Integer> testSubscriber = TestSubscriber.create();
+
+    this.registry.share("key", this.upstream, Schedulers.immediate()).subscribe(testSubscriber);
+    this.subject.onCompleted();
+
+    testSubscriber.assertCompleted();
+    assertEquals(0, this.registry.size());
+  }
+}